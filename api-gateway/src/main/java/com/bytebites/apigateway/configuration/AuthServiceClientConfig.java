@@ -0,0 +1,31 @@
+package com.bytebites.apigateway.configuration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+
+/**
+ * Client for the gateway's own calls to auth-service (verification keys, revocation snapshot).
+ * An {@code lb://} base URI is resolved through discovery, like the {@code lb://} route URIs.
+ */
+@Configuration
+public class AuthServiceClientConfig {
+
+    @Bean
+    public WebClient authServiceWebClient(WebClient.Builder builder,
+                                          ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancer,
+                                          @Value("${app.auth-service.uri:lb://auth-service}") URI baseUri) {
+        if ("lb".equals(baseUri.getScheme())) {
+            return builder.clone()
+                    .filter(loadBalancer.getObject())
+                    .baseUrl("http" + baseUri.toString().substring(2))
+                    .build();
+        }
+        return builder.clone().baseUrl(baseUri.toString()).build();
+    }
+}
@@ -1,38 +1,68 @@
 package com.bytebites.apigateway.configuration;
 
 import com.bytebites.apigateway.filter.JwtValidationFilter;
+import com.bytebites.apigateway.ratelimit.RateLimiterRegistry;
+import com.bytebites.apigateway.routing.GatewayPathMatcher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.route.builder.UriSpec;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 
 @Configuration
+@EnableConfigurationProperties(GatewayRoutesProperties.class)
 public class GatewayConfig {
 
     private final JwtValidationFilter jwtValidationFilter;
+    private final GatewayPathMatcher pathMatcher;
+    private final GatewayRoutesProperties routesProperties;
+    private final RateLimiterRegistry rateLimiterRegistry;
 
     @Autowired
-    public GatewayConfig(JwtValidationFilter jwtValidationFilter) {
+    public GatewayConfig(JwtValidationFilter jwtValidationFilter,
+                         GatewayPathMatcher pathMatcher,
+                         GatewayRoutesProperties routesProperties,
+                         RateLimiterRegistry rateLimiterRegistry) {
         this.jwtValidationFilter = jwtValidationFilter;
+        this.pathMatcher = pathMatcher;
+        this.routesProperties = routesProperties;
+        this.rateLimiterRegistry = rateLimiterRegistry;
     }
 
     @Bean
     public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
-        return builder.routes()
-                .route("auth-service", r -> r.path("/auth/**")
-                        .filters(f -> f.filter(jwtValidationFilter))
-                        .uri("lb://auth-service"))
-
-                .route("restaurant-service", r -> r.path("/api/restaurants/**")
-                        .filters(f -> f.filter(jwtValidationFilter))
-                        .uri("lb://restaurant-service"))
-
-                .route("order-service", r -> r.path("/api/orders/**")
-                        .filters(f -> f.filter(jwtValidationFilter))
-                        .uri("lb://order-service"))
-
-                .build();
+        RouteLocatorBuilder.Builder routes = builder.routes();
+        for (GatewayRoutesProperties.Route route : routesProperties.getRoutes()) {
+            RateLimiterRegistry.RouteLimits limits = rateLimiterRegistry.forRoute(route);
+            routes.route(route.getId(), r -> {
+                UriSpec spec = r.predicate(exchange -> pathMatcher.matchesRoute(exchange, route.getId()))
+                        .filters(f -> {
+                            // The IP limit shields signature checks from floods; the user limit needs the verified user
+                            if (limits != null && limits.perIp() != null) {
+                                f.filter(limits.perIp(), -1);
+                            }
+                            f.filter(jwtValidationFilter, 0);
+                            if (limits != null && limits.perUser() != null) {
+                                f.filter(limits.perUser(), 1);
+                            }
+                            if (route.isStreaming()) {
+                                f.setResponseHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                                f.setResponseHeader("X-Accel-Buffering", "no");
+                            }
+                            return f;
+                        });
+                if (route.isStreaming()) {
+                    // text/event-stream bodies are already flushed chunk by chunk; only the timeout would cut them off
+                    spec = spec.metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1);
+                }
+                return spec.uri(route.getUri());
+            });
+        }
+        return routes.build();
     }
 
-}
\ No newline at end of file
+}
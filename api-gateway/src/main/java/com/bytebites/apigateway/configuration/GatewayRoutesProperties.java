@@ -0,0 +1,81 @@
+package com.bytebites.apigateway.configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route table and public (unauthenticated) paths of the gateway, bound from {@code app.gateway.*}.
+ * The defaults reproduce the routes that used to be hard-coded in {@link GatewayConfig}.
+ * Paths use the {@code /prefix/**} or plain-prefix forms understood by
+ * {@link com.bytebites.apigateway.routing.PathPrefixTrie}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.gateway")
+public class GatewayRoutesProperties {
+
+    private List<Route> routes = new ArrayList<>(List.of(
+            new Route("auth-service", "/auth/**", "lb://auth-service",
+                    new RateLimit(null, new Limit(5, 10))),
+            new Route("restaurant-service", "/api/restaurants/**", "lb://restaurant-service",
+                    new RateLimit(new Limit(50, 100), new Limit(100, 200))),
+            new Route("order-service", "/api/orders/**", "lb://order-service",
+                    new RateLimit(new Limit(20, 40), new Limit(100, 200))),
+            new Route("order-stream", "/api/orders/stream", "lb://order-service",
+                    new RateLimit(new Limit(1, 5), new Limit(100, 200)), true)
+    ));
+
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/auth/login",
+            "/auth/register",
+            // Called when the access token has expired, so it cannot require one
+            "/auth/refresh",
+            "/auth/.well-known",
+            "/eureka"
+    ));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        private String id;
+        private String path;
+        private String uri;
+        /** Optional; a route without limits is not rate limited. */
+        private RateLimit rateLimit;
+        /**
+         * Long-lived responses such as Server-Sent Events: no response timeout, and proxies in
+         * front of the gateway are asked not to buffer.
+         */
+        private boolean streaming;
+
+        public Route(String id, String path, String uri, RateLimit rateLimit) {
+            this(id, path, uri, rateLimit, false);
+        }
+    }
+
+    /**
+     * Limits applied per authenticated user ID and per client IP. Either may be left unset.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RateLimit {
+        private Limit perUser;
+        private Limit perIp;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /** Permits added per second. */
+        private double replenishRate;
+        /** Maximum number of requests accepted back to back. */
+        private int burstCapacity;
+    }
+}
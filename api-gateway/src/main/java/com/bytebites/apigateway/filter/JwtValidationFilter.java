@@ -1,17 +1,16 @@
 package com.bytebites.apigateway.filter; // Assuming a package name
 
-import io.jsonwebtoken.Claims;
+import com.bytebites.apigateway.routing.GatewayPathMatcher;
+import com.bytebites.apigateway.security.JwtTokenVerifier;
+import com.bytebites.apigateway.security.RevocationList;
+import com.bytebites.apigateway.security.VerifiedToken;
+import com.bytebites.apigateway.security.VerifiedTokenCache;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
-import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.http.HttpHeaders;
@@ -22,39 +21,34 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.security.Key;
-import java.util.List;
-
 @Component
 public class JwtValidationFilter implements GatewayFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtValidationFilter.class);
 
-    @Value("${app.jwt.secret}")
-    private String secret;
+    /** Exchange attribute holding the {@link VerifiedToken} of an authenticated request. */
+    public static final String VERIFIED_TOKEN_ATTR = JwtValidationFilter.class.getName() + ".verifiedToken";
 
-    private Key key;
+    private final JwtTokenVerifier tokenVerifier;
+    private final VerifiedTokenCache tokenCache;
+    private final GatewayPathMatcher pathMatcher;
+    private final RevocationList revocationList;
 
-    @PostConstruct
-    public void init() {
-        // FIX: Secret key must be Base64-decoded to match the signing key from JwtUtil
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        this.key = Keys.hmacShaKeyFor(keyBytes);
+    public JwtValidationFilter(JwtTokenVerifier tokenVerifier, VerifiedTokenCache tokenCache,
+                               GatewayPathMatcher pathMatcher, RevocationList revocationList) {
+        this.tokenVerifier = tokenVerifier;
+        this.tokenCache = tokenCache;
+        this.pathMatcher = pathMatcher;
+        this.revocationList = revocationList;
     }
 
-    // Paths that do not require authentication
-    private static final List<String> EXCLUDED_PATHS = List.of(
-            "/auth/login",
-            "/auth/register",
-            "/eureka"
-    );
-
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         ServerHttpResponse response = exchange.getResponse();
 
-        if (isPathExcluded(request.getURI().getPath())) {
+        // Paths that do not require authentication come from app.gateway.public-paths
+        if (pathMatcher.isPublic(request.getPath().value())) {
             logger.info("Excluding path from JWT validation: {}", request.getURI().getPath());
             return chain.filter(exchange);
         }
@@ -75,27 +69,23 @@ public class JwtValidationFilter implements GatewayFilter {
         String token = authHeader.substring(7);
 
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            Object rolesClaim = claims.get("roles");
-            String rolesHeaderValue = "";
-            if (rolesClaim instanceof List) {
-                rolesHeaderValue = String.join(",", (List<String>) rolesClaim);
-            } else if (rolesClaim != null) {
-                rolesHeaderValue = rolesClaim.toString();
+            // Signature and claims are only checked on a cache miss; hits reuse the extracted headers
+            VerifiedToken verified = tokenCache.get(token, tokenVerifier::verify);
+            // Checked on every request, cache hits included, since a token can be revoked after it was cached
+            if (revocationList.isRevoked(verified)) {
+                logger.warn("Revoked JWT presented for user: {}", verified.subject());
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return response.setComplete();
             }
+            exchange.getAttributes().put(VERIFIED_TOKEN_ATTR, verified);
 
             ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-User-ID", claims.get("userId", String.class))
-                    .header("X-User-Roles", rolesHeaderValue)
-                    .header("X-User-Email", claims.get("email", String.class))
+                    .header("X-User-ID", verified.userId())
+                    .header("X-User-Roles", verified.roles())
+                    .header("X-User-Email", verified.email())
                     .build();
 
-            logger.info("JWT validated successfully for user: {}", claims.getSubject());
+            logger.debug("JWT validated successfully for user: {}", verified.subject());
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
 
         } catch (ExpiredJwtException e) {
@@ -112,8 +102,4 @@ public class JwtValidationFilter implements GatewayFilter {
             return response.setComplete();
         }
     }
-
-    private boolean isPathExcluded(String path) {
-        return EXCLUDED_PATHS.stream().anyMatch(path::startsWith);
-    }
-}
\ No newline at end of file
+}
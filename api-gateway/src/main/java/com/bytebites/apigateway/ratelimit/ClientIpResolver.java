@@ -0,0 +1,131 @@
+package com.bytebites.apigateway.ratelimit;
+
+import io.netty.util.NetUtil;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the client IP that the per-IP limits key on.
+ * <p>
+ * Behind a load balancer every connection comes from the balancer, so the client is read from
+ * {@code X-Forwarded-For}, but only on connections from one of the trusted proxies: anyone can
+ * send the header, and trusting it from a direct client would let it pick a fresh bucket per
+ * request. The entries are walked from the right, past the trusted proxies that appended them;
+ * the first address that is not a trusted proxy is the client. With no trusted proxies the peer
+ * address is used as is. {@code server.forward-headers-strategy} is deliberately left unset, as
+ * it trusts the header from any peer.
+ */
+class ClientIpResolver {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<Cidr> trustedProxies;
+
+    /**
+     * @param trustedProxies IP addresses or CIDR ranges, e.g. {@code 10.0.0.0/8}
+     */
+    ClientIpResolver(List<String> trustedProxies) {
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(Cidr::parse)
+                .toList();
+    }
+
+    /**
+     * Returns the client IP, or {@code null} if the peer address is unknown.
+     */
+    String resolve(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return null;
+        }
+        InetAddress client = remoteAddress.getAddress();
+        if (!isTrusted(client)) {
+            return client.getHostAddress();
+        }
+        List<String> forwarded = forwardedFor(request);
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            InetAddress hop = NetUtil.createInetAddressFromIpAddressString(forwarded.get(i));
+            if (hop == null) {
+                // Not an address; whatever is left of it cannot be trusted either
+                break;
+            }
+            client = hop;
+            if (!isTrusted(hop)) {
+                break;
+            }
+        }
+        return client.getHostAddress();
+    }
+
+    private boolean isTrusted(InetAddress address) {
+        for (Cidr proxy : trustedProxies) {
+            if (proxy.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> forwardedFor(ServerHttpRequest request) {
+        List<String> values = request.getHeaders().get(X_FORWARDED_FOR);
+        if (values == null) {
+            return List.of();
+        }
+        List<String> hops = new ArrayList<>();
+        for (String value : values) {
+            for (String hop : value.split(",")) {
+                hops.add(hop.trim());
+            }
+        }
+        return hops;
+    }
+
+    private record Cidr(byte[] network, int prefixLength) {
+
+        static Cidr parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            String address = slash < 0 ? cidr : cidr.substring(0, slash);
+            byte[] network = NetUtil.createByteArrayFromIpAddressString(address);
+            if (network == null) {
+                throw new IllegalArgumentException("Trusted proxy is not an IP address or CIDR range: " + cidr);
+            }
+            int prefixLength = network.length * 8;
+            if (slash >= 0) {
+                try {
+                    prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid prefix length in trusted proxy " + cidr, e);
+                }
+                if (prefixLength < 0 || prefixLength > network.length * 8) {
+                    throw new IllegalArgumentException("Invalid prefix length in trusted proxy " + cidr);
+                }
+            }
+            return new Cidr(network, prefixLength);
+        }
+
+        boolean contains(InetAddress address) {
+            byte[] bytes = address.getAddress();
+            if (bytes.length != network.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (bytes[i] != network[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (bytes[fullBytes] & mask) == (network[fullBytes] & mask);
+        }
+    }
+}
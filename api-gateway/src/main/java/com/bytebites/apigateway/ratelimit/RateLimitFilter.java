@@ -0,0 +1,108 @@
+package com.bytebites.apigateway.ratelimit;
+
+import com.bytebites.apigateway.filter.JwtValidationFilter;
+import com.bytebites.apigateway.security.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route admission control on one key, the client IP or the authenticated user.
+ * The per-IP filter goes before {@link JwtValidationFilter}, so that a flood of bad tokens is
+ * turned away before any signature is checked; the per-user filter goes after it, since it keys
+ * on the verified user, and public paths are only limited per client IP. A request the user limit
+ * rejects hands its IP permit back, so a throttled user does not also use up the IP's budget.
+ * Rejected requests get a 429 with a {@code Retry-After} in whole seconds. The client IP comes
+ * from {@link ClientIpResolver}.
+ * Instances are created by {@link RateLimiterRegistry}.
+ */
+public class RateLimitFilter implements GatewayFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    /** The IP bucket this request took a permit from. */
+    static final String IP_PERMIT_ATTR = RateLimitFilter.class.getName() + ".ipPermit";
+
+    private final String routeId;
+    private final boolean perUser;
+    private final KeyedBuckets buckets;
+    private final ClientIpResolver clientIpResolver;
+
+    private RateLimitFilter(String routeId, boolean perUser, KeyedBuckets buckets, ClientIpResolver clientIpResolver) {
+        this.routeId = routeId;
+        this.perUser = perUser;
+        this.buckets = buckets;
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    static RateLimitFilter perIp(String routeId, KeyedBuckets buckets, ClientIpResolver clientIpResolver) {
+        return new RateLimitFilter(routeId, false, buckets, clientIpResolver);
+    }
+
+    static RateLimitFilter perUser(String routeId, KeyedBuckets buckets) {
+        return new RateLimitFilter(routeId, true, buckets, null);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String key = perUser ? userId(exchange) : clientIpResolver.resolve(exchange.getRequest());
+        if (key == null) {
+            return chain.filter(exchange);
+        }
+
+        TokenBucket bucket = buckets.bucket(key);
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            buckets.rejected().increment();
+            if (perUser) {
+                TokenBucket ipPermit = exchange.getAttribute(IP_PERMIT_ATTR);
+                if (ipPermit != null) {
+                    ipPermit.release();
+                }
+            }
+            return reject(exchange, waitNanos);
+        }
+        buckets.allowed().increment();
+        if (!perUser) {
+            exchange.getAttributes().put(IP_PERMIT_ATTR, bucket);
+        }
+        return chain.filter(exchange);
+    }
+
+    private static String userId(ServerWebExchange exchange) {
+        VerifiedToken token = exchange.getAttribute(JwtValidationFilter.VERIFIED_TOKEN_ATTR);
+        return token != null ? token.userId() : null;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        logger.debug("Rate limit ({}) exceeded on route {} for {}", perUser ? "user" : "ip", routeId,
+                exchange.getRequest().getPath());
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    /**
+     * Buckets of one limit, keyed by user ID or IP, with their allowed/rejected counters.
+     * Idle buckets are evicted; a bucket only expires once it would have refilled anyway.
+     */
+    record KeyedBuckets(Cache<String, TokenBucket> buckets, double replenishRate, int burstCapacity,
+                        Counter allowed, Counter rejected) {
+
+        TokenBucket bucket(String key) {
+            return buckets.get(key, k -> new TokenBucket(replenishRate, burstCapacity));
+        }
+    }
+}
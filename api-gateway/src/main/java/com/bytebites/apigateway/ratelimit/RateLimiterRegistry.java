@@ -0,0 +1,95 @@
+package com.bytebites.apigateway.ratelimit;
+
+import com.bytebites.apigateway.configuration.GatewayRoutesProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds the {@link RateLimitFilter} of each route from its {@code rate-limit} settings.
+ * Buckets live in memory only, so every gateway instance enforces its own share of the limit.
+ * <p>
+ * Metrics, tagged with {@code route} and {@code key} ({@code user} or {@code ip}):
+ * {@code gateway.ratelimit.requests} (also tagged {@code outcome}) and
+ * {@code gateway.ratelimit.buckets}, the number of live buckets.
+ * <p>
+ * {@code app.gateway.rate-limiter.trusted-proxies} lists the load balancers in front of the
+ * gateway whose {@code X-Forwarded-For} is believed; see {@link ClientIpResolver}.
+ */
+@Component
+public class RateLimiterRegistry {
+
+    private final long maxBucketsPerLimit;
+    private final Duration idleTimeout;
+    private final ClientIpResolver clientIpResolver;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimiterRegistry(@Value("${app.gateway.rate-limiter.max-buckets:100000}") long maxBucketsPerLimit,
+                               @Value("${app.gateway.rate-limiter.idle-timeout:PT5M}") Duration idleTimeout,
+                               @Value("${app.gateway.rate-limiter.trusted-proxies:}") List<String> trustedProxies,
+                               MeterRegistry meterRegistry) {
+        this.maxBucketsPerLimit = maxBucketsPerLimit;
+        this.idleTimeout = idleTimeout;
+        this.clientIpResolver = new ClientIpResolver(trustedProxies);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the rate limiting filters of the route, or {@code null} if the route has no limits.
+     */
+    public RouteLimits forRoute(GatewayRoutesProperties.Route route) {
+        GatewayRoutesProperties.RateLimit rateLimit = route.getRateLimit();
+        if (rateLimit == null || (rateLimit.getPerUser() == null && rateLimit.getPerIp() == null)) {
+            return null;
+        }
+        RateLimitFilter.KeyedBuckets ipBuckets = buckets(route.getId(), "ip", rateLimit.getPerIp());
+        RateLimitFilter.KeyedBuckets userBuckets = buckets(route.getId(), "user", rateLimit.getPerUser());
+        return new RouteLimits(
+                ipBuckets != null ? RateLimitFilter.perIp(route.getId(), ipBuckets, clientIpResolver) : null,
+                userBuckets != null ? RateLimitFilter.perUser(route.getId(), userBuckets) : null);
+    }
+
+    /**
+     * The filters of a route's limits; either may be {@code null}. {@code perIp} goes before JWT
+     * validation and {@code perUser} after it.
+     */
+    public record RouteLimits(RateLimitFilter perIp, RateLimitFilter perUser) {
+    }
+
+    private RateLimitFilter.KeyedBuckets buckets(String routeId, String keyType, GatewayRoutesProperties.Limit limit) {
+        if (limit == null) {
+            return null;
+        }
+        // Validates the limit at startup rather than on the first request
+        long refillNanos = new TokenBucket(limit.getReplenishRate(), limit.getBurstCapacity()).refillNanos();
+
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .maximumSize(maxBucketsPerLimit)
+                .expireAfterAccess(Duration.ofNanos(Math.max(idleTimeout.toNanos(), refillNanos)))
+                .build();
+
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .tag("route", routeId)
+                .tag("key", keyType)
+                .register(meterRegistry);
+
+        return new RateLimitFilter.KeyedBuckets(buckets, limit.getReplenishRate(), limit.getBurstCapacity(),
+                counter(routeId, keyType, "allowed"),
+                counter(routeId, keyType, "rejected"));
+    }
+
+    private Counter counter(String routeId, String keyType, String outcome) {
+        return Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId)
+                .tag("key", keyType)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
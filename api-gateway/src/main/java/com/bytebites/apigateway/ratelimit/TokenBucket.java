@@ -0,0 +1,62 @@
+package com.bytebites.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a GCRA (generic cell rate algorithm).
+ * The whole bucket state is a single "theoretical arrival time" updated with CAS,
+ * so acquiring a permit never blocks and allocates nothing.
+ * <p>
+ * A bucket allows {@code burstCapacity} back-to-back requests and then one request
+ * every {@code 1 / replenishRate} seconds.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double replenishRate, int burstCapacity) {
+        if (replenishRate <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "replenishRate must be > 0 and burstCapacity >= 1, got " + replenishRate + "/" + burstCapacity);
+        }
+        this.emissionIntervalNanos = Math.max(1L, Math.round(1_000_000_000d / replenishRate));
+        this.burstToleranceNanos = emissionIntervalNanos * burstCapacity;
+    }
+
+    /**
+     * Tries to take one permit at {@code nowNanos} (a {@link System#nanoTime()} reading).
+     *
+     * @return {@code 0} if the permit was granted, otherwise the number of nanoseconds
+     * until the next permit becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long allowedAt = newTat - burstToleranceNanos;
+            if (allowedAt > nowNanos) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Hands back a permit granted by {@link #tryAcquire}, for a request that was turned away later.
+     * A bucket that has refilled in the meantime stays full.
+     */
+    public void release() {
+        theoreticalArrivalNanos.addAndGet(-emissionIntervalNanos);
+    }
+
+    /**
+     * Nanoseconds an untouched bucket needs to refill from empty to full.
+     */
+    public long refillNanos() {
+        return burstToleranceNanos;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bytebites.apigateway.routing;
+
+import com.bytebites.apigateway.configuration.GatewayRoutesProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Resolves request paths against the configured route table and public paths.
+ * Shared by the route locator and {@link com.bytebites.apigateway.filter.JwtValidationFilter}
+ * so both agree on what a path maps to.
+ */
+@Component
+public class GatewayPathMatcher {
+
+    private static final String RESOLVED_ROUTE_ATTR = GatewayPathMatcher.class.getName() + ".resolvedRoute";
+    private static final String NO_ROUTE = "";
+
+    private final PathPrefixTrie<String> routes;
+    private final PathPrefixTrie<Boolean> publicPaths;
+
+    public GatewayPathMatcher(GatewayRoutesProperties properties) {
+        PathPrefixTrie.Builder<String> routeBuilder = PathPrefixTrie.builder();
+        properties.getRoutes().forEach(route -> routeBuilder.add(route.getPath(), route.getId()));
+        this.routes = routeBuilder.build();
+
+        PathPrefixTrie.Builder<Boolean> publicBuilder = PathPrefixTrie.builder();
+        properties.getPublicPaths().forEach(path -> publicBuilder.add(path, Boolean.TRUE));
+        this.publicPaths = publicBuilder.build();
+    }
+
+    public boolean isPublic(String path) {
+        return publicPaths.match(path) != null;
+    }
+
+    /**
+     * Returns the id of the most specific route for the path, or {@code null} if no route matches.
+     */
+    public String resolveRouteId(String path) {
+        return routes.match(path);
+    }
+
+    /**
+     * Route predicate: the trie is walked once per exchange and the winning route id is kept
+     * as an exchange attribute, so testing the remaining routes costs a map lookup each.
+     */
+    public boolean matchesRoute(ServerWebExchange exchange, String routeId) {
+        String resolved = exchange.getAttribute(RESOLVED_ROUTE_ATTR);
+        if (resolved == null) {
+            String match = resolveRouteId(exchange.getRequest().getPath().value());
+            resolved = match != null ? match : NO_ROUTE;
+            exchange.getAttributes().put(RESOLVED_ROUTE_ATTR, resolved);
+        }
+        return resolved.equals(routeId);
+    }
+}
@@ -0,0 +1,140 @@
+package com.bytebites.apigateway.routing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie over path prefixes. A lookup walks the path once, without
+ * allocating, and returns the value of the most specific (longest) matching pattern.
+ * <p>
+ * Two pattern forms are supported:
+ * <ul>
+ *     <li>{@code /api/orders/**} - matches {@code /api/orders} and anything below {@code /api/orders/}</li>
+ *     <li>{@code /auth/login} - a plain prefix, matching every path that starts with it</li>
+ * </ul>
+ */
+public final class PathPrefixTrie<T> {
+
+    private static final String SUBTREE_SUFFIX = "/**";
+
+    private final Node<T> root;
+    private final int size;
+
+    private PathPrefixTrie(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns the value of the longest pattern matching the path, or {@code null} if none does.
+     */
+    public T match(String path) {
+        T best = null;
+        Node<T> node = root;
+        int length = path.length();
+        for (int i = 0; ; i++) {
+            if (node.prefixValue != null) {
+                best = node.prefixValue;
+            }
+            if (node.subtreeValue != null && (i == length || path.charAt(i) == '/')) {
+                best = node.subtreeValue;
+            }
+            if (i == length) {
+                return best;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return best;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static final class Node<T> {
+        private final char[] labels;
+        private final Node<T>[] children;
+        private final T prefixValue;
+        private final T subtreeValue;
+
+        private Node(char[] labels, Node<T>[] children, T prefixValue, T subtreeValue) {
+            this.labels = labels;
+            this.children = children;
+            this.prefixValue = prefixValue;
+            this.subtreeValue = subtreeValue;
+        }
+
+        private Node<T> child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final MutableNode<T> root = new MutableNode<>();
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a pattern.
+         *
+         * @throws IllegalArgumentException if the pattern uses unsupported wildcards
+         * @throws IllegalStateException    if the same pattern was already added
+         */
+        public Builder<T> add(String pattern, T value) {
+            boolean subtree = pattern.endsWith(SUBTREE_SUFFIX);
+            String prefix = subtree ? pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length()) : pattern;
+            if (prefix.indexOf('*') >= 0 || prefix.indexOf('{') >= 0 || prefix.indexOf('?') >= 0) {
+                throw new IllegalArgumentException("Unsupported path pattern: " + pattern);
+            }
+
+            MutableNode<T> node = root;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new MutableNode<>());
+            }
+            if ((subtree ? node.subtreeValue : node.prefixValue) != null) {
+                throw new IllegalStateException("Duplicate path pattern: " + pattern);
+            }
+            if (subtree) {
+                node.subtreeValue = value;
+            } else {
+                node.prefixValue = value;
+            }
+            size++;
+            return this;
+        }
+
+        public PathPrefixTrie<T> build() {
+            return new PathPrefixTrie<>(root.freeze(), size);
+        }
+    }
+
+    private static final class MutableNode<T> {
+        private final Map<Character, MutableNode<T>> children = new TreeMap<>();
+        private T prefixValue;
+        private T subtreeValue;
+
+        @SuppressWarnings("unchecked")
+        private Node<T> freeze() {
+            char[] labels = new char[children.size()];
+            Node<T>[] frozen = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode<T>> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                frozen[i] = entry.getValue().freeze();
+                i++;
+            }
+            return new Node<>(labels, frozen, prefixValue, subtreeValue);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bytebites.apigateway.security;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code jwks} health: out of service until {@link JwksKeyStore} has loaded the verification
+ * keys, since until then every authenticated request would be rejected with 401. Part of the
+ * readiness group, so no traffic is routed to a gateway that cannot verify tokens yet.
+ */
+@Component
+public class JwksHealthIndicator implements HealthIndicator {
+
+    private final JwksKeyStore keyStore;
+
+    public JwksHealthIndicator(JwksKeyStore keyStore) {
+        this.keyStore = keyStore;
+    }
+
+    @Override
+    public Health health() {
+        if (!keyStore.isLoaded()) {
+            return Health.outOfService().withDetail("reason", "JWKS not loaded yet").build();
+        }
+        return Health.up().withDetail("keys", keyStore.size()).build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.bytebites.apigateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verification keys of auth-service, fetched from its JWKS endpoint and held by {@code kid}.
+ * <p>
+ * The key set is refreshed in the background every {@code refresh-interval}; verification only
+ * reads the current immutable map. A token whose {@code kid} is unknown is rejected and triggers
+ * an early refresh, at most once per {@code min-refresh-interval}, so that a key rotated in
+ * between scheduled refreshes is picked up without letting bad tokens hammer auth-service.
+ * Only ES256 keys on P-256 are accepted.
+ * <p>
+ * Until the first fetch succeeds every token would be rejected, so at startup the fetch is
+ * retried with backoff, capped at {@code min-refresh-interval}, and {@link JwksHealthIndicator}
+ * keeps the gateway out of the readiness group until then.
+ */
+@Component
+public class JwksKeyStore extends SigningKeyResolverAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyStore.class);
+
+    private static final String ALGORITHM = "ES256";
+    private static final Duration INITIAL_RETRY_BACKOFF = Duration.ofMillis(200);
+
+    private final WebClient webClient;
+    private final String jwksPath;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final long minRefreshIntervalNanos;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong lastRefreshRequest = new AtomicLong(System.nanoTime());
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile boolean loaded;
+    private Disposable schedule;
+
+    public JwksKeyStore(@Qualifier("authServiceWebClient") WebClient webClient,
+                        ObjectMapper objectMapper,
+                        @Value("${app.jwt.jwks.path:/auth/.well-known/jwks.json}") String jwksPath,
+                        @Value("${app.jwt.jwks.refresh-interval:PT1M}") Duration refreshInterval,
+                        @Value("${app.jwt.jwks.min-refresh-interval:PT5S}") Duration minRefreshInterval) {
+        this.webClient = webClient;
+        this.jwksPath = jwksPath;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration firstBackoff = INITIAL_RETRY_BACKOFF.compareTo(minRefreshInterval) < 0
+                ? INITIAL_RETRY_BACKOFF : minRefreshInterval;
+        schedule = fetch()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, firstBackoff)
+                        .maxBackoff(minRefreshInterval)
+                        .doBeforeRetry(signal -> logger.warn("Could not load JWKS from {} (attempt {}): {}",
+                                jwksPath, signal.totalRetries() + 1, signal.failure().getMessage())))
+                .thenMany(Flux.interval(refreshInterval, refreshInterval))
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        if (!ALGORITHM.equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Unsupported JWS algorithm " + header.getAlgorithm());
+        }
+        String kid = header.getKeyId();
+        PublicKey key = kid != null ? keys.get(kid) : null;
+        if (key == null) {
+            requestRefresh();
+            throw new SignatureException("Unknown signing key " + kid);
+        }
+        return key;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /** Whether a JWK Set has been installed since startup. */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Replaces the key set with the keys of a JWK Set document. */
+    public void install(String jwksJson) {
+        try {
+            Map<String, PublicKey> parsed = new HashMap<>();
+            for (JsonNode jwk : objectMapper.readTree(jwksJson).path("keys")) {
+                if ("EC".equals(jwk.path("kty").asText()) && "P-256".equals(jwk.path("crv").asText())
+                        && ALGORITHM.equals(jwk.path("alg").asText(ALGORITHM)) && jwk.hasNonNull("kid")) {
+                    parsed.put(jwk.get("kid").asText(), toPublicKey(jwk));
+                }
+            }
+            this.keys = Map.copyOf(parsed);
+            this.loaded = true;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid JWK Set: " + e.getMessage(), e);
+        }
+    }
+
+    private void requestRefresh() {
+        long now = System.nanoTime();
+        long last = lastRefreshRequest.get();
+        if (now - last >= minRefreshIntervalNanos && lastRefreshRequest.compareAndSet(last, now)) {
+            refresh().subscribe();
+        }
+    }
+
+    private Mono<Void> fetch() {
+        return webClient.get()
+                .uri(jwksPath)
+                .retrieve()
+                .bodyToMono(String.class)
+                .doOnNext(this::install)
+                .doOnNext(body -> logger.debug("Loaded {} JWT verification keys from {}", keys.size(), jwksPath))
+                .then();
+    }
+
+    private Mono<Void> refresh() {
+        return fetch()
+                .onErrorResume(e -> {
+                    // Keep verifying with the keys we have; the next tick retries
+                    logger.warn("Could not refresh JWKS from {}: {}", jwksPath, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static PublicKey toPublicKey(JsonNode jwk) throws GeneralSecurityException {
+        ECPoint point = new ECPoint(coordinate(jwk.get("x").asText()), coordinate(jwk.get("y").asText()));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, P256.SPEC));
+    }
+
+    private static BigInteger coordinate(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+
+    private static final class P256 {
+        private static final ECParameterSpec SPEC;
+
+        static {
+            try {
+                AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec("secp256r1"));
+                SPEC = parameters.getParameterSpec(ECParameterSpec.class);
+            } catch (GeneralSecurityException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bytebites.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Verifies a bearer token and extracts the header values forwarded to downstream services.
+ * The parser is thread-safe, so it is built once instead of per request. Verification keys
+ * come from auth-service's JWKS through {@link JwksKeyStore}; the gateway holds no secret.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+
+    public JwtTokenVerifier(SigningKeyResolver signingKeyResolver) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeyResolver)
+                .build();
+    }
+
+    /**
+     * Parses and verifies the token.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is expired, malformed or badly signed
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        Object rolesClaim = claims.get("roles");
+        String rolesHeaderValue = "";
+        if (rolesClaim instanceof List<?> roles) {
+            rolesHeaderValue = String.join(",", roles.stream().map(String::valueOf).toList());
+        } else if (rolesClaim != null) {
+            rolesHeaderValue = rolesClaim.toString();
+        }
+
+        Date expiration = claims.getExpiration();
+        Date issuedAt = claims.getIssuedAt();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                rolesHeaderValue,
+                claims.get("email", String.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                claims.getId(),
+                issuedAt != null ? issuedAt.getTime() : 0
+        );
+    }
+}
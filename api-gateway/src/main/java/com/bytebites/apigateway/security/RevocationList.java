@@ -0,0 +1,143 @@
+package com.bytebites.apigateway.security;
+
+import com.bytebites.commons.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The revoked tokens and users of this gateway, replicated from auth-service by
+ * {@link RevocationListener}.
+ * <p>
+ * {@link #isRevoked} first asks Bloom filters of the revoked {@code jti}s and usernames, which
+ * answer "no" for almost every request without hashing into the exact maps or allocating. A hit is
+ * confirmed against the maps, so false positives never reject a token. Entries are dropped once
+ * the tokens they cover have expired; a Bloom filter cannot forget, so {@link #prune()} rebuilds
+ * the filters from the remaining entries.
+ * <p>
+ * Writes are rare and serialized; reads take no lock. Metrics: {@code gateway.jwt.revocations}.
+ */
+@Component
+public class RevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationList.class);
+
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    /** jti to the expiry of the revoked token, in epoch millis. */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    /** Username to the user revocation; tokens issued before it are revoked. */
+    private final Map<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    private volatile Filters filters;
+    /** Entries each filter of {@link #filters} was sized for. */
+    private long filterCapacity;
+
+    private record Filters(BloomFilter tokens, BloomFilter users) {
+    }
+
+    private record UserRevocation(long revokedBeforeMillis, long expiresAtMillis) {
+    }
+
+    public RevocationList(@Value("${app.jwt.revocation.expected-entries:100000}") long expectedEntries,
+                          @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                          MeterRegistry meterRegistry) {
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = newFilters(expectedEntries);
+        this.filterCapacity = expectedEntries;
+        Gauge.builder("gateway.jwt.revocations", this, RevocationList::size).register(meterRegistry);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Filters current = filters;
+        if (token.tokenId() != null && current.tokens().mightContain(token.tokenId())
+                && revokedTokens.containsKey(token.tokenId())) {
+            return true;
+        }
+        if (token.subject() != null && current.users().mightContain(token.subject())) {
+            UserRevocation revocation = revokedUsers.get(token.subject());
+            return revocation != null && token.issuedAtMillis() < revocation.revokedBeforeMillis();
+        }
+        return false;
+    }
+
+    /**
+     * Applies one revocation in the {@code KIND|revokedBeforeMillis|expiresAtMillis|value} format
+     * of auth-service. Already expired revocations are ignored.
+     *
+     * @throws IllegalArgumentException if the message is malformed
+     */
+    public void apply(String message) {
+        String[] parts = message.split("\\|", 4);
+        if (parts.length != 4 || parts[3].isEmpty()) {
+            throw new IllegalArgumentException("Malformed revocation: " + message);
+        }
+        long revokedBefore;
+        long expiresAt;
+        try {
+            revokedBefore = Long.parseLong(parts[1]);
+            expiresAt = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed revocation: " + message, e);
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        switch (parts[0]) {
+            case "TOKEN" -> revokeToken(parts[3], expiresAt);
+            case "USER" -> revokeUser(parts[3], revokedBefore, expiresAt);
+            default -> throw new IllegalArgumentException("Unknown revocation kind: " + parts[0]);
+        }
+    }
+
+    public synchronized void revokeToken(String tokenId, long expiresAtMillis) {
+        revokedTokens.merge(tokenId, expiresAtMillis, Math::max);
+        filters.tokens().put(tokenId);
+    }
+
+    public synchronized void revokeUser(String username, long revokedBeforeMillis, long expiresAtMillis) {
+        revokedUsers.merge(username, new UserRevocation(revokedBeforeMillis, expiresAtMillis), (a, b) ->
+                new UserRevocation(Math.max(a.revokedBeforeMillis(), b.revokedBeforeMillis()),
+                        Math.max(a.expiresAtMillis(), b.expiresAtMillis())));
+        filters.users().put(username);
+    }
+
+    /**
+     * Drops expired entries and rebuilds the Bloom filters from the rest, when entries were dropped
+     * or a filter holds more than it was sized for.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-interval-ms:60000}")
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        int before = size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAtMillis() <= now);
+        int remaining = size();
+        if (remaining == before && Math.max(revokedTokens.size(), revokedUsers.size()) <= filterCapacity) {
+            return;
+        }
+        long capacity = Math.max(expectedEntries, 2L * remaining);
+        Filters rebuilt = newFilters(capacity);
+        revokedTokens.keySet().forEach(rebuilt.tokens()::put);
+        revokedUsers.keySet().forEach(rebuilt.users()::put);
+        this.filters = rebuilt;
+        this.filterCapacity = capacity;
+        logger.debug("Rebuilt revocation filter: {} expired revocations dropped, {} left", before - remaining, remaining);
+    }
+
+    private Filters newFilters(long capacity) {
+        return new Filters(new BloomFilter(capacity, falsePositiveRate), new BloomFilter(capacity, falsePositiveRate));
+    }
+
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bytebites.apigateway.security;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Feeds {@link RevocationList} from auth-service's revocation topic.
+ * <p>
+ * Once the partitions are assigned, and so the consumer's position is fixed, the snapshot of
+ * active revocations is loaded from auth-service. Anything revoked before that position is in
+ * the snapshot, anything after it arrives on the topic; both are idempotent, so the overlap is harmless.
+ * The snapshot endpoint only answers services presenting {@code app.internal.service-token}.
+ */
+@Component
+public class RevocationListener implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationListener.class);
+
+    private static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    private final RevocationList revocationList;
+    private final WebClient webClient;
+    private final String snapshotPath;
+    private final String serviceToken;
+
+    public RevocationListener(RevocationList revocationList,
+                              @Qualifier("authServiceWebClient") WebClient webClient,
+                              @Value("${app.jwt.revocation.snapshot-path:/internal/revocations}") String snapshotPath,
+                              @Value("${app.internal.service-token}") String serviceToken) {
+        this.revocationList = revocationList;
+        this.webClient = webClient;
+        this.snapshotPath = snapshotPath;
+        this.serviceToken = serviceToken;
+    }
+
+    @KafkaListener(
+            topics = "${app.jwt.revocation.topic:auth.token-revocations}",
+            groupId = "gateway-revocations-${random.uuid}",
+            containerFactory = "revocationListenerContainerFactory"
+    )
+    public void onRevocation(String message) {
+        try {
+            revocationList.apply(message);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring revocation: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        loadSnapshot();
+    }
+
+    private void loadSnapshot() {
+        webClient.get()
+                .uri(snapshotPath)
+                .header(SERVICE_TOKEN_HEADER, serviceToken)
+                .retrieve()
+                .bodyToMono(String.class)
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(1)))
+                .subscribe(snapshot -> {
+                    int applied = 0;
+                    for (String line : snapshot.split("\n")) {
+                        if (!line.isBlank()) {
+                            onRevocation(line);
+                            applied++;
+                        }
+                    }
+                    logger.info("Loaded {} revocations from the auth-service snapshot", applied);
+                }, e -> logger.error("Could not load the revocation snapshot; only new revocations are enforced: {}",
+                        e.getMessage()));
+    }
+}
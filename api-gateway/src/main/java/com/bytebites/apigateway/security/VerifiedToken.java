@@ -0,0 +1,18 @@
+package com.bytebites.apigateway.security;
+
+/**
+ * Result of a successful JWT verification, reduced to the values the gateway
+ * forwards downstream and checks against the {@link RevocationList}.
+ * {@code tokenId} is the {@code jti} claim, null for tokens issued before auth-service set it.
+ * Instances are cached, so they must stay immutable.
+ */
+public record VerifiedToken(
+        String subject,
+        String userId,
+        String roles,
+        String email,
+        long expiresAtMillis,
+        String tokenId,
+        long issuedAtMillis
+) {
+}
@@ -0,0 +1,85 @@
+package com.bytebites.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified tokens, keyed by the SHA-256 digest of the raw token
+ * so that bearer tokens are never held in memory as map keys.
+ * An entry never outlives the token's {@code exp} claim, nor the configured maximum TTL.
+ * Hit, miss and eviction counts are published under {@code gateway.jwt.verified-tokens}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${app.jwt.token-cache.max-size:100000}") long maximumSize,
+                              @Value("${app.jwt.token-cache.max-ttl:PT15M}") Duration maximumTtl,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(maximumTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the cached verification result for the token, running the verifier at most once
+     * per token. Verification failures are propagated and never cached.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private record TokenExpiry(long maximumTtlNanos) implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            if (remainingMillis <= 0) {
+                return 0;
+            }
+            return Math.min(maximumTtlNanos, Duration.ofMillis(remainingMillis).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.bytebites.apigateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.internal.service-token=test-service-token")
 class ApiGatewayApplicationTests {
 
     @Test
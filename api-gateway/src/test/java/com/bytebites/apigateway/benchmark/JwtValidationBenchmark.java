@@ -0,0 +1,123 @@
+package com.bytebites.apigateway.benchmark;
+
+import com.bytebites.apigateway.security.JwtTokenVerifier;
+import com.bytebites.apigateway.security.RevocationList;
+import com.bytebites.apigateway.security.VerifiedToken;
+import com.bytebites.apigateway.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of JWT validation in the gateway:
+ * <ul>
+ *     <li>{@code parserPerRequest} - the previous behaviour, building a parser and verifying every time</li>
+ *     <li>{@code coldVerify} - a cache miss: shared parser, signature check and header extraction</li>
+ *     <li>{@code warmCacheHit} - a replayed token served from {@link VerifiedTokenCache}</li>
+ *     <li>{@code revocationCheck} - the {@link RevocationList} lookup done on every request, with
+ *     {@code revokedEntries} other tokens revoked</li>
+ * </ul>
+ * Tokens are ES256, as issued by auth-service; the key is resolved by {@code kid} the way
+ * {@code JwksKeyStore} does it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String KID = "benchmark-key";
+
+    private KeyPair keyPair;
+    private String token;
+    private JwtTokenVerifier verifier;
+    private VerifiedTokenCache cache;
+    private RevocationList revocationList;
+    private VerifiedToken verified;
+
+    @Param({"0", "100000"})
+    private int revokedEntries;
+
+    @Setup
+    public void setUp() {
+        keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        token = Jwts.builder()
+                .setHeaderParam("kid", KID)
+                .setClaims(Map.of(
+                        "userId", UUID.randomUUID().toString(),
+                        "username", "benchmark",
+                        "roles", List.of("CUSTOMER"),
+                        "email", "benchmark@bytebites.com"))
+                .setSubject("benchmark")
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+
+        verifier = new JwtTokenVerifier(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return KID.equals(header.getKeyId()) ? keyPair.getPublic() : null;
+            }
+        });
+        cache = new VerifiedTokenCache(10_000, Duration.ofMinutes(15), new SimpleMeterRegistry());
+        verified = cache.get(token, verifier::verify);
+
+        revocationList = new RevocationList(100_000, 0.01, new SimpleMeterRegistry());
+        long expiresAt = System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+        for (int i = 0; i < revokedEntries; i++) {
+            revocationList.revokeToken(UUID.randomUUID().toString(), expiresAt);
+        }
+    }
+
+    @Benchmark
+    public Claims parserPerRequest() {
+        return Jwts.parserBuilder()
+                .setSigningKey(keyPair.getPublic())
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public VerifiedToken coldVerify() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken warmCacheHit() {
+        return cache.get(token, verifier::verify);
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revocationList.isRevoked(verified);
+    }
+}
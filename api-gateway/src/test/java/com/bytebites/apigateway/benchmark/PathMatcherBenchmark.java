@@ -0,0 +1,102 @@
+package com.bytebites.apigateway.benchmark;
+
+import com.bytebites.apigateway.routing.PathPrefixTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route resolution against a synthetic route table of a few hundred {@code /prefix/**} patterns.
+ * {@code linearStartsWith} is the old {@code EXCLUDED_PATHS} approach, {@code linearPathPattern}
+ * is what one {@code r.path(...)} predicate per route costs, and {@code trie} is {@link PathPrefixTrie}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    @Param({"50", "300", "600"})
+    private int routeCount;
+
+    private List<String> prefixes;
+    private List<PathPattern> pathPatterns;
+    private PathPrefixTrie<String> trie;
+    private String[] paths;
+    private PathContainer[] pathContainers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        prefixes = new ArrayList<>(routeCount);
+        pathPatterns = new ArrayList<>(routeCount);
+        PathPrefixTrie.Builder<String> builder = PathPrefixTrie.builder();
+        PathPatternParser parser = new PathPatternParser();
+        for (int i = 0; i < routeCount; i++) {
+            String prefix = "/api/v" + (i % 3) + "/service-" + i;
+            prefixes.add(prefix);
+            pathPatterns.add(parser.parse(prefix + "/**"));
+            builder.add(prefix + "/**", "route-" + i);
+        }
+        trie = builder.build();
+
+        // First route, middle route, last route and a miss
+        int middle = routeCount / 2;
+        int last = routeCount - 1;
+        paths = new String[] {
+                prefixes.get(0) + "/orders",
+                prefixes.get(middle) + "/items/42",
+                prefixes.get(last),
+                "/api/unknown/path"
+        };
+        pathContainers = new PathContainer[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            pathContainers[i] = PathContainer.parsePath(paths[i]);
+        }
+    }
+
+    @Benchmark
+    public String trie() {
+        return trie.match(paths[nextIndex()]);
+    }
+
+    @Benchmark
+    public String linearStartsWith() {
+        String path = paths[nextIndex()];
+        return prefixes.stream().filter(path::startsWith).findFirst().orElse(null);
+    }
+
+    @Benchmark
+    public PathPattern linearPathPattern() {
+        PathContainer path = pathContainers[nextIndex()];
+        for (PathPattern pattern : pathPatterns) {
+            if (pattern.matches(path)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == paths.length ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bytebites.apigateway.benchmark;
+
+import com.bytebites.apigateway.configuration.GatewayRoutesProperties;
+import com.bytebites.apigateway.ratelimit.RateLimitFilter;
+import com.bytebites.apigateway.ratelimit.RateLimiterRegistry;
+import com.bytebites.apigateway.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of admission control under contention, reported as latency percentiles.
+ * {@code hotBucket} has every thread hitting one bucket (worst case for the CAS loop);
+ * {@code filterManyClients} runs the whole filter (allow path) for requests spread over 10k client IPs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private TokenBucket hotBucket;
+    private RateLimitFilter filter;
+    private MockServerWebExchange[] exchanges;
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Setup
+    public void setUp() {
+        hotBucket = new TokenBucket(1_000_000, 1_000);
+
+        RateLimiterRegistry registry = new RateLimiterRegistry(100_000, Duration.ofMinutes(5), List.of(), new SimpleMeterRegistry());
+        filter = registry.forRoute(new GatewayRoutesProperties.Route("orders", "/api/orders/**", "lb://order-service",
+                new GatewayRoutesProperties.RateLimit(null, new GatewayRoutesProperties.Limit(1_000_000, 1_000_000)))).perIp();
+
+        exchanges = new MockServerWebExchange[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            String ip = "10.0." + (i >> 8) + "." + (i & 0xff);
+            exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                    .remoteAddress(new InetSocketAddress(ip, 50000)));
+        }
+    }
+
+    @Benchmark
+    public long hotBucket() {
+        return hotBucket.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    public Mono<Void> filterManyClients() {
+        // Limits are sized so that nothing is rejected: a rejection would commit the shared exchange
+        return filter.filter(exchanges[ThreadLocalRandom.current().nextInt(CLIENTS)], chain);
+    }
+}
@@ -0,0 +1,60 @@
+package com.bytebites.apigateway.filter;
+
+import com.bytebites.apigateway.configuration.GatewayRoutesProperties;
+import com.bytebites.apigateway.routing.GatewayPathMatcher;
+import com.bytebites.apigateway.security.JwtTokenVerifier;
+import com.bytebites.apigateway.security.RevocationList;
+import com.bytebites.apigateway.security.VerifiedTokenCache;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtValidationFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Default routes and public paths; no keys are needed since no token is presented
+    private final JwtValidationFilter filter = new JwtValidationFilter(
+            new JwtTokenVerifier(new SigningKeyResolverAdapter()),
+            new VerifiedTokenCache(100, Duration.ofMinutes(15), meterRegistry),
+            new GatewayPathMatcher(new GatewayRoutesProperties()),
+            new RevocationList(1_000, 0.01, meterRegistry));
+
+    @Test
+    void filter_shouldLetRefreshThroughWithoutAnAccessToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/refresh"));
+        AtomicBoolean routed = new AtomicBoolean();
+
+        filter.filter(exchange, chain(routed)).block();
+
+        assertTrue(routed.get());
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_shouldRejectProtectedPathsWithoutAnAccessToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/logout"));
+        AtomicBoolean routed = new AtomicBoolean();
+
+        filter.filter(exchange, chain(routed)).block();
+
+        assertFalse(routed.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    private static GatewayFilterChain chain(AtomicBoolean routed) {
+        return exchange -> {
+            routed.set(true);
+            return Mono.empty();
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.bytebites.apigateway.ratelimit;
+
+import com.bytebites.apigateway.configuration.GatewayRoutesProperties;
+import com.bytebites.apigateway.filter.JwtValidationFilter;
+import com.bytebites.apigateway.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiterRegistry registry = new RateLimiterRegistry(1000, Duration.ofMinutes(5),
+            List.of("10.1.0.0/16", "192.168.0.7"), meterRegistry);
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Test
+    void filter_shouldReturn429WithRetryAfterOnceIpBurstIsSpent() {
+        RateLimitFilter filter = registry.forRoute(route(null, new GatewayRoutesProperties.Limit(0.5, 2))).perIp();
+
+        assertNull(run(filter, exchange("10.0.0.1", null)));
+        assertNull(run(filter, exchange("10.0.0.1", null)));
+        MockServerWebExchange rejected = exchange("10.0.0.1", null);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, rejected));
+        assertEquals("2", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        assertNull(run(filter, exchange("10.0.0.2", null)));
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.requests")
+                .tag("route", "orders").tag("key", "ip").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void filter_shouldLimitEachAuthenticatedUserSeparately() {
+        RateLimitFilter filter = registry.forRoute(route(new GatewayRoutesProperties.Limit(1, 1), null)).perUser();
+
+        assertNull(run(filter, exchange("10.0.0.1", "user-1")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, exchange("10.0.0.2", "user-1")));
+        assertNull(run(filter, exchange("10.0.0.1", "user-2")));
+        // Anonymous requests have no user bucket
+        assertNull(run(filter, exchange("10.0.0.1", null)));
+    }
+
+    @Test
+    void filter_shouldHandTheIpPermitBackWhenTheUserLimitRejects() {
+        RateLimiterRegistry.RouteLimits limits = registry.forRoute(
+                route(new GatewayRoutesProperties.Limit(1, 1), new GatewayRoutesProperties.Limit(0.5, 2)));
+
+        assertNull(run(limits, exchange("10.0.0.1", "user-1")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(limits, exchange("10.0.0.1", "user-1")));
+        // Only the first request of user-1 counts against the IP
+        assertNull(run(limits, exchange("10.0.0.1", "user-2")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(limits, exchange("10.0.0.1", "user-3")));
+
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.requests")
+                .tag("route", "orders").tag("key", "user").tag("outcome", "rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.requests")
+                .tag("route", "orders").tag("key", "ip").tag("outcome", "rejected").counter().count());
+    }
+
+    @Test
+    void filter_shouldKeyOnTheForwardedClientBehindTrustedProxies() {
+        RateLimitFilter filter = registry.forRoute(route(null, new GatewayRoutesProperties.Limit(0.5, 1))).perIp();
+
+        assertNull(run(filter, forwarded("10.1.2.3", "203.0.113.5")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, forwarded("10.1.9.9", "203.0.113.5")));
+        // Another client behind the same balancer has its own bucket
+        assertNull(run(filter, forwarded("10.1.2.3", "203.0.113.6")));
+        // Trusted hops are skipped from the right; what the client wrote further left is ignored
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                run(filter, forwarded("10.1.2.3", "198.51.100.1, 203.0.113.5, 192.168.0.7")));
+        // No header: the balancer itself is the client
+        assertNull(run(filter, exchange("10.1.2.3", null)));
+    }
+
+    @Test
+    void filter_shouldIgnoreForwardedForFromUntrustedPeers() {
+        RateLimitFilter filter = registry.forRoute(route(null, new GatewayRoutesProperties.Limit(0.5, 1))).perIp();
+
+        assertNull(run(filter, forwarded("198.51.100.1", "203.0.113.1")));
+        // A direct client cannot get a fresh bucket by changing the header
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, forwarded("198.51.100.1", "203.0.113.2")));
+        // An unparsable hop stops the walk at the trusted proxy that reported it
+        assertNull(run(filter, forwarded("10.1.2.3", "unknown")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, run(filter, forwarded("10.1.2.3", "unknown")));
+    }
+
+    @Test
+    void registry_shouldRejectAnInvalidTrustedProxy() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new RateLimiterRegistry(1000, Duration.ofMinutes(5), List.of("10.0.0.0/33"), meterRegistry));
+        assertThrows(IllegalArgumentException.class, () ->
+                new RateLimiterRegistry(1000, Duration.ofMinutes(5), List.of("balancer.internal"), meterRegistry));
+    }
+
+    @Test
+    void forRoute_shouldReturnNullForRoutesWithoutLimits() {
+        assertNull(registry.forRoute(new GatewayRoutesProperties.Route("orders", "/api/orders/**", "lb://order-service", null)));
+        assertNull(registry.forRoute(route(null, null)));
+    }
+
+    private static GatewayRoutesProperties.Route route(GatewayRoutesProperties.Limit perUser,
+                                                       GatewayRoutesProperties.Limit perIp) {
+        return new GatewayRoutesProperties.Route("orders", "/api/orders/**", "lb://order-service",
+                new GatewayRoutesProperties.RateLimit(perUser, perIp));
+    }
+
+    private static MockServerWebExchange exchange(String ip, String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                .remoteAddress(new InetSocketAddress(ip, 50000)));
+        if (userId != null) {
+            exchange.getAttributes().put(JwtValidationFilter.VERIFIED_TOKEN_ATTR,
+                    new VerifiedToken(userId, userId, "ROLE_CUSTOMER", userId + "@example.com", Long.MAX_VALUE, null, 0));
+        }
+        return exchange;
+    }
+
+    private static MockServerWebExchange forwarded(String peer, String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                .remoteAddress(new InetSocketAddress(peer, 50000))
+                .header("X-Forwarded-For", forwardedFor));
+    }
+
+    /** Runs both limits as the route does, with JWT validation between them. */
+    private HttpStatus run(RateLimiterRegistry.RouteLimits limits, MockServerWebExchange exchange) {
+        limits.perIp().filter(exchange, e -> limits.perUser().filter(e, chain)).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private HttpStatus run(RateLimitFilter filter, MockServerWebExchange exchange) {
+        filter.filter(exchange, chain).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bytebites.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReject() {
+        TokenBucket bucket = new TokenBucket(2, 3);
+        long now = 42 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now));
+    }
+
+    @Test
+    void tryAcquire_shouldReplenishAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 1);
+        long now = -5 * SECOND; // nanoTime may be negative
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now + SECOND / 4) > 0);
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+    }
+
+    @Test
+    void release_shouldReturnThePermitWithoutExceedingBurst() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        long now = 7 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(now));
+        bucket.release();
+        assertEquals(0, bucket.tryAcquire(now));
+
+        // Released after the bucket had refilled anyway: still a burst of one
+        bucket.release();
+        bucket.release();
+        assertEquals(0, bucket.tryAcquire(now + 10 * SECOND));
+        assertTrue(bucket.tryAcquire(now + 10 * SECOND) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldNotAccumulateMoreThanBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long later = 3600 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
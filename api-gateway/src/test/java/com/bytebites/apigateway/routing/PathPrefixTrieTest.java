@@ -0,0 +1,57 @@
+package com.bytebites.apigateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathPrefixTrieTest {
+
+    private final PathPrefixTrie<String> trie = PathPrefixTrie.<String>builder()
+            .add("/auth/**", "auth-service")
+            .add("/api/orders/**", "order-service")
+            .add("/api/orders/stream/**", "order-stream")
+            .add("/eureka", "eureka")
+            .build();
+
+    @Test
+    void match_shouldResolveSubtreePatterns() {
+        assertEquals("auth-service", trie.match("/auth"));
+        assertEquals("auth-service", trie.match("/auth/login"));
+        assertEquals("order-service", trie.match("/api/orders/123"));
+    }
+
+    @Test
+    void match_shouldRequireSegmentBoundaryForSubtreePatterns() {
+        assertNull(trie.match("/authx"));
+        assertNull(trie.match("/api/ordersx/1"));
+    }
+
+    @Test
+    void match_shouldPreferMostSpecificPattern() {
+        assertEquals("order-stream", trie.match("/api/orders/stream"));
+        assertEquals("order-stream", trie.match("/api/orders/stream/42"));
+        assertEquals("order-service", trie.match("/api/orders/streaming"));
+    }
+
+    @Test
+    void match_shouldTreatPlainPatternsAsPrefixes() {
+        assertEquals("eureka", trie.match("/eureka"));
+        assertEquals("eureka", trie.match("/eureka/apps"));
+        assertEquals("eureka", trie.match("/eurekaapps"));
+    }
+
+    @Test
+    void match_shouldReturnNullWhenNothingMatches() {
+        assertNull(trie.match("/"));
+        assertNull(trie.match(""));
+        assertNull(trie.match("/api/restaurants"));
+    }
+
+    @Test
+    void builder_shouldRejectDuplicatesAndWildcards() {
+        PathPrefixTrie.Builder<String> builder = PathPrefixTrie.<String>builder().add("/auth/**", "a");
+
+        assertThrows(IllegalStateException.class, () -> builder.add("/auth/**", "b"));
+        assertThrows(IllegalArgumentException.class, () -> builder.add("/api/*/orders", "c"));
+    }
+}
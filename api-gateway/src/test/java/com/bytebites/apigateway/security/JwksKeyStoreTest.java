@@ -0,0 +1,141 @@
+package com.bytebites.apigateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyStoreTest {
+
+    private JwksKeyStore keyStore;
+    private JwtTokenVerifier verifier;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() {
+        // Never started, so nothing is fetched; keys are installed directly
+        keyStore = new JwksKeyStore(WebClient.create("http://localhost:0"), new ObjectMapper(),
+                "/auth/.well-known/jwks.json", Duration.ofMinutes(1), Duration.ofHours(1));
+        verifier = new JwtTokenVerifier(keyStore);
+        keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+    }
+
+    @Test
+    void verify_shouldAcceptTokensSignedWithAPublishedKey() {
+        keyStore.install(jwks("key-1", keyPair));
+
+        VerifiedToken verified = verifier.verify(token("key-1", keyPair));
+
+        assertEquals("alice", verified.subject());
+        assertEquals("CUSTOMER", verified.roles());
+    }
+
+    @Test
+    void verify_shouldRejectUnknownAndRemovedKeys() {
+        keyStore.install(jwks("key-1", keyPair));
+        String token = token("key-1", keyPair);
+
+        assertThrows(JwtException.class, () -> verifier.verify(token("key-2", keyPair)));
+
+        keyStore.install("{\"keys\":[]}");
+        assertThrows(JwtException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verify_shouldRejectHmacTokensEvenWithAKnownKid() {
+        keyStore.install(jwks("key-1", keyPair));
+        String forged = Jwts.builder()
+                .setHeaderParam("kid", "key-1")
+                .setSubject("alice")
+                .signWith(Keys.hmacShaKeyFor(new byte[32]), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> verifier.verify(forged));
+    }
+
+    @Test
+    void install_shouldKeepPreviousKeysWhenTheDocumentIsInvalid() {
+        keyStore.install(jwks("key-1", keyPair));
+
+        assertThrows(IllegalArgumentException.class, () -> keyStore.install("not json"));
+        assertEquals(1, keyStore.size());
+    }
+
+    @Test
+    void start_shouldRetryUntilTheFirstJwksIsLoadedAndOnlyThenBeReady() {
+        AtomicInteger requests = new AtomicInteger();
+        WebClient flakyAuthService = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(requests.incrementAndGet() < 3
+                        ? ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()
+                        : ClientResponse.create(HttpStatus.OK)
+                                .header("Content-Type", "application/json")
+                                .body(jwks("key-1", keyPair))
+                                .build()))
+                .build();
+        JwksKeyStore startingStore = new JwksKeyStore(flakyAuthService, new ObjectMapper(),
+                "/auth/.well-known/jwks.json", Duration.ofHours(1), Duration.ofMillis(50));
+        JwksHealthIndicator health = new JwksHealthIndicator(startingStore);
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+
+        startingStore.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!startingStore.isLoaded()) {
+                assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the JWKS");
+                LockSupport.parkNanos(10_000_000);
+            }
+        } finally {
+            startingStore.stop();
+        }
+
+        assertEquals(3, requests.get());
+        assertEquals(1, startingStore.size());
+        assertEquals(Status.UP, health.health().getStatus());
+    }
+
+    private static String token(String kid, KeyPair keyPair) {
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .claim("userId", "u-1")
+                .claim("roles", List.of("CUSTOMER"))
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+    }
+
+    private static String jwks(String kid, KeyPair keyPair) {
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"kty\":\"EC\",\"crv\":\"P-256\",\"alg\":\"ES256\",\"use\":\"sig\",\"kid\":\"" + kid + "\","
+                + "\"x\":\"" + coordinate(publicKey.getW().getAffineX()) + "\","
+                + "\"y\":\"" + coordinate(publicKey.getW().getAffineY()) + "\"}]}";
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bytebites.apigateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationListTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RevocationList revocationList = new RevocationList(1_000, 0.01, meterRegistry);
+    private final long now = System.currentTimeMillis();
+
+    @Test
+    void isRevoked_shouldMatchRevokedTokenIdsOnly() {
+        String revoked = UUID.randomUUID().toString();
+        revocationList.apply("TOKEN|0|" + (now + 60_000) + "|" + revoked);
+
+        assertTrue(revocationList.isRevoked(token("alice", revoked, now - 1_000)));
+        assertFalse(revocationList.isRevoked(token("alice", UUID.randomUUID().toString(), now - 1_000)));
+    }
+
+    @Test
+    void isRevoked_shouldRevokeUserTokensIssuedBeforeTheCutOff() {
+        revocationList.apply("USER|" + now + "|" + (now + 60_000) + "|bob|with|pipes");
+
+        assertTrue(revocationList.isRevoked(token("bob|with|pipes", UUID.randomUUID().toString(), now - 1_000)));
+        assertTrue(revocationList.isRevoked(token("bob|with|pipes", null, now - 1_000)));
+        assertFalse(revocationList.isRevoked(token("bob|with|pipes", UUID.randomUUID().toString(), now + 1_000)));
+        assertFalse(revocationList.isRevoked(token("alice", UUID.randomUUID().toString(), now - 1_000)));
+    }
+
+    @Test
+    void apply_shouldIgnoreExpiredAndRejectMalformedMessages() {
+        revocationList.apply("TOKEN|0|" + (now - 1) + "|expired");
+
+        assertEquals(0, revocationList.size());
+        assertThrows(IllegalArgumentException.class, () -> revocationList.apply("TOKEN|0|later|id"));
+        assertThrows(IllegalArgumentException.class, () -> revocationList.apply("SESSION|0|" + (now + 60_000) + "|id"));
+        assertThrows(IllegalArgumentException.class, () -> revocationList.apply("TOKEN|0"));
+    }
+
+    @Test
+    void prune_shouldForgetExpiredRevocationsAndKeepTheRest() throws InterruptedException {
+        revocationList.revokeToken("short-lived", System.currentTimeMillis() + 20);
+        revocationList.revokeToken("long-lived", now + 60_000);
+        Thread.sleep(50);
+
+        revocationList.prune();
+
+        assertEquals(1, revocationList.size());
+        assertFalse(revocationList.isRevoked(token("alice", "short-lived", now)));
+        assertTrue(revocationList.isRevoked(token("alice", "long-lived", now)));
+        assertEquals(1.0, meterRegistry.get("gateway.jwt.revocations").gauge().value());
+    }
+
+    @Test
+    void prune_shouldRebuildFiltersThatOutgrewTheirSize() {
+        for (int i = 0; i < 5_000; i++) {
+            revocationList.revokeToken("token-" + i, now + 60_000);
+        }
+
+        revocationList.prune();
+
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(revocationList.isRevoked(token("alice", "token-" + i, now)));
+        }
+        assertFalse(revocationList.isRevoked(token("alice", "token-5000", now)));
+    }
+
+    private static VerifiedToken token(String subject, String tokenId, long issuedAtMillis) {
+        return new VerifiedToken(subject, "id", "CUSTOMER", "user@example.com", Long.MAX_VALUE, tokenId, issuedAtMillis);
+    }
+}
@@ -0,0 +1,109 @@
+package com.bytebites.apigateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(100, Duration.ofMinutes(15), meterRegistry);
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldVerifyEachTokenOnlyOnce() {
+        Function<String, VerifiedToken> verifier = verifier(Duration.ofMinutes(5));
+
+        VerifiedToken first = cache.get("token-a", verifier);
+        VerifiedToken second = cache.get("token-a", verifier);
+        cache.get("token-b", verifier);
+
+        assertSame(first, second);
+        assertEquals(2, verifications.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "gateway.jwt.verified-tokens")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void get_shouldNotCacheFailedVerifications() {
+        Function<String, VerifiedToken> failing = token -> {
+            verifications.incrementAndGet();
+            throw new IllegalArgumentException("bad signature");
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("forged", failing));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("forged", failing));
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldNotKeepATokenPastItsExp() {
+        // Well below the 15 minute cap, so only the token's own exp can end the entry
+        Function<String, VerifiedToken> verifier = verifier(Duration.ofMillis(200));
+        cache.get("short-lived", verifier);
+        cache.get("short-lived", verifier);
+        assertEquals(1, verifications.get());
+
+        LockSupport.parkNanos(Duration.ofMillis(300).toNanos());
+
+        cache.get("short-lived", verifier);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void get_shouldNotCacheTokensThatHaveAlreadyExpired() {
+        Function<String, VerifiedToken> verifier = verifier(Duration.ofSeconds(-1));
+
+        cache.get("expired", verifier);
+        cache.get("expired", verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void get_shouldStayWithinTheMaximumSize() {
+        Function<String, VerifiedToken> verifier = verifier(Duration.ofMinutes(5));
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.get("token-" + i, verifier);
+        }
+
+        // Eviction runs as part of the cache's asynchronous maintenance
+        awaitUntil(() -> cache.size() <= 100);
+        assertEquals(1_000, verifications.get());
+    }
+
+    private Function<String, VerifiedToken> verifier(Duration lifetime) {
+        return token -> {
+            verifications.incrementAndGet();
+            long now = System.currentTimeMillis();
+            return new VerifiedToken("alice", "user-1", "CUSTOMER", "alice@example.com",
+                    now + lifetime.toMillis(), token, now);
+        };
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the cache");
+            LockSupport.parkNanos(10_000_000);
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.bytebites.authservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.bytebites.authservice.Repository;
+
+import com.bytebites.authservice.model.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, UUID> {
+
+    /** The family of the token with this hash, in one indexed lookup per table. */
+    @Query("select f from RefreshToken t, RefreshTokenFamily f where t.tokenHash = :tokenHash and f.id = t.familyId")
+    Optional<RefreshTokenFamily> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenFamily f set f.revokedAt = :now where f.id = :id and f.revokedAt is null")
+    int revoke(UUID id, Instant now);
+
+    @Modifying
+    @Query("update RefreshTokenFamily f set f.revokedAt = :now where f.username = :username and f.revokedAt is null")
+    int revokeAllOf(String username, Instant now);
+
+    @Modifying
+    @Query("delete from RefreshTokenFamily f where f.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,37 @@
+package com.bytebites.authservice.Repository;
+
+import com.bytebites.authservice.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Redeems the token if it has not been redeemed yet. Exactly one of several concurrent
+     * callers gets 1; everyone else, and any later caller, gets 0.
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now where t.tokenHash = :tokenHash and t.rotatedAt is null")
+    int markRotated(String tokenHash, Instant now);
+
+    /** Makes every outstanding token of a family unusable, on every instance. */
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now where t.familyId = :familyId and t.rotatedAt is null")
+    int rotateAllOfFamily(UUID familyId, Instant now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now where t.rotatedAt is null and t.familyId in "
+            + "(select f.id from RefreshTokenFamily f where f.username = :username)")
+    int rotateAllOf(String username, Instant now);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.familyId in "
+            + "(select f.id from RefreshTokenFamily f where f.expiresAt <= :now)")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,25 @@
+package com.bytebites.authservice.Repository;
+
+import com.bytebites.authservice.model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    /** Keys that may still have unexpired tokens: not retired, or retired after {@code cutoff}. */
+    @Query("select k from SigningKey k where k.retiredAt is null or k.retiredAt > :cutoff")
+    List<SigningKey> findUsable(Instant cutoff);
+
+    Optional<SigningKey> findFirstByRetiredAtIsNullOrderByActivatesAtDesc();
+
+    @Modifying
+    @Query("delete from SigningKey k where k.retiredAt <= :cutoff")
+    int deleteRetiredBefore(Instant cutoff);
+}
@@ -0,0 +1,20 @@
+package com.bytebites.authservice.Repository;
+
+import com.bytebites.authservice.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+
+    List<TokenRevocation> findByExpiresAtAfter(Instant now);
+
+    @Modifying
+    @Query("delete from TokenRevocation r where r.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
@@ -1,13 +1,22 @@
 package com.bytebites.authservice.Repository;
 
 import com.bytebites.authservice.model.User;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -16,4 +25,24 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(@NotBlank String email);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(String username, String password);
+
+    /**
+     * Every registered email, read row by row; Connector/J only streams with a fetch size of
+     * {@code Integer.MIN_VALUE}. Must be consumed inside a transaction and closed.
+     */
+    @Query("select u.email from User u where u.email is not null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    Stream<String> streamEmails();
+
+    /** Whether the insert failed because the email is taken, rather than for any other reason. */
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        // MySQL reports the key as users.uk_users_email, H2 in upper case with an index suffix
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+    }
 }
\ No newline at end of file
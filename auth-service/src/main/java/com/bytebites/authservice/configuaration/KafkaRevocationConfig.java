@@ -0,0 +1,35 @@
+package com.bytebites.authservice.configuaration;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Producer for token revocations. Messages are {@code TokenRevocation#toMessage()} strings,
+ * keyed by the revoked token id or username.
+ */
+@Configuration
+public class KafkaRevocationConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Bean
+    public KafkaTemplate<String, String> revocationKafkaTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        // Sent after commit on the request thread; do not hang it when Kafka is down
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 2000);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+}
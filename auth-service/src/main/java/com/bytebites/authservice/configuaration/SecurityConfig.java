@@ -1,8 +1,16 @@
 package com.bytebites.authservice.configuaration;
 import com.bytebites.authservice.security.AuthFilter;
+import com.bytebites.authservice.security.BCryptStrength;
+import com.bytebites.authservice.security.BoundedPasswordEncoder;
 import com.bytebites.authservice.security.OAuth2SuccessHandler;
+import com.bytebites.authservice.security.ServiceTokenFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,18 +19,28 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.time.Duration;
 
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
     private AuthFilter jwtAuthFilter;
     private OAuth2SuccessHandler oAuth2SuccessHandler;
+    private ServiceTokenFilter serviceTokenFilter;
 
-    public SecurityConfig(AuthFilter jwtAuthFilter, OAuth2SuccessHandler oAuth2SuccessHandler) {
+    public SecurityConfig(AuthFilter jwtAuthFilter, OAuth2SuccessHandler oAuth2SuccessHandler,
+                          ServiceTokenFilter serviceTokenFilter) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.oAuth2SuccessHandler = oAuth2SuccessHandler;
+        this.serviceTokenFilter = serviceTokenFilter;
     }
 
     @Bean
@@ -30,13 +48,19 @@ public class SecurityConfig {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**", "/admin/**").hasRole("ADMIN")
                         .requestMatchers("/auth/**", "/oauth2/**").permitAll()
+                        // Not routed by the gateway, and only for services holding app.internal.service-token
+                        .requestMatchers("/internal/**").hasRole("SERVICE")
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions.defaultAuthenticationEntryPointFor(
+                        new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                        PathPatternRequestMatcher.withDefaults().matcher("/internal/**")))
                 .oauth2Login(oauth -> oauth
                         .successHandler(oAuth2SuccessHandler)
                 )
+                .addFilterBefore(serviceTokenFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -46,9 +70,29 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt at {@code app.auth.bcrypt.strength}, which production should set so every instance
+     * hashes alike. When unset, the cost is calibrated to {@code target-duration} per hash but kept
+     * within {@code min-strength} and {@code max-strength}. Hashes of a lower cost are upgraded on
+     * the next successful login, see {@code UserDetailsServiceImpl#updatePassword}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt.strength:0}") int strength,
+                                           @Value("${app.auth.bcrypt.target-duration:PT0.1S}") Duration targetDuration,
+                                           @Value("${app.auth.bcrypt.min-strength:" + BCryptStrength.DEFAULT_MIN + "}") int minStrength,
+                                           @Value("${app.auth.bcrypt.max-strength:" + BCryptStrength.DEFAULT_MAX + "}") int maxStrength,
+                                           @Value("${app.auth.password-hashing.threads:0}") int threads,
+                                           @Value("${app.auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        int cost;
+        if (strength > 0) {
+            cost = strength;
+            logger.info("BCrypt cost {} from app.auth.bcrypt.strength", cost);
+        } else {
+            cost = BCryptStrength.calibrate(targetDuration, minStrength, maxStrength);
+        }
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queueCapacity, meterRegistry);
     }
 
 }
@@ -1,7 +1,11 @@
 package com.bytebites.authservice.controller;
 
+import com.bytebites.authservice.dto.SigningKeyResponse;
+import com.bytebites.authservice.model.SigningKey;
+import com.bytebites.authservice.service.SigningKeyService;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -9,9 +13,26 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/admin")
 public class AdminController {
 
+    private final SigningKeyService signingKeyService;
+
+    public AdminController(SigningKeyService signingKeyService) {
+        this.signingKeyService = signingKeyService;
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/dashboard")
     public String dashboard() {
         return "Admin Dashboard";
     }
+
+    /**
+     * Starts a JWT signing key rotation. The new key is published immediately and signs from
+     * the returned {@code activatesAt}.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/keys/rotate")
+    public SigningKeyResponse rotateSigningKey() {
+        SigningKey key = signingKeyService.rotate();
+        return new SigningKeyResponse(key.getKid(), key.getActivatesAt());
+    }
 }
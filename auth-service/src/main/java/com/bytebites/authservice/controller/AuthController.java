@@ -1,13 +1,22 @@
 package com.bytebites.authservice.controller;
 import com.bytebites.authservice.dto.AuthRequest;
 import com.bytebites.authservice.dto.AuthResponse;
+import com.bytebites.authservice.dto.RefreshRequest;
 import com.bytebites.authservice.dto.RegisterRequest;
+import com.bytebites.authservice.security.RefreshTokenCookie;
 import com.bytebites.authservice.service.AuthService;
+import com.bytebites.authservice.service.RefreshTokenService;
+import com.bytebites.authservice.service.RevocationService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 
@@ -16,9 +25,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final RevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final RefreshTokenCookie refreshTokenCookie;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, RevocationService revocationService,
+                          RefreshTokenService refreshTokenService, RefreshTokenCookie refreshTokenCookie) {
         this.authService = authService;
+        this.revocationService = revocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.refreshTokenCookie = refreshTokenCookie;
     }
 
     @PostMapping("/register")
@@ -31,4 +47,39 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh token; the presented
+     * refresh token cannot be used again. Without a body, the token is taken from the refresh token
+     * cookie of browser logins, and its successor is returned the same way rather than in the body.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody(required = false) RefreshRequest request,
+                                                @CookieValue(name = RefreshTokenCookie.NAME, required = false) String cookie) {
+        if (request != null) {
+            return ResponseEntity.ok(refreshTokenService.refresh(request.refreshToken()));
+        }
+        if (cookie == null || cookie.isBlank()) {
+            throw new BadCredentialsException("Refresh token required");
+        }
+        AuthResponse tokens = refreshTokenService.refresh(cookie);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenCookie.of(tokens.refreshToken()).toString())
+                .body(new AuthResponse(tokens.accessToken(), null));
+    }
+
+    /**
+     * Revokes the bearer token; with {@code allSessions=true} also every other token of the user.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestParam(defaultValue = "false") boolean allSessions) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new BadCredentialsException("Bearer token required");
+        }
+        revocationService.logout(authorization.substring(7), allSessions);
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenCookie.cleared().toString())
+                .build();
+    }
 }
@@ -12,10 +12,10 @@ public class OAuth2RedirectController {
 
     @GetMapping("/oauth2/success")
     public ResponseEntity<String> handleOAuth2Success(
-            @RequestParam String token,
-            @RequestParam String refreshToken
+            @RequestParam String token
     ) {
-        log.info("OAuth2 login successful. Access Token: " + token + ", Refresh Token: " + refreshToken);
+        // The refresh token arrived as a cookie, see OAuth2SuccessHandler
+        log.info("OAuth2 login successful");
         return ResponseEntity.ok("Login successful. Access Token: " + token);
     }
 }
\ No newline at end of file
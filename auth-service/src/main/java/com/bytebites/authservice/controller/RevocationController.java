@@ -0,0 +1,32 @@
+package com.bytebites.authservice.controller;
+
+import com.bytebites.authservice.model.TokenRevocation;
+import com.bytebites.authservice.service.RevocationService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of the active revocations, one {@link TokenRevocation#toMessage()} per line, loaded by
+ * gateways when they start consuming the revocation topic. Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/internal/revocations")
+public class RevocationController {
+
+    private final RevocationService revocationService;
+
+    public RevocationController(RevocationService revocationService) {
+        this.revocationService = revocationService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_PLAIN_VALUE)
+    public String snapshot() {
+        return revocationService.activeRevocations().stream()
+                .map(TokenRevocation::toMessage)
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,8 @@
+package com.bytebites.authservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank(message = "Refresh token cannot be blank")
+        String refreshToken
+) {}
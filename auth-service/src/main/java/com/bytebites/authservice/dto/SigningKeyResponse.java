@@ -0,0 +1,8 @@
+package com.bytebites.authservice.dto;
+
+import java.time.Instant;
+
+public record SigningKeyResponse(
+        String kid,
+        Instant activatesAt
+) {}
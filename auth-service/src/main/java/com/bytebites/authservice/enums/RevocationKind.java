@@ -0,0 +1,8 @@
+package com.bytebites.authservice.enums;
+
+public enum RevocationKind {
+    /** One token, by its {@code jti}. */
+    TOKEN,
+    /** Every token of a user issued before a point in time, by username ({@code sub}). */
+    USER
+}
@@ -0,0 +1,9 @@
+package com.bytebites.authservice.event;
+
+import com.bytebites.authservice.model.TokenRevocation;
+
+/**
+ * Published inside the transaction that stores the revocation; broadcast once it commits.
+ */
+public record TokenRevokedEvent(TokenRevocation revocation) {
+}
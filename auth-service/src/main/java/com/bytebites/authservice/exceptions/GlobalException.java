@@ -3,6 +3,7 @@ package com.bytebites.authservice.exceptions;
 
 import com.bytebites.authservice.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -26,8 +27,16 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
 
+    /**
+     * Spring Security wraps anything a {@code UserDetailsService} or password check throws in an
+     * {@link org.springframework.security.authentication.InternalAuthenticationServiceException};
+     * a full hashing queue behind it is still a 503, not a failed login.
+     */
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<ErrorResponse> handleAuthentication(AuthenticationException ex, HttpServletRequest request) {
+        if (ex.getCause() instanceof PasswordHashingBusyException busy) {
+            return handleHashingBusy(busy, request);
+        }
         ErrorResponse error = new ErrorResponse(
                 ex.getMessage(),
                 HttpStatus.UNAUTHORIZED.value(),
@@ -37,6 +46,19 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handleHashingBusy(PasswordHashingBusyException ex, HttpServletRequest request) {
+        ErrorResponse error = new ErrorResponse(
+                ex.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                request.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest request) {
         String message = ex.getBindingResult()
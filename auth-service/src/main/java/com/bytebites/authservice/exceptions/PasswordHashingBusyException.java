@@ -0,0 +1,12 @@
+package com.bytebites.authservice.exceptions;
+
+/**
+ * Thrown when the password hashing queue is full. Mapped to 503 so that clients back off instead
+ * of piling more BCrypt work onto an instance that is already saturated.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Too many concurrent logins, try again shortly");
+    }
+}
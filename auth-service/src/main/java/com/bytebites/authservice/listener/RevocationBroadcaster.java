@@ -0,0 +1,46 @@
+package com.bytebites.authservice.listener;
+
+import com.bytebites.authservice.event.TokenRevokedEvent;
+import com.bytebites.authservice.model.TokenRevocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends committed revocations to every gateway. A message that never reaches Kafka is still in
+ * the revocation snapshot, so gateways started afterwards pick it up; running gateways miss it.
+ */
+@Component
+public class RevocationBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationBroadcaster.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+
+    public RevocationBroadcaster(@Qualifier("revocationKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                                 @Value("${app.jwt.revocation.topic:auth.token-revocations}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        TokenRevocation revocation = event.revocation();
+        try {
+            kafkaTemplate.send(topic, revocation.getValue(), revocation.toMessage()).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    logger.warn("Failed to broadcast revocation {}: {}", revocation.getId(), ex.toString());
+                }
+            });
+        } catch (RuntimeException ex) {
+            // The revocation is committed either way; do not turn a Kafka outage into a failed logout
+            logger.warn("Failed to broadcast revocation {}: {}", revocation.getId(), ex.toString());
+        }
+    }
+}
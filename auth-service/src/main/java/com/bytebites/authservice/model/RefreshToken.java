@@ -0,0 +1,62 @@
+package com.bytebites.authservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One issued refresh token, stored by the SHA-256 of its value so that a database leak does not
+ * leak usable tokens. {@code rotatedAt} is set when the token is redeemed; presenting it again
+ * after that is reuse.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "refresh_tokens",
+        indexes = @Index(name = "idx_refresh_tokens_family", columnList = "family_id"))
+public class RefreshToken implements Persistable<String> {
+
+    /** Unpadded base64url SHA-256 of the token. */
+    @Id
+    @Column(name = "token_hash", length = 43)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "issued_at", nullable = false)
+    private Instant issuedAt;
+
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+
+    @Transient
+    private boolean isNew;
+
+    public RefreshToken(String tokenHash, UUID familyId, Instant issuedAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.issuedAt = issuedAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
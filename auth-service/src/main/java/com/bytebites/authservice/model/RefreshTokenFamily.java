@@ -0,0 +1,62 @@
+package com.bytebites.authservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The chain of refresh tokens descending from one login. Every token of the family shares its
+ * {@code expiresAt}, so rotating does not extend a session. Revoking the family, on logout or
+ * when a rotated token is presented again, invalidates the token currently held by the client.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "refresh_token_families", indexes = {
+        @Index(name = "idx_refresh_families_username", columnList = "username"),
+        @Index(name = "idx_refresh_families_expires", columnList = "expires_at")
+})
+public class RefreshTokenFamily implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at")
+    private Instant revokedAt;
+
+    // Always inserted with an assigned id; lets save() persist instead of merging with a SELECT first
+    @Transient
+    private boolean isNew;
+
+    public RefreshTokenFamily(UUID id, String username, Instant createdAt, Instant expiresAt) {
+        this.id = id;
+        this.username = username;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.bytebites.authservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An ES256 (P-256) key pair used to sign JWTs, shared by every auth-service instance.
+ * A key is published in the JWKS from creation, signs new tokens from {@code activatesAt}
+ * until it is retired by the next rotation, and keeps verifying the tokens it signed until
+ * those have expired. Maintained by {@link com.bytebites.authservice.service.SigningKeyService}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "jwt_signing_keys")
+public class SigningKey {
+
+    /** The {@code kid} header of the tokens signed with this key. */
+    @Id
+    @Column(length = 43)
+    private String kid;
+
+    /**
+     * PKCS#8 encoding, encrypted by {@link com.bytebites.authservice.security.SigningKeyCipher}
+     * while stored; in the clear only on copies handed to the key ring.
+     */
+    @Column(name = "private_key", nullable = false, length = 512)
+    private byte[] privateKey;
+
+    /** X.509 SubjectPublicKeyInfo encoding. */
+    @Column(name = "public_key", nullable = false, length = 512)
+    private byte[] publicKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+
+    /** When the next key took over signing; null while this is the newest key. */
+    @Column(name = "retired_at")
+    private Instant retiredAt;
+
+    public SigningKey(String kid, byte[] privateKey, byte[] publicKey, Instant createdAt, Instant activatesAt) {
+        this.kid = kid;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.createdAt = createdAt;
+        this.activatesAt = activatesAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.bytebites.authservice.model;
+
+import com.bytebites.authservice.enums.RevocationKind;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A revoked token or a user whose earlier tokens are all revoked. Rows are only needed until
+ * the tokens they cover have expired, and are deleted after {@code expiresAt}.
+ * <p>
+ * {@link #toMessage()} is the wire format of the revocation topic and of the snapshot endpoint:
+ * {@code KIND|revokedBeforeMillis|expiresAtMillis|value}, with the value last because usernames
+ * may contain any character.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "token_revocations",
+        indexes = @Index(name = "idx_token_revocations_expires", columnList = "expires_at"))
+public class TokenRevocation {
+
+    /** {@code <kind>:<value>}, so that revoking the same token or user twice updates one row. */
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RevocationKind kind;
+
+    /** The {@code jti} of a {@link RevocationKind#TOKEN}, the username of a {@link RevocationKind#USER}. */
+    @Column(nullable = false, length = 255)
+    private String value;
+
+    /** For {@link RevocationKind#USER}: tokens issued before this instant are revoked. */
+    @Column(name = "revoked_before")
+    private Instant revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public TokenRevocation(RevocationKind kind, String value, Instant revokedBefore, Instant expiresAt) {
+        this.id = kind + ":" + value;
+        this.kind = kind;
+        this.value = value;
+        this.revokedBefore = revokedBefore;
+        this.expiresAt = expiresAt;
+    }
+
+    public String toMessage() {
+        long before = revokedBefore != null ? revokedBefore.toEpochMilli() : 0;
+        return kind + "|" + before + "|" + expiresAt.toEpochMilli() + "|" + value;
+    }
+}
@@ -2,12 +2,14 @@ package com.bytebites.authservice.model;
 
 import com.bytebites.authservice.enums.AuthProvider;
 import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.commons.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 
 import java.util.ArrayList;
@@ -18,10 +20,16 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users") // or "app_user"
+@Table(name = "users", // or "app_user"
+        uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"))
 public class User {
+
+    /** Named, so that a duplicate email can be told apart from other integrity violations. */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID uuid;
 
     @NotBlank(message = "Username cannot be blank")
@@ -33,7 +41,6 @@ public class User {
 
 
     @Email
-    @Column(unique = true)
     private String email;
 
     @Enumerated(EnumType.STRING)
@@ -1,10 +1,14 @@
 package com.bytebites.authservice.security;
 
 import com.bytebites.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -12,6 +16,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import com.bytebites.authservice.service.UserDetailsServiceImpl;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -21,12 +26,16 @@ import java.io.IOException;
 @Component
 public class AuthFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthFilter.class);
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
 
-    public AuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public AuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService, UserDetailsCache userDetailsCache) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -34,17 +43,25 @@ public class AuthFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtUtil.isTokenValid(token, userDetails)) {
-                    var authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities()
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+            try {
+                // One parse checks signature and expiry; the user comes from the cache in the steady state
+                Claims claims = jwtUtil.parseValidClaims(token);
+                String username = claims.getSubject();
+                if (username != null) {
+                    UserDetails userDetails = userDetailsCache.get(username, userDetailsService::loadUserByUsername);
+                    if (jwtUtil.isTokenValid(claims, userDetails)) {
+                        var authToken = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities()
+                        );
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    }
                 }
+            } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+                // Left unauthenticated; the authorization rules reject the request if it needs a user
+                logger.debug("Rejected bearer token: {}", e.getMessage());
             }
         }
         chain.doFilter(request, response);
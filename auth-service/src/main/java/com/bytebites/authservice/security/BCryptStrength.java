@@ -0,0 +1,52 @@
+package com.bytebites.authservice.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt cost for this machine: the highest cost whose hash still takes no longer than
+ * a target duration, within {@code [min, max]}. Each step doubles the work, so the cost is
+ * extrapolated from a few timings at the minimum rather than measured at every level.
+ * <p>
+ * A timing taken at startup is noisy and differs between hosts, so the bounds keep instances from
+ * drifting apart in cost, and from a slow start on a busy host weakening every new hash.
+ */
+public final class BCryptStrength {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptStrength.class);
+
+    /** Spring's default cost. */
+    public static final int DEFAULT_MIN = 10;
+    public static final int DEFAULT_MAX = 12;
+    private static final int SAMPLES = 5;
+
+    private BCryptStrength() {
+    }
+
+    public static int calibrate(Duration target, int min, int max) {
+        if (min < 4 || max > 31 || min > max) {
+            throw new IllegalArgumentException("BCrypt cost bounds must satisfy 4 <= min <= max <= 31, got ["
+                    + min + ", " + max + "]");
+        }
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(min);
+        String hash = probe.encode("calibration");
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", hash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        int strength = min;
+        long estimate = fastest;
+        while (strength < max && estimate * 2 <= target.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        logger.info("BCrypt cost {} calibrated within [{}, {}] (about {} ms per hash, target {} ms)",
+                strength, min, max, estimate / 1_000_000, target.toMillis());
+        return strength;
+    }
+}
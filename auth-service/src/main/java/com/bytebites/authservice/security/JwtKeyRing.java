@@ -0,0 +1,172 @@
+package com.bytebites.authservice.security;
+
+import com.bytebites.authservice.model.SigningKey;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The decoded signing keys of this instance, installed by
+ * {@link com.bytebites.authservice.service.SigningKeyService}. Keys are decoded once per install
+ * and reused across installs, so signing, verification and the JWKS response never touch
+ * {@link KeyFactory} or the database.
+ * <p>
+ * The signing key is the newest key whose {@code activatesAt} has passed; a key published ahead
+ * of its activation takes over on the first signature after that instant.
+ */
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    public static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.ES256;
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    /** Key used to sign new tokens, with the {@code kid} header it is published under. */
+    public record ActiveKey(String kid, PrivateKey privateKey) {
+    }
+
+    private record DecodedKey(String kid, Instant activatesAt, PrivateKey privateKey, ECPublicKey publicKey) {
+    }
+
+    private record KeySet(List<DecodedKey> byActivation, Map<String, DecodedKey> byKid, Map<String, Object> jwks) {
+    }
+
+    private static final KeySet EMPTY = new KeySet(List.of(), Map.of(), Map.of("keys", List.of()));
+
+    private volatile KeySet keySet = EMPTY;
+    private volatile ActiveKey activeKey;
+    /** When {@link #activeKey} has to be re-selected, because a newer key activates then. */
+    private volatile Instant reselectAt = Instant.MIN;
+
+    /**
+     * Replaces the published and verifying keys with {@code keys}.
+     *
+     * @throws IllegalStateException if a stored key cannot be decoded
+     */
+    public synchronized void install(Collection<SigningKey> keys) {
+        Map<String, DecodedKey> previous = keySet.byKid();
+        List<DecodedKey> decoded = new ArrayList<>(keys.size());
+        for (SigningKey key : keys) {
+            DecodedKey existing = previous.get(key.getKid());
+            decoded.add(existing != null && existing.activatesAt().equals(key.getActivatesAt()) ? existing : decode(key));
+        }
+        decoded.sort(Comparator.comparing(DecodedKey::activatesAt).reversed());
+
+        Map<String, DecodedKey> byKid = new HashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>(decoded.size());
+        for (DecodedKey key : decoded) {
+            byKid.put(key.kid(), key);
+            jwks.add(toJwk(key));
+        }
+        this.keySet = new KeySet(List.copyOf(decoded), Map.copyOf(byKid), Map.of("keys", List.copyOf(jwks)));
+        this.reselectAt = Instant.MIN;
+    }
+
+    /**
+     * @throws IllegalStateException if no installed key has activated yet
+     */
+    public ActiveKey signingKey() {
+        Instant now = Instant.now();
+        ActiveKey current = activeKey;
+        if (current == null || !now.isBefore(reselectAt)) {
+            current = select(now);
+        }
+        return current;
+    }
+
+    /** The public keys as a JWK Set (RFC 7517), ready to be serialized. */
+    public Map<String, Object> jwks() {
+        return keySet.jwks();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        if (!ALGORITHM.getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Unsupported JWS algorithm " + header.getAlgorithm());
+        }
+        DecodedKey key = header.getKeyId() != null ? keySet.byKid().get(header.getKeyId()) : null;
+        if (key == null) {
+            throw new SignatureException("Unknown signing key " + header.getKeyId());
+        }
+        return key.publicKey();
+    }
+
+    private synchronized ActiveKey select(Instant now) {
+        Instant next = Instant.MAX;
+        for (DecodedKey key : keySet.byActivation()) {
+            if (!key.activatesAt().isAfter(now)) {
+                ActiveKey selected = new ActiveKey(key.kid(), key.privateKey());
+                this.activeKey = selected;
+                this.reselectAt = next;
+                return selected;
+            }
+            next = key.activatesAt();
+        }
+        throw new IllegalStateException("No active JWT signing key");
+    }
+
+    private static DecodedKey decode(SigningKey key) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(key.getPrivateKey()));
+            ECPublicKey publicKey = (ECPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(key.getPublicKey()));
+            return new DecodedKey(key.getKid(), key.getActivatesAt(), privateKey, publicKey);
+        } catch (GeneralSecurityException | ClassCastException e) {
+            throw new IllegalStateException("Cannot decode JWT signing key " + key.getKid(), e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(DecodedKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM.getValue());
+        jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+        jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+        return jwk;
+    }
+
+    /** P-256 coordinates are always 32 bytes, left-padded, without BigInteger's sign byte. */
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return BASE64_URL.encodeToString(fixed);
+    }
+
+    /** The {@code kid} for a public key: the unpadded base64url SHA-256 of its X.509 encoding. */
+    public static String keyId(byte[] encodedPublicKey) {
+        try {
+            return BASE64_URL.encodeToString(MessageDigest.getInstance("SHA-256").digest(encodedPublicKey));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
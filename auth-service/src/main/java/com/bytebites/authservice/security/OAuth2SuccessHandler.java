@@ -1,12 +1,16 @@
 package com.bytebites.authservice.security;
 
 import com.bytebites.authservice.Repository.UserRepository;
+import com.bytebites.authservice.dto.AuthResponse;
 import com.bytebites.authservice.enums.UserRole;
 
 import com.bytebites.authservice.model.User;
-import com.bytebites.authservice.util.JwtUtil;
+import com.bytebites.authservice.service.RefreshTokenService;
+import com.bytebites.authservice.service.RegisteredEmails;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
@@ -19,12 +23,17 @@ import java.util.List;
 @Component
 public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
 
-    private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final RegisteredEmails registeredEmails;
+    private final RefreshTokenCookie refreshTokenCookie;
 
-    public OAuth2SuccessHandler(JwtUtil jwtUtil, UserRepository userRepository) {
-        this.jwtUtil = jwtUtil;
+    public OAuth2SuccessHandler(UserRepository userRepository, RefreshTokenService refreshTokenService,
+                                RegisteredEmails registeredEmails, RefreshTokenCookie refreshTokenCookie) {
         this.userRepository = userRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.registeredEmails = registeredEmails;
+        this.refreshTokenCookie = refreshTokenCookie;
     }
 
     @Override
@@ -35,18 +44,28 @@ public class OAuth2SuccessHandler implements AuthenticationSuccessHandler {
         String name = oAuth2User.getAttribute("name");
 
 
-        User user = userRepository.findByEmail(email).orElseGet(() -> {
+        User user = registeredEmails.find(email, userRepository::findByEmail).orElseGet(() -> {
             User newUser = new User();
             newUser.setUsername(name);
             newUser.setEmail(email);
             newUser.setRoles(List.of(UserRole.CUSTOMER));
-            return userRepository.save(newUser);
+            try {
+                User saved = userRepository.save(newUser);
+                registeredEmails.add(email);
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                if (!UserRepository.isDuplicateEmail(e)) {
+                    throw e;
+                }
+                // Signed up through another instance since the filter was loaded
+                return userRepository.findByEmail(email).orElseThrow(() -> e);
+            }
         });
 
-        String jwtToken = jwtUtil.generateToken(user);
-        String refreshToken = jwtUtil.generateRefreshToken(user.getUsername());
+        AuthResponse tokens = refreshTokenService.issue(user);
 
-
-        response.sendRedirect("/oauth2/success?token=" + jwtToken + "&refreshToken=" + refreshToken);
+        // Redirect URLs end up in browser history and access logs, so the long-lived token goes in a cookie
+        response.addHeader(HttpHeaders.SET_COOKIE, refreshTokenCookie.of(tokens.refreshToken()).toString());
+        response.sendRedirect("/oauth2/success?token=" + tokens.accessToken());
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.bytebites.authservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The refresh token of browser logins. It is HttpOnly, so scripts cannot read it, and it is only
+ * sent over HTTPS, from same-site pages, to the {@code /auth} endpoints.
+ */
+@Component
+public class RefreshTokenCookie {
+
+    public static final String NAME = "refresh_token";
+
+    private final Duration maxAge;
+
+    public RefreshTokenCookie(@Value("${app.jwt.refresh-expiration}") long refreshTokenExpirationMillis) {
+        this.maxAge = Duration.ofMillis(refreshTokenExpirationMillis);
+    }
+
+    public ResponseCookie of(String refreshToken) {
+        return build(refreshToken, maxAge);
+    }
+
+    /** Tells the browser to drop the cookie. */
+    public ResponseCookie cleared() {
+        return build("", Duration.ZERO);
+    }
+
+    private static ResponseCookie build(String value, Duration maxAge) {
+        return ResponseCookie.from(NAME, value)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Strict")
+                .path("/auth")
+                .maxAge(maxAge)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bytebites.authservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates other services on {@code /internal/**} by the shared secret they send as
+ * {@value #HEADER}, {@code app.internal.service-token}. A match is granted {@code ROLE_SERVICE};
+ * anything else is left unauthenticated and rejected by the authorization rules.
+ */
+@Component
+public class ServiceTokenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Service-Token";
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceTokenFilter.class);
+
+    private final byte[] serviceToken;
+
+    public ServiceTokenFilter(@Value("${app.internal.service-token}") String serviceToken) {
+        if (serviceToken.isBlank()) {
+            throw new IllegalArgumentException("app.internal.service-token must not be blank");
+        }
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (presented != null && MessageDigest.isEqual(serviceToken, presented.getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "service", null, List.of(new SimpleGrantedAuthority("ROLE_SERVICE"))));
+        } else {
+            logger.debug("Rejected service token on {}", request.getServletPath());
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/internal/");
+    }
+}
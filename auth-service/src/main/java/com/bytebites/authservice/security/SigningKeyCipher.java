@@ -0,0 +1,89 @@
+package com.bytebites.authservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts the private halves of the JWT signing keys before they are written to
+ * {@code jwt_signing_keys}, with AES-256-GCM under {@code app.jwt.keys.encryption-key}.
+ * <p>
+ * The key encryption key is a base64-encoded 256-bit secret supplied from outside the database,
+ * e.g. an environment variable filled from a secret manager or KMS. A stored key is a version
+ * byte, a random 12-byte IV and the ciphertext with its tag; the {@code kid} is authenticated
+ * along with it, so a row cannot be passed off as another key.
+ */
+@Component
+public class SigningKeyCipher {
+
+    private static final byte VERSION = 1;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final int KEY_BYTES = 32;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    public SigningKeyCipher(@Value("${app.jwt.keys.encryption-key}") String encodedKey) {
+        byte[] keyBytes = Base64.getDecoder().decode(encodedKey.trim());
+        if (keyBytes.length != KEY_BYTES) {
+            throw new IllegalArgumentException("app.jwt.keys.encryption-key must be " + KEY_BYTES
+                    + " base64-encoded bytes, got " + keyBytes.length);
+        }
+        this.key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    public byte[] encrypt(String kid, byte[] privateKey) {
+        byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = cipher(Cipher.ENCRYPT_MODE, kid, iv);
+            byte[] ciphertext = cipher.doFinal(privateKey);
+            return ByteBuffer.allocate(1 + IV_BYTES + ciphertext.length)
+                    .put(VERSION)
+                    .put(iv)
+                    .put(ciphertext)
+                    .array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot encrypt signing key " + kid, e);
+        }
+    }
+
+    public byte[] decrypt(String kid, byte[] stored) {
+        if (!isEncrypted(stored)) {
+            throw new IllegalArgumentException("Signing key " + kid + " is not encrypted");
+        }
+        try {
+            Cipher cipher = cipher(Cipher.DECRYPT_MODE, kid, Arrays.copyOfRange(stored, 1, 1 + IV_BYTES));
+            return cipher.doFinal(stored, 1 + IV_BYTES, stored.length - 1 - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decrypt signing key " + kid
+                    + "; is app.jwt.keys.encryption-key the key it was stored with?", e);
+        }
+    }
+
+    /**
+     * Whether {@code stored} was written by {@link #encrypt}. A plaintext PKCS#8 key starts with
+     * an ASN.1 SEQUENCE tag (0x30) instead of the version byte.
+     */
+    public static boolean isEncrypted(byte[] stored) {
+        return stored.length > 1 + IV_BYTES && stored[0] == VERSION;
+    }
+
+    private Cipher cipher(int mode, String kid, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bytebites.authservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of the {@link UserDetails} used by {@link AuthFilter}, so that requests
+ * carrying a valid token do not query the users table.
+ * Writes to a user must call {@link #evict(String)}; the TTL bounds how long another
+ * auth-service instance can keep serving the previous state.
+ * Only successful lookups are cached. Metrics are published under {@code auth.user-details}.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${app.auth.user-cache.max-size:10000}") long maximumSize,
+                            @Value("${app.auth.user-cache.ttl:PT5M}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.user-details");
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+}
@@ -7,8 +7,8 @@ import com.bytebites.authservice.dto.RegisterRequest;
 import com.bytebites.authservice.enums.AuthProvider;
 import com.bytebites.authservice.model.User;
 import com.bytebites.authservice.security.CustomUserDetails;
-import com.bytebites.authservice.util.JwtUtil;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,13 +25,16 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepo;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final RegisteredEmails registeredEmails;
 
-    public AuthService(AuthenticationManager authenticationManager, UserRepository userRepo, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(AuthenticationManager authenticationManager, UserRepository userRepo, PasswordEncoder passwordEncoder,
+                       RefreshTokenService refreshTokenService, RegisteredEmails registeredEmails) {
         this.authenticationManager = authenticationManager;
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
-        this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.registeredEmails = registeredEmails;
     }
 
     public void register(@Valid RegisterRequest request) {
@@ -39,7 +42,7 @@ public class AuthService {
             throw new BadCredentialsException("Password required for local login.");
         }
 
-        if (userRepo.existsByEmail(request.email())) {
+        if (registeredEmails.exists(request.email(), userRepo::existsByEmail)) {
             throw new IllegalArgumentException("Email already in use.");
         }
 
@@ -51,7 +54,16 @@ public class AuthService {
         user.setProvider(AuthProvider.LOCAL);
         user.setRoles(List.of(request.role()));
 
-        userRepo.save(user);
+        try {
+            userRepo.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!UserRepository.isDuplicateEmail(e)) {
+                throw e;
+            }
+            // Registered through another instance, or concurrently; the unique constraint decides
+            throw new IllegalArgumentException("Email already in use.");
+        }
+        registeredEmails.add(user.getEmail());
     }
 
     public AuthResponse login(AuthRequest request) {
@@ -60,12 +72,7 @@ public class AuthService {
         );
 
         CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
-        User user = userDetails.getUser();
-
-        String accessToken = jwtUtil.generateToken(user);
-        String refreshToken = jwtUtil.generateRefreshToken(user.getUsername());
-
-        return new AuthResponse(accessToken, refreshToken);
+        return refreshTokenService.issue(userDetails.getUser());
     }
 
 }
@@ -0,0 +1,204 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.RefreshTokenFamilyRepository;
+import com.bytebites.authservice.Repository.RefreshTokenRepository;
+import com.bytebites.authservice.dto.AuthResponse;
+import com.bytebites.authservice.model.RefreshToken;
+import com.bytebites.authservice.model.RefreshTokenFamily;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.CustomUserDetails;
+import com.bytebites.authservice.security.UserDetailsCache;
+import com.bytebites.authservice.util.JwtUtil;
+import com.bytebites.commons.UuidV7;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and redeems refresh tokens.
+ * <p>
+ * A refresh token is 256 random bits, stored only as its SHA-256. Each login starts a family;
+ * redeeming a token marks it rotated and issues its successor in the same family. A rotated token
+ * presented again means it was copied, so the whole family is revoked, logging out the legitimate
+ * holder and the thief alike. Redemption is a single conditional UPDATE, so of two concurrent
+ * requests with the same token exactly one wins.
+ * <p>
+ * The family of a token never changes, so it is cached by token hash: a refresh needs no BCrypt,
+ * no SELECT and, with the user in {@link UserDetailsCache}, no users query; just the UPDATE and the
+ * INSERT of the successor. Revocation is decided by the UPDATE alone, so a stale cache entry on
+ * another instance cannot resurrect a revoked family.
+ * Metrics: {@code auth.refresh-sessions} (cache) and {@code auth.refresh.reuse}.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository tokenRepository;
+    private final RefreshTokenFamilyRepository familyRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final JwtUtil jwtUtil;
+    private final Duration lifetime;
+    private final Cache<String, Session> sessions;
+    private final Counter reuseCounter;
+    private final SecureRandom random = new SecureRandom();
+
+    /** What a token hash resolves to; immutable for the life of the family. */
+    private record Session(UUID familyId, String username, Instant expiresAt) {
+    }
+
+    public RefreshTokenService(RefreshTokenRepository tokenRepository,
+                               RefreshTokenFamilyRepository familyRepository,
+                               UserDetailsServiceImpl userDetailsService,
+                               UserDetailsCache userDetailsCache,
+                               JwtUtil jwtUtil,
+                               @Value("${app.jwt.refresh-expiration}") long refreshTokenExpirationMillis,
+                               @Value("${app.auth.refresh-cache.max-size:100000}") long maximumSize,
+                               @Value("${app.auth.refresh-cache.ttl:PT1H}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.familyRepository = familyRepository;
+        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.jwtUtil = jwtUtil;
+        this.lifetime = Duration.ofMillis(refreshTokenExpirationMillis);
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "auth.refresh-sessions");
+        this.reuseCounter = Counter.builder("auth.refresh.reuse")
+                .description("Rotated refresh tokens presented again; each revokes its family")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a new family for a fresh login and returns its first refresh token, with an access
+     * token whose {@code sid} claim names the family.
+     */
+    @Transactional
+    public AuthResponse issue(User user) {
+        Instant now = Instant.now();
+        RefreshTokenFamily family = new RefreshTokenFamily(UuidV7.generate(), user.getUsername(), now, now.plus(lifetime));
+        familyRepository.save(family);
+        String refreshToken = newToken(new Session(family.getId(), user.getUsername(), family.getExpiresAt()), now);
+        return new AuthResponse(jwtUtil.generateToken(user, family.getId()), refreshToken);
+    }
+
+    /**
+     * Redeems a refresh token for a new access token and the next refresh token of its family.
+     *
+     * @throws BadCredentialsException if the token is unknown, expired, revoked or already used;
+     *                                 in the last case its family is revoked as well
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse refresh(String refreshToken) {
+        String hash = hash(refreshToken);
+        Session session = sessions.getIfPresent(hash);
+        if (session == null) {
+            RefreshTokenFamily family = familyRepository.findByTokenHash(hash)
+                    .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+            if (family.getRevokedAt() != null) {
+                throw new BadCredentialsException("Refresh token revoked");
+            }
+            session = new Session(family.getId(), family.getUsername(), family.getExpiresAt());
+        }
+
+        Instant now = Instant.now();
+        if (!now.isBefore(session.expiresAt())) {
+            sessions.invalidate(hash);
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        // Rotated or about to be; either way the hash is never redeemable again
+        sessions.invalidate(hash);
+        if (tokenRepository.markRotated(hash, now) == 0) {
+            rejectReuse(session, now);
+        }
+
+        String next = newToken(session, now);
+        User user = ((CustomUserDetails) userDetailsCache.get(session.username(),
+                userDetailsService::loadUserByUsername)).getUser();
+        return new AuthResponse(jwtUtil.generateToken(user, session.familyId()), next);
+    }
+
+    /** Revokes one refresh token family, e.g. on logout from the session it belongs to. */
+    @Transactional
+    public void revoke(UUID familyId) {
+        Instant now = Instant.now();
+        tokenRepository.rotateAllOfFamily(familyId, now);
+        familyRepository.revoke(familyId, now);
+    }
+
+    /** Revokes every refresh token family of the user, e.g. on logout from all sessions. */
+    @Transactional
+    public void revokeAll(String username) {
+        Instant now = Instant.now();
+        tokenRepository.rotateAllOf(username, now);
+        familyRepository.revokeAllOf(username, now);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.auth.refresh-sweep-interval-ms:3600000}")
+    public void sweepExpired() {
+        Instant now = Instant.now();
+        int tokens = tokenRepository.deleteExpired(now);
+        int families = familyRepository.deleteExpired(now);
+        if (families > 0) {
+            logger.info("Deleted {} expired refresh token families ({} tokens)", families, tokens);
+        }
+    }
+
+    private String newToken(Session session, Instant now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = BASE64_URL.encodeToString(bytes);
+        String hash = hash(token);
+        tokenRepository.save(new RefreshToken(hash, session.familyId(), now));
+        sessions.put(hash, session);
+        return token;
+    }
+
+    private void rejectReuse(Session session, Instant now) {
+        // Either the family was revoked already (logout, earlier reuse) or this token was used twice
+        if (familyRepository.revoke(session.familyId(), now) == 0) {
+            throw new BadCredentialsException("Refresh token revoked");
+        }
+        tokenRepository.rotateAllOfFamily(session.familyId(), now);
+        reuseCounter.increment();
+        logger.warn("Refresh token reuse detected for user {}; revoked token family {}",
+                session.username(), session.familyId());
+        throw new BadCredentialsException("Refresh token reuse detected");
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return BASE64_URL.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.UserRepository;
+import com.bytebites.commons.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of the emails in the {@code users} table, so that sign-ups and OAuth logins with
+ * an email that is definitely new skip the lookup by email.
+ * <p>
+ * The filter is built after startup by streaming the emails on a background thread; until then
+ * every check goes to the database. Inserts made by this instance are added as they happen, while
+ * inserts made by other instances are only picked up by the next rebuild. A missing email is
+ * therefore a hint, not a guarantee: callers insert and let the unique constraint on
+ * {@code users.email} reject a duplicate. The filter is rebuilt once it holds more emails than it
+ * was sized for.
+ * <p>
+ * Metrics: {@code auth.registered-emails.skipped} (lookups avoided),
+ * {@code auth.registered-emails.false-positives}, {@code auth.registered-emails.false-positive-rate}
+ * and {@code auth.registered-emails.load}.
+ */
+@Component
+public class RegisteredEmails {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegisteredEmails.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Duration loadBudget;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final Counter skippedCounter;
+    private final Counter falsePositiveCounter;
+    private final Timer loadTimer;
+
+    /** Null until the first load has finished. */
+    private volatile BloomFilter filter;
+    /** The filter being loaded, which inserts must reach as well; guarded by {@code this}. */
+    private BloomFilter building;
+    private long capacity;
+    private long insertions;
+
+    public RegisteredEmails(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.auth.email-filter.expected-users:1000000}") long expectedUsers,
+                            @Value("${app.auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${app.auth.email-filter.load-budget:PT60S}") Duration loadBudget,
+                            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        // Hibernate then neither snapshots nor flushes, and the connection is marked read-only
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.loadBudget = loadBudget;
+        this.skippedCounter = Counter.builder("auth.registered-emails.skipped")
+                .description("Lookups by email skipped because the email is definitely not registered")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("auth.registered-emails.false-positives")
+                .description("Lookups by email the filter let through that found no user")
+                .register(meterRegistry);
+        Gauge.builder("auth.registered-emails.false-positive-rate", this, RegisteredEmails::observedFalsePositiveRate)
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("auth.registered-emails.load").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        startRebuild();
+    }
+
+    /**
+     * Starts a rebuild on a background thread.
+     *
+     * @return {@code false} if a rebuild is already running
+     */
+    public boolean startRebuild() {
+        if (!loading.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().name("registered-emails-load").daemon().start(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                logger.error("Loading registered emails failed; lookups by email keep going to the database", e);
+            } finally {
+                loading.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Runs {@code query} unless the email is definitely not registered.
+     */
+    public <T> Optional<T> find(String email, Function<String, Optional<T>> query) {
+        BloomFilter current = filter;
+        if (current != null && email != null && !current.mightContain(normalize(email))) {
+            skippedCounter.increment();
+            return Optional.empty();
+        }
+        Optional<T> found = query.apply(email);
+        if (current != null && found.isEmpty()) {
+            falsePositiveCounter.increment();
+        }
+        return found;
+    }
+
+    public boolean exists(String email, Predicate<String> query) {
+        return find(email, e -> query.test(e) ? Optional.of(Boolean.TRUE) : Optional.empty()).isPresent();
+    }
+
+    /** Records an email this instance has just inserted. */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        boolean full;
+        synchronized (this) {
+            if (building != null) {
+                building.put(key);
+            }
+            if (filter == null) {
+                return;
+            }
+            filter.put(key);
+            full = ++insertions > capacity;
+        }
+        if (full) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * Rebuilds on the calling thread.
+     *
+     * @return {@code false} if a rebuild was already running
+     */
+    public boolean rebuild() {
+        if (!loading.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            load();
+            return true;
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        long size = Math.max(expectedUsers, 2 * userRepository.count());
+        BloomFilter next = new BloomFilter(size, falsePositiveRate);
+        long emailCount;
+        synchronized (this) {
+            building = next;
+        }
+        try {
+            Long loaded = transactionTemplate.execute(status -> {
+                try (Stream<String> emails = userRepository.streamEmails()) {
+                    AtomicLong count = new AtomicLong();
+                    emails.forEach(email -> {
+                        next.put(normalize(email));
+                        count.incrementAndGet();
+                    });
+                    return count.get();
+                }
+            });
+            emailCount = loaded == null ? 0 : loaded;
+            synchronized (this) {
+                filter = next;
+                capacity = size;
+                insertions = emailCount;
+            }
+        } finally {
+            synchronized (this) {
+                building = null;
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed > loadBudget.toNanos()) {
+            logger.warn("Loading {} registered emails took {} ms, over the budget of {} ms; "
+                    + "lookups by email went to the database meanwhile", emailCount, elapsed / 1_000_000, loadBudget.toMillis());
+        } else {
+            logger.info("Loaded {} registered emails in {} ms", emailCount, elapsed / 1_000_000);
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double fp = falsePositiveCounter.count();
+        double total = fp + skippedCounter.count();
+        return total == 0 ? 0 : fp / total;
+    }
+
+    private static String normalize(String email) {
+        // The users table compares emails case-insensitively, so the filter must as well
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,103 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.TokenRevocationRepository;
+import com.bytebites.authservice.enums.RevocationKind;
+import com.bytebites.authservice.event.TokenRevokedEvent;
+import com.bytebites.authservice.model.TokenRevocation;
+import com.bytebites.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Revokes tokens before their {@code exp}. Revocations are stored until the tokens they cover
+ * have expired and broadcast to the gateways, which enforce them; see {@code RevocationList}
+ * in api-gateway.
+ */
+@Service
+public class RevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationService.class);
+
+    private final TokenRevocationRepository revocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final Duration maxTokenLifetime;
+
+    public RevocationService(TokenRevocationRepository revocationRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             JwtUtil jwtUtil,
+                             RefreshTokenService refreshTokenService,
+                             @Value("${app.jwt.expiration}") long accessTokenExpirationMillis,
+                             @Value("${app.jwt.refresh-expiration}") long refreshTokenExpirationMillis) {
+        this.revocationRepository = revocationRepository;
+        this.eventPublisher = eventPublisher;
+        this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.maxTokenLifetime = Duration.ofMillis(Math.max(accessTokenExpirationMillis, refreshTokenExpirationMillis));
+    }
+
+    /**
+     * Revokes the presented token and the refresh tokens of its login session or, with
+     * {@code allSessions}, every token of its user issued up to the end of the current second
+     * and every refresh token family of the user.
+     *
+     * @throws BadCredentialsException if the token is not valid to begin with
+     */
+    @Transactional
+    public void logout(String token, boolean allSessions) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseValidClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        if (claims.getId() != null) {
+            revoke(new TokenRevocation(RevocationKind.TOKEN, claims.getId(), null, claims.getExpiration().toInstant()));
+        }
+        if (allSessions) {
+            // iat has second precision: a token issued earlier in this second has iat equal to the truncated
+            // time, so the cut-off is the next second. Tokens issued in the rest of this second go too.
+            Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+            revoke(new TokenRevocation(RevocationKind.USER, claims.getSubject(), revokedBefore,
+                    revokedBefore.plus(maxTokenLifetime)));
+            refreshTokenService.revokeAll(claims.getSubject());
+        } else if (claims.get(JwtUtil.SESSION_ID_CLAIM) != null) {
+            refreshTokenService.revoke(UUID.fromString(claims.get(JwtUtil.SESSION_ID_CLAIM, String.class)));
+        }
+    }
+
+    /** Revocations that still cover unexpired tokens, for gateways warming up. */
+    @Transactional(readOnly = true)
+    public List<TokenRevocation> activeRevocations() {
+        return revocationRepository.findByExpiresAtAfter(Instant.now());
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sweep-interval-ms:600000}")
+    public void sweepExpired() {
+        int deleted = revocationRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired token revocations", deleted);
+        }
+    }
+
+    private void revoke(TokenRevocation revocation) {
+        revocationRepository.save(revocation);
+        eventPublisher.publishEvent(new TokenRevokedEvent(revocation));
+    }
+}
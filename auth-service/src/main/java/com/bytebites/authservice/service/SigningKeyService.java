@@ -0,0 +1,142 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.SigningKeyRepository;
+import com.bytebites.authservice.model.SigningKey;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.security.SigningKeyCipher;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Creates, rotates and loads the JWT signing keys kept in {@code jwt_signing_keys}.
+ * <p>
+ * A rotated key is published in the JWKS at once but only signs after {@code activation-delay},
+ * which must exceed the gateways' JWKS refresh interval so that no gateway sees a token before
+ * its key. The key it replaces stops signing at that moment and stays published until every
+ * token it signed has expired. Other auth-service instances pick up a rotation on their next
+ * {@link #reload()}.
+ * <p>
+ * Private keys are stored encrypted by {@link SigningKeyCipher} and only decrypted into the
+ * {@link JwtKeyRing}.
+ */
+@Service
+public class SigningKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyService.class);
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final JwtKeyRing keyRing;
+    private final SigningKeyCipher cipher;
+    private final Duration activationDelay;
+    private final Duration retention;
+
+    public SigningKeyService(SigningKeyRepository signingKeyRepository,
+                             JwtKeyRing keyRing,
+                             SigningKeyCipher cipher,
+                             @Value("${app.jwt.keys.activation-delay:PT5M}") Duration activationDelay,
+                             @Value("${app.jwt.expiration}") long accessTokenExpirationMillis,
+                             @Value("${app.jwt.refresh-expiration}") long refreshTokenExpirationMillis) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.keyRing = keyRing;
+        this.cipher = cipher;
+        this.activationDelay = activationDelay;
+        this.retention = Duration.ofMillis(Math.max(accessTokenExpirationMillis, refreshTokenExpirationMillis));
+    }
+
+    @PostConstruct
+    public void init() {
+        encryptPlaintextKeys();
+        if (signingKeyRepository.findFirstByRetiredAtIsNullOrderByActivatesAtDesc().isEmpty()) {
+            Instant now = Instant.now();
+            SigningKey key = signingKeyRepository.save(seal(generate(now, now)));
+            logger.info("Created initial JWT signing key {}", key.getKid());
+        }
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.keys.refresh-interval-ms:30000}")
+    public void reload() {
+        keyRing.install(signingKeyRepository.findUsable(Instant.now().minus(retention)).stream()
+                .map(this::unseal)
+                .toList());
+    }
+
+    /**
+     * Adds a key that signs from {@code now + activation-delay} and retires the current one then.
+     * Keys whose tokens have all expired are deleted.
+     */
+    @Transactional
+    public SigningKey rotate() {
+        Instant now = Instant.now();
+        SigningKey next = seal(generate(now, now.plus(activationDelay)));
+        signingKeyRepository.findFirstByRetiredAtIsNullOrderByActivatesAtDesc()
+                .ifPresent(current -> current.setRetiredAt(next.getActivatesAt()));
+        signingKeyRepository.save(next);
+        int deleted = signingKeyRepository.deleteRetiredBefore(now.minus(retention));
+        reload();
+        logger.info("Rotated JWT signing key to {}, active from {}; deleted {} expired keys",
+                next.getKid(), next.getActivatesAt(), deleted);
+        return next;
+    }
+
+    /**
+     * Encrypts the keys written before private keys were encrypted at rest. Their plaintext may
+     * still be in backups, so they should be rotated out afterwards.
+     */
+    private void encryptPlaintextKeys() {
+        List<SigningKey> plaintext = signingKeyRepository.findAll().stream()
+                .filter(key -> !SigningKeyCipher.isEncrypted(key.getPrivateKey()))
+                .toList();
+        if (plaintext.isEmpty()) {
+            return;
+        }
+        plaintext.forEach(key -> key.setPrivateKey(cipher.encrypt(key.getKid(), key.getPrivateKey())));
+        signingKeyRepository.saveAll(plaintext);
+        logger.warn("Encrypted {} JWT signing keys stored in plaintext; rotate them with POST /admin/keys/rotate",
+                plaintext.size());
+    }
+
+    /** The key as stored: a copy with its private key encrypted. */
+    private SigningKey seal(SigningKey key) {
+        return withPrivateKey(key, cipher.encrypt(key.getKid(), key.getPrivateKey()));
+    }
+
+    /** A detached copy with the private key decrypted; the stored entity is never modified. */
+    private SigningKey unseal(SigningKey stored) {
+        return withPrivateKey(stored, cipher.decrypt(stored.getKid(), stored.getPrivateKey()));
+    }
+
+    private static SigningKey withPrivateKey(SigningKey key, byte[] privateKey) {
+        SigningKey copy = new SigningKey(key.getKid(), privateKey, key.getPublicKey(),
+                key.getCreatedAt(), key.getActivatesAt());
+        copy.setRetiredAt(key.getRetiredAt());
+        return copy;
+    }
+
+    /** A new P-256 key pair with its private key in the clear, not yet saved. */
+    public static SigningKey generate(Instant createdAt, Instant activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+            byte[] publicKey = keyPair.getPublic().getEncoded();
+            return new SigningKey(JwtKeyRing.keyId(publicKey), keyPair.getPrivate().getEncoded(), publicKey,
+                    createdAt, activatesAt);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate a P-256 key pair", e);
+        }
+    }
+}
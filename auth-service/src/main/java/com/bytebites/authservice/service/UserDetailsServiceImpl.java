@@ -2,19 +2,24 @@ package com.bytebites.authservice.service;
 
 import com.bytebites.authservice.Repository.UserRepository;
 import com.bytebites.authservice.security.CustomUserDetails;
+import com.bytebites.authservice.security.UserDetailsCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
@@ -24,4 +29,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return new CustomUserDetails(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Called by Spring Security after a successful login when the stored hash has a lower BCrypt
+     * cost than the current encoder, with the password re-hashed at the current cost.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.evict(user.getUsername());
+        var updated = ((CustomUserDetails) user).getUser();
+        updated.setPassword(newPassword);
+        return new CustomUserDetails(updated);
+    }
+}
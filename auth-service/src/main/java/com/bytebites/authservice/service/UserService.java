@@ -1,6 +1,7 @@
 package com.bytebites.authservice.service;
 import com.bytebites.authservice.Repository.UserRepository;
 import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.UserDetailsCache;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -10,8 +11,19 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final RegisteredEmails registeredEmails;
 
     public User createUser(User user){
-        return userRepository.save(user);
+        // save() also updates existing users, possibly renaming them, so drop the previous name too
+        if (user.getUuid() != null) {
+            userRepository.findById(user.getUuid())
+                    .map(User::getUsername)
+                    .ifPresent(userDetailsCache::evict);
+        }
+        User saved = userRepository.save(user);
+        userDetailsCache.evict(saved.getUsername());
+        registeredEmails.add(saved.getEmail());
+        return saved;
     }
-}
\ No newline at end of file
+}
@@ -2,70 +2,99 @@ package com.bytebites.authservice.util;
 
 
 import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.JwtKeyRing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies ES256 tokens with the keys of {@link JwtKeyRing}. Tokens carry the
+ * {@code kid} of their signing key, which is how the gateway finds the key in the JWKS.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${app.jwt.secret}")
-    private String secret;
-
     @Value("${app.jwt.expiration}")
     private Long expiration;
 
-    @Value("${app.jwt.refresh-expiration}")
-    private Long refreshTokenExpiration;
-
-    private Key secretKey;
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;
 
-    @PostConstruct
-    public void init() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        // JwtParser is immutable and thread-safe, so one instance serves every request;
+        // the key ring resolves the verification key from the token's kid
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
     }
 
+    /** Name of the claim holding the refresh token family an access token was issued with. */
+    public static final String SESSION_ID_CLAIM = "sid";
+
     /**
      * Generates an access token containing user details as claims.
      * This is the method that required the critical change.
      */
     public String generateToken(User user) {
+        return generateToken(user, null);
+    }
+
+    /**
+     * Generates an access token of the login session {@code sessionId}, so that logging out with
+     * it can end the session's refresh tokens too.
+     */
+    public String generateToken(User user, UUID sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getUuid());
         claims.put("username", user.getUsername());
         claims.put("roles", user.getRoles().stream().map(Enum::name).toList());
         claims.put("email", user.getEmail());
+        if (sessionId != null) {
+            claims.put(SESSION_ID_CLAIM, sessionId.toString());
+        }
 
         return buildToken(claims, user.getUsername(), expiration);
     }
 
-    public String generateRefreshToken(String username) {
-        return buildToken(Collections.emptyMap(), username, refreshTokenExpiration);
-    }
-
     private String buildToken(Map<String, Object> claims, String subject, Long expiryInMillis) {
+        JwtKeyRing.ActiveKey key = keyRing.signingKey();
         return Jwts.builder()
+                .setHeaderParam("kid", key.kid())
                 .setClaims(claims)
                 .setSubject(subject)
+                // jti, so that a single token can be revoked
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiryInMillis))
-                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .signWith(key.privateKey(), JwtKeyRing.ALGORITHM)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token and returns its claims, parsing it exactly once.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseValidClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Checks already verified claims against the user; expiry was enforced by {@link #parseValidClaims}.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject());
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
@@ -80,10 +109,6 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
\ No newline at end of file
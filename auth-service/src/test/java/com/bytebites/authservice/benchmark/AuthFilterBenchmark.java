@@ -0,0 +1,88 @@
+package com.bytebites.authservice.benchmark;
+
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.CustomUserDetails;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.security.UserDetailsCache;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-request cost of authenticating a bearer token in {@code AuthFilter}.
+ * {@code previousFlow} reproduces the old sequence (three parses plus a user lookup),
+ * {@code cachedFlow} the current one (one parse, user from {@link UserDetailsCache}).
+ * The user lookup is simulated with {@code dbRoundTripMicros} of parking, since a real
+ * query would make the benchmark depend on a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    @Param({"0", "500"})
+    private long dbRoundTripMicros;
+
+    private JwtUtil jwtUtil;
+    private UserDetailsCache userDetailsCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+
+        userDetailsCache = new UserDetailsCache(10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null, List.of(UserRole.CUSTOMER));
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean previousFlow() {
+        String username = jwtUtil.extractUsername(token);
+        UserDetails userDetails = loadUser(username);
+        return jwtUtil.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean cachedFlow() {
+        Claims claims = jwtUtil.parseValidClaims(token);
+        UserDetails userDetails = userDetailsCache.get(claims.getSubject(), this::loadUser);
+        return jwtUtil.isTokenValid(claims, userDetails);
+    }
+
+    private UserDetails loadUser(String username) {
+        if (dbRoundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbRoundTripMicros));
+        }
+        return new CustomUserDetails(user);
+    }
+}
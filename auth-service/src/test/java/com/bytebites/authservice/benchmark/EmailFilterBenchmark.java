@@ -0,0 +1,63 @@
+package com.bytebites.authservice.benchmark;
+
+import com.bytebites.commons.BloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory side of the {@code RegisteredEmails} startup budget: {@code load} fills a filter with
+ * {@code users} emails the way a rebuild does, sized for twice as many. Streaming the rows from
+ * MySQL comes on top. {@code check} is the cost a sign-up pays instead of the lookup by email.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class EmailFilterBenchmark {
+
+    @Param({"10000000"})
+    private int users;
+
+    private BloomFilter loaded;
+
+    @Setup
+    public void setUp() {
+        loaded = fill();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public BloomFilter load() {
+        return fill();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public boolean check() {
+        return loaded.mightContain("user" + ThreadLocalRandom.current().nextInt(2 * users) + "@example.com");
+    }
+
+    private BloomFilter fill() {
+        BloomFilter filter = new BloomFilter(2L * users, 0.01);
+        for (int i = 0; i < users; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        return filter;
+    }
+}
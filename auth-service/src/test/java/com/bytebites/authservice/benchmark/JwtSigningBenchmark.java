@@ -0,0 +1,100 @@
+package com.bytebites.authservice.benchmark;
+
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of an access token, per algorithm:
+ * <ul>
+ *     <li>{@code HS256} - the previous shared-secret path, reproduced with the same claims</li>
+ *     <li>{@code ES256} - {@link JwtUtil} with a {@link JwtKeyRing} key, including the {@code kid} lookup</li>
+ * </ul>
+ * Verification is what the gateway pays on a {@code VerifiedTokenCache} miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    private User user;
+    private JwtUtil jwtUtil;
+    private Key hmacKey;
+    private JwtParser hmacParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null, List.of(UserRole.CUSTOMER));
+
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+
+        hmacKey = Keys.hmacShaKeyFor(new byte[64]);
+        hmacParser = Jwts.parserBuilder().setSigningKey(hmacKey).build();
+
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        if (algorithm.equals("ES256")) {
+            return jwtUtil.generateToken(user);
+        }
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getUuid());
+        claims.put("username", user.getUsername());
+        claims.put("roles", user.getRoles().stream().map(Enum::name).toList());
+        claims.put("email", user.getEmail());
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(user.getUsername())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000L))
+                .signWith(hmacKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return algorithm.equals("ES256")
+                ? jwtUtil.parseValidClaims(token)
+                : hmacParser.parseClaimsJws(token).getBody();
+    }
+}
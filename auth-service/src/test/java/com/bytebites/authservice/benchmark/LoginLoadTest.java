@@ -0,0 +1,166 @@
+package com.bytebites.authservice.benchmark;
+
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.exceptions.PasswordHashingBusyException;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.BoundedPasswordEncoder;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Closed-loop load test of password checks mixed with token-only requests, once with BCrypt on the
+ * request threads and once through {@link BoundedPasswordEncoder}. A fixed pool of
+ * {@code load.request-threads} platform threads stands in for Tomcat. {@code loginClients} virtual
+ * threads each submit a BCrypt check and wait for it; a client refused with 503 waits
+ * {@code load.retry-after} before trying again. {@code tokenClients} submit a JWT verification,
+ * which is what token-only endpoints cost, and their latency shows whether logins starve them.
+ * <p>
+ * Reports logins per second per core. This is not a JMH benchmark; run its {@code main} with the
+ * test classpath:
+ * <pre>
+ * java -Dload.bcrypt-strength=10 -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.bytebites.authservice.benchmark.LoginLoadTest 1000 50
+ * </pre>
+ */
+public final class LoginLoadTest {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private LoginLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int loginClients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int tokenClients = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int strength = Integer.getInteger("load.bcrypt-strength", 10);
+        int requestThreads = Integer.getInteger("load.request-threads", 200);
+        int cores = Runtime.getRuntime().availableProcessors();
+        int hashingThreads = Integer.getInteger("load.hashing-threads", cores);
+        int queueCapacity = Integer.getInteger("load.queue-capacity", 64);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT15S"));
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        String hash = bcrypt.encode(PASSWORD);
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        JwtUtil jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        String token = jwtUtil.generateToken(new User(UUID.randomUUID(), "alice", hash, "alice@example.com", null,
+                List.of(UserRole.CUSTOMER)));
+
+        List<String> rows = new ArrayList<>();
+        for (boolean bounded : new boolean[]{false, true}) {
+            PasswordEncoder encoder = bounded
+                    ? new BoundedPasswordEncoder(bcrypt, hashingThreads, queueCapacity, new SimpleMeterRegistry())
+                    : bcrypt;
+            ExecutorService tomcat = Executors.newFixedThreadPool(requestThreads);
+            try {
+                Result result = run(tomcat, loginClients, tokenClients, warmup, duration,
+                        () -> encoder.matches(PASSWORD, hash),
+                        () -> jwtUtil.parseValidClaims(token));
+                double seconds = duration.toNanos() / 1e9;
+                rows.add(String.format("%-8s %10.1f %10.1f %9.1f %10.1f %9.2f %9.2f",
+                        bounded ? "bounded" : "inline",
+                        result.logins() / seconds, result.logins() / seconds / cores,
+                        result.loginLatency().getValueAtPercentile(99) / 1e3,
+                        result.rejected() / seconds,
+                        result.tokenLatency().getValueAtPercentile(50) / 1e3,
+                        result.tokenLatency().getValueAtPercentile(99) / 1e3));
+            } finally {
+                tomcat.shutdownNow();
+                if (encoder instanceof BoundedPasswordEncoder closeable) {
+                    closeable.close();
+                }
+            }
+        }
+
+        System.out.printf("%nBCrypt cost %d, %d cores, %d request threads, %d login and %d token clients%n",
+                strength, cores, requestThreads, loginClients, tokenClients);
+        System.out.printf("%-8s %10s %10s %9s %10s %9s %9s%n",
+                "hashing", "logins/s", "per core", "p99 ms", "503/s", "token p50", "token p99");
+        rows.forEach(System.out::println);
+    }
+
+    private static Result run(ExecutorService tomcat, int loginClients, int tokenClients, Duration warmup,
+                              Duration duration, Callable<Boolean> login, Callable<?> tokenRequest) throws Exception {
+        Histogram loginLatency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        Histogram tokenLatency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        AtomicLong logins = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        long retryAfterNanos = Duration.parse(System.getProperty("load.retry-after", "PT0.1S")).toNanos();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>(loginClients + tokenClients);
+        for (int i = 0; i < loginClients + tokenClients; i++) {
+            boolean loginClient = i < loginClients;
+            Callable<?> request = loginClient ? login : tokenRequest;
+            threads.add(Thread.ofVirtual().start(() -> {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(warmup.toNanos() / 2 + 1));
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    boolean busy = false;
+                    try {
+                        tomcat.submit(request).get();
+                    } catch (ExecutionException e) {
+                        busy = e.getCause() instanceof PasswordHashingBusyException;
+                    } catch (Exception e) {
+                        return;
+                    }
+                    long end = System.nanoTime();
+                    boolean measured = start >= measureFrom && end <= measureUntil;
+                    if (!loginClient) {
+                        if (measured) {
+                            tokenLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(end - start));
+                        }
+                    } else if (busy) {
+                        if (measured) {
+                            rejected.incrementAndGet();
+                        }
+                        LockSupport.parkNanos(retryAfterNanos);
+                    } else if (measured) {
+                        logins.incrementAndGet();
+                        loginLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(end - start));
+                    }
+                }
+            }));
+        }
+
+        LockSupport.parkNanos(measureUntil - System.nanoTime());
+        running.set(false);
+        // Queued requests are dropped; cancel them so that their clients stop waiting
+        tomcat.shutdownNow().forEach(request -> ((Future<?>) request).cancel(true));
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        return new Result(logins.get(), rejected.get(), loginLatency, tokenLatency);
+    }
+
+    private record Result(long logins, long rejected, Histogram loginLatency, Histogram tokenLatency) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.bytebites.authservice.benchmark;
+
+import com.bytebites.authservice.Repository.RefreshTokenFamilyRepository;
+import com.bytebites.authservice.Repository.RefreshTokenRepository;
+import com.bytebites.authservice.dto.AuthResponse;
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.CustomUserDetails;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.security.UserDetailsCache;
+import com.bytebites.authservice.service.RefreshTokenService;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.service.UserDetailsServiceImpl;
+import com.bytebites.authservice.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Cost of renewing a session. {@code relogin} is what clients had to do before refresh tokens
+ * could be redeemed: a BCrypt check of the password plus new tokens. {@code refresh} redeems a
+ * refresh token through {@link RefreshTokenService}; its UPDATE and INSERT are simulated with
+ * {@code dbRoundTripMicros} of parking each, as in {@link AuthFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenBenchmark {
+
+    @Param({"0", "500"})
+    private long dbRoundTripMicros;
+
+    private JwtUtil jwtUtil;
+    private BCryptPasswordEncoder passwordEncoder;
+    private RefreshTokenService refreshTokenService;
+    private User user;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+
+        passwordEncoder = new BCryptPasswordEncoder();
+        user = new User(UUID.randomUUID(), "alice", passwordEncoder.encode("secret"), "alice@example.com", null,
+                List.of(UserRole.CUSTOMER));
+
+        RefreshTokenRepository tokenRepository = Mockito.mock(RefreshTokenRepository.class);
+        Mockito.when(tokenRepository.markRotated(anyString(), any())).thenAnswer(invocation -> {
+            roundTrip();
+            return 1;
+        });
+        Mockito.when(tokenRepository.save(any())).thenAnswer(invocation -> {
+            roundTrip();
+            return invocation.getArgument(0);
+        });
+        UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
+        Mockito.when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        refreshTokenService = new RefreshTokenService(tokenRepository, Mockito.mock(RefreshTokenFamilyRepository.class),
+                userDetailsService, new UserDetailsCache(10_000, Duration.ofMinutes(5), meterRegistry), jwtUtil,
+                7_200_000L, 100_000, Duration.ofHours(1), meterRegistry);
+        refreshToken = refreshTokenService.issue(user).refreshToken();
+    }
+
+    @Benchmark
+    public String relogin() {
+        if (!passwordEncoder.matches("secret", user.getPassword())) {
+            throw new IllegalStateException("password mismatch");
+        }
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String refresh() {
+        // Each token can be redeemed once, so every invocation continues the chain
+        AuthResponse response = refreshTokenService.refresh(refreshToken);
+        refreshToken = response.refreshToken();
+        return response.accessToken();
+    }
+
+    private void roundTrip() {
+        if (dbRoundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbRoundTripMicros));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.bytebites.authservice.controller;
+
+import com.bytebites.authservice.Repository.UserRepository;
+import com.bytebites.authservice.exceptions.GlobalException;
+import com.bytebites.authservice.exceptions.PasswordHashingBusyException;
+import com.bytebites.authservice.security.BoundedPasswordEncoder;
+import com.bytebites.authservice.security.RefreshTokenCookie;
+import com.bytebites.authservice.service.AuthService;
+import com.bytebites.authservice.service.RefreshTokenService;
+import com.bytebites.authservice.service.RegisteredEmails;
+import com.bytebites.authservice.service.RevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    private static final String LOGIN = "{\"username\":\"nobody\",\"password\":\"secret\"}";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private RegisteredEmails registeredEmails;
+    @Mock
+    private RevocationService revocationService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseHashes() {
+        release.countDown();
+    }
+
+    @Test
+    void login_shouldAnswer503ForAnUnknownUserWhileTheHashingQueueIsFull() throws Exception {
+        UserDetailsService userDetailsService = username -> {
+            throw new UsernameNotFoundException("User not found");
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder(), 1, 1, meterRegistry);
+        // One hash running, one queued
+        Thread.ofVirtual().start(() -> encoder.encode("running"));
+        Thread.ofVirtual().start(() -> encoder.encode("queued"));
+        awaitQueueDepth(1);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+
+        mockMvc(new ProviderManager(provider)).perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOGIN))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void login_shouldUnwrapAFullHashingQueueFromAnInternalAuthenticationFailure() throws Exception {
+        AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+        when(authenticationManager.authenticate(any())).thenThrow(
+                new InternalAuthenticationServiceException("busy", new PasswordHashingBusyException()));
+
+        mockMvc(authenticationManager).perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(LOGIN))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    private MockMvc mockMvc(AuthenticationManager authenticationManager) {
+        AuthService authService = new AuthService(authenticationManager, userRepository, mock(PasswordEncoder.class),
+                refreshTokenService, registeredEmails);
+        AuthController controller = new AuthController(authService, revocationService, refreshTokenService,
+                new RefreshTokenCookie(60_000L));
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalException())
+                .build();
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return false;
+            }
+        };
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "auth.password-hashing").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "hash was not queued");
+            Thread.sleep(5);
+        }
+    }
+}
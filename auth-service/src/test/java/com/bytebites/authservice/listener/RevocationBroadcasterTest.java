@@ -0,0 +1,151 @@
+package com.bytebites.authservice.listener;
+
+import com.bytebites.authservice.Repository.TokenRevocationRepository;
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.TokenRevocation;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.service.RefreshTokenService;
+import com.bytebites.authservice.service.RevocationService;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig(RevocationBroadcasterTest.Config.class)
+@TestPropertySource(properties = "app.jwt.expiration=60000")
+class RevocationBroadcasterTest {
+
+    private static final String TOPIC = "auth.token-revocations";
+
+    @Autowired
+    private RevocationService revocationService;
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final User user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null,
+            List.of(UserRole.CUSTOMER));
+
+    @BeforeEach
+    void setUp() {
+        reset(revocationRepository, kafkaTemplate);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void logout_shouldBroadcastOnlyOnceTheRevocationIsCommitted() {
+        String token = jwtUtil.generateToken(user);
+        String jti = jwtUtil.parseValidClaims(token).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            revocationService.logout(token, false);
+            verify(revocationRepository).save(any(TokenRevocation.class));
+            verifyNoInteractions(kafkaTemplate);
+        });
+
+        verify(kafkaTemplate).send(eq(TOPIC), eq(jti), startsWith("TOKEN|0|"));
+    }
+
+    @Test
+    void logout_shouldNotBroadcastRevocationsThatWereRolledBack() {
+        when(revocationRepository.save(any(TokenRevocation.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> revocationService.logout(jwtUtil.generateToken(user), true));
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            // Enough for transaction synchronization, which is all the broadcaster depends on
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return TransactionSynchronizationManager.isActualTransactionActive();
+                }
+
+                @Override
+                protected boolean isExistingTransaction(Object transaction) {
+                    // So that the service joins the test's transaction instead of committing on its own
+                    return (Boolean) transaction;
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+
+        @Bean
+        TokenRevocationRepository revocationRepository() {
+            return mock(TokenRevocationRepository.class);
+        }
+
+        @Bean
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, String> revocationKafkaTemplate() {
+            return mock(KafkaTemplate.class);
+        }
+
+        @Bean
+        JwtUtil jwtUtil() {
+            JwtKeyRing keyRing = new JwtKeyRing();
+            keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+            return new JwtUtil(keyRing);
+        }
+
+        @Bean
+        RevocationService revocationService(TokenRevocationRepository revocationRepository,
+                                            ApplicationEventPublisher eventPublisher, JwtUtil jwtUtil) {
+            return new RevocationService(revocationRepository, eventPublisher, jwtUtil,
+                    mock(RefreshTokenService.class), 60_000L, 120_000L);
+        }
+
+        @Bean
+        RevocationBroadcaster revocationBroadcaster(KafkaTemplate<String, String> revocationKafkaTemplate) {
+            return new RevocationBroadcaster(revocationKafkaTemplate, TOPIC);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bytebites.authservice.security;
+
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.service.UserDetailsServiceImpl;
+import com.bytebites.authservice.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthFilterTest {
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    private JwtUtil jwtUtil;
+    private UserDetailsCache userDetailsCache;
+    private AuthFilter authFilter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+
+        userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        authFilter = new AuthFilter(jwtUtil, userDetailsService, userDetailsCache);
+
+        user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null, List.of(UserRole.CUSTOMER));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldLoadUserOnceForRepeatedRequests() throws Exception {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+        String token = jwtUtil.generateToken(user);
+
+        Authentication first = filter(token);
+        Authentication second = filter(token);
+
+        assertEquals("alice", first.getName());
+        assertEquals("alice", second.getName());
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void doFilter_shouldReloadUserAfterEviction() throws Exception {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+        String token = jwtUtil.generateToken(user);
+
+        filter(token);
+        userDetailsCache.evict("alice");
+        filter(token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void doFilter_shouldLeaveRequestUnauthenticatedForInvalidToken() throws Exception {
+        assertNull(filter("not-a-jwt"));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setServletPath("/api/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        authFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest(), "filter chain must always continue");
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
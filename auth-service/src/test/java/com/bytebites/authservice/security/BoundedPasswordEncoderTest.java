@@ -0,0 +1,98 @@
+package com.bytebites.authservice.security;
+
+import com.bytebites.authservice.exceptions.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One thread, one queue slot: a third concurrent hash must be refused
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void matches_shouldFailFastOnceThreadAndQueueAreTaken() throws Exception {
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("pw", "pw"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("pw", "pw"));
+        waitForQueueDepth(1);
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("pw", "pw"));
+        assertEquals(1.0, meterRegistry.counter("auth.password.rejected").count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.timer("auth.password.hash", "operation", "matches").count());
+        assertEquals(2, meterRegistry.timer("auth.password.queue-wait").count());
+    }
+
+    @Test
+    void upgradeEncoding_shouldReportHashesBelowTheConfiguredCost() {
+        try (BoundedPasswordEncoder bcrypt = new BoundedPasswordEncoder(new BCryptPasswordEncoder(11), 1, 1, meterRegistry)) {
+            String weak = new BCryptPasswordEncoder(10).encode("secret");
+
+            assertTrue(bcrypt.matches("secret", weak));
+            assertTrue(bcrypt.upgradeEncoding(weak));
+            assertFalse(bcrypt.upgradeEncoding(bcrypt.encode("secret")));
+        }
+    }
+
+    @Test
+    void calibrate_shouldStayWithinTheConfiguredCosts() {
+        assertEquals(10, BCryptStrength.calibrate(Duration.ZERO, 10, 12));
+        assertEquals(5, BCryptStrength.calibrate(Duration.ofHours(1), 4, 5));
+        assertThrows(IllegalArgumentException.class, () -> BCryptStrength.calibrate(Duration.ZERO, 12, 10));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.queued").tag("name", "auth.password-hashing").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "hash was not queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
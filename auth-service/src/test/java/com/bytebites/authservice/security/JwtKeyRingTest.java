@@ -0,0 +1,97 @@
+package com.bytebites.authservice.security;
+
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.SigningKey;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.service.SigningKeyService;
+import com.bytebites.authservice.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private JwtKeyRing keyRing;
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new JwtKeyRing();
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null, List.of(UserRole.CUSTOMER));
+    }
+
+    @Test
+    void signingKey_shouldSwitchOnlyOnceTheNewKeyActivates() {
+        Instant now = Instant.now();
+        SigningKey current = SigningKeyService.generate(now, now.minusSeconds(60));
+        SigningKey pending = SigningKeyService.generate(now, now.plus(Duration.ofMinutes(5)));
+        keyRing.install(List.of(current, pending));
+
+        assertEquals(current.getKid(), keyRing.signingKey().kid());
+        assertEquals(2, ((List<?>) keyRing.jwks().get("keys")).size(), "pending keys are published ahead of use");
+
+        SigningKey activated = SigningKeyService.generate(now, now.minusSeconds(1));
+        keyRing.install(List.of(current, activated));
+
+        assertEquals(activated.getKid(), keyRing.signingKey().kid());
+    }
+
+    @Test
+    void parseValidClaims_shouldVerifyTokensOfRetiredKeysStillInstalled() {
+        Instant now = Instant.now();
+        SigningKey old = SigningKeyService.generate(now, now.minusSeconds(120));
+        keyRing.install(List.of(old));
+        String token = jwtUtil.generateToken(user);
+
+        SigningKey next = SigningKeyService.generate(now, now.minusSeconds(1));
+        old.setRetiredAt(next.getActivatesAt());
+        keyRing.install(List.of(old, next));
+        assertEquals("alice", jwtUtil.parseValidClaims(token).getSubject());
+
+        keyRing.install(List.of(next));
+        assertThrows(JwtException.class, () -> jwtUtil.parseValidClaims(token));
+    }
+
+    @Test
+    void parseValidClaims_shouldRejectHmacTokens() {
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        String kid = keyRing.signingKey().kid();
+        String forged = Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("alice")
+                .signWith(Keys.hmacShaKeyFor(new byte[32]), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseValidClaims(forged));
+    }
+
+    @Test
+    void jwks_shouldPublishFixedLengthP256Coordinates() {
+        SigningKey key = SigningKeyService.generate(Instant.now(), Instant.now());
+        keyRing.install(List.of(key));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) keyRing.jwks().get("keys")).get(0);
+        assertEquals("EC", jwk.get("kty"));
+        assertEquals("P-256", jwk.get("crv"));
+        assertEquals("ES256", jwk.get("alg"));
+        assertEquals(key.getKid(), jwk.get("kid"));
+        assertEquals(43, ((String) jwk.get("x")).length());
+        assertEquals(43, ((String) jwk.get("y")).length());
+    }
+}
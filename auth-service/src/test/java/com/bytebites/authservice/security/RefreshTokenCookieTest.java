@@ -0,0 +1,30 @@
+package com.bytebites.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseCookie;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenCookieTest {
+
+    private final RefreshTokenCookie refreshTokenCookie = new RefreshTokenCookie(Duration.ofDays(7).toMillis());
+
+    @Test
+    void of_shouldKeepTheTokenAwayFromScriptsAndOtherSites() {
+        ResponseCookie cookie = refreshTokenCookie.of("token");
+
+        assertEquals("token", cookie.getValue());
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.isSecure());
+        assertEquals("Strict", cookie.getSameSite());
+        assertEquals("/auth", cookie.getPath());
+        assertEquals(Duration.ofDays(7), cookie.getMaxAge());
+    }
+
+    @Test
+    void cleared_shouldExpireTheCookie() {
+        assertEquals(Duration.ZERO, refreshTokenCookie.cleared().getMaxAge());
+    }
+}
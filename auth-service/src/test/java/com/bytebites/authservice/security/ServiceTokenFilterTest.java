@@ -0,0 +1,55 @@
+package com.bytebites.authservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceTokenFilterTest {
+
+    private final ServiceTokenFilter filter = new ServiceTokenFilter("s3cret-service-token");
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldGrantTheServiceRoleForTheSharedToken() throws Exception {
+        Authentication authentication = filter("/internal/revocations", "s3cret-service-token");
+
+        assertNotNull(authentication);
+        assertEquals(List.of("ROLE_SERVICE"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void doFilter_shouldLeaveWrongOrMissingTokensUnauthenticated() throws Exception {
+        assertNull(filter("/internal/revocations", "s3cret-service-tokem"));
+        assertNull(filter("/internal/revocations", null));
+    }
+
+    @Test
+    void doFilter_shouldIgnoreTheTokenOutsideInternalPaths() throws Exception {
+        assertNull(filter("/admin/keys/rotate", "s3cret-service-token"));
+    }
+
+    private Authentication filter(String path, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (token != null) {
+            request.addHeader(ServiceTokenFilter.HEADER, token);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
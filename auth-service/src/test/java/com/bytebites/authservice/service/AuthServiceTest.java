@@ -0,0 +1,77 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.UserRepository;
+import com.bytebites.authservice.dto.RegisterRequest;
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private RegisteredEmails registeredEmails;
+
+    private AuthService authService;
+    private final RegisterRequest request = new RegisterRequest("alice", "secret", "alice@example.com", UserRole.CUSTOMER);
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(authenticationManager, userRepository, passwordEncoder,
+                refreshTokenService, registeredEmails);
+    }
+
+    @Test
+    void register_shouldReportATakenEmailWhenTheEmailConstraintRejectsTheInsert() {
+        when(userRepository.save(any())).thenThrow(violation("users.uk_users_email"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> authService.register(request));
+
+        assertEquals("Email already in use.", e.getMessage());
+        verify(registeredEmails, never()).add(any());
+    }
+
+    @Test
+    void register_shouldPassOtherIntegrityViolationsOn() {
+        DataIntegrityViolationException violation = violation("PRIMARY");
+        when(userRepository.save(any())).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> authService.register(request)));
+    }
+
+    @Test
+    void register_shouldRememberTheEmailOnceSaved() {
+        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0, User.class));
+
+        authService.register(request);
+
+        verify(registeredEmails).add("alice@example.com");
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException("Duplicate entry"), constraintName));
+    }
+}
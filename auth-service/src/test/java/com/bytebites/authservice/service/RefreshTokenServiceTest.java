@@ -0,0 +1,137 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.RefreshTokenFamilyRepository;
+import com.bytebites.authservice.Repository.RefreshTokenRepository;
+import com.bytebites.authservice.dto.AuthResponse;
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.model.RefreshTokenFamily;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.CustomUserDetails;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.security.UserDetailsCache;
+import com.bytebites.authservice.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository tokenRepository;
+    @Mock
+    private RefreshTokenFamilyRepository familyRepository;
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+
+        meterRegistry = new SimpleMeterRegistry();
+        UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5), meterRegistry);
+        refreshTokenService = new RefreshTokenService(tokenRepository, familyRepository, userDetailsService,
+                userDetailsCache, jwtUtil, 120_000L, 100, Duration.ofMinutes(5), meterRegistry);
+
+        user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null, List.of(UserRole.CUSTOMER));
+    }
+
+    @Test
+    void refresh_shouldRotateWithoutQueryingFamilyOrUserAgain() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+        when(tokenRepository.markRotated(anyString(), any())).thenReturn(1);
+        String first = refreshTokenService.issue(user).refreshToken();
+
+        AuthResponse second = refreshTokenService.refresh(first);
+        AuthResponse third = refreshTokenService.refresh(second.refreshToken());
+
+        assertNotEquals(first, second.refreshToken());
+        assertNotEquals(second.refreshToken(), third.refreshToken());
+        assertNotNull(third.accessToken());
+        verify(tokenRepository).markRotated(eq(RefreshTokenService.hash(first)), any());
+        verify(familyRepository, never()).findByTokenHash(anyString());
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void issue_shouldNameTheFamilyInTheAccessTokenSoLogoutCanRevokeIt() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+        when(tokenRepository.markRotated(anyString(), any())).thenReturn(1);
+        AuthResponse login = refreshTokenService.issue(user);
+        UUID familyId = sessionId(login);
+
+        assertEquals(familyId, sessionId(refreshTokenService.refresh(login.refreshToken())));
+
+        refreshTokenService.revoke(familyId);
+        verify(tokenRepository).rotateAllOfFamily(eq(familyId), any());
+        verify(familyRepository).revoke(eq(familyId), any());
+    }
+
+    @Test
+    void refresh_shouldRevokeFamilyWhenARotatedTokenIsReused() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+        String stolen = refreshTokenService.issue(user).refreshToken();
+        when(tokenRepository.markRotated(eq(RefreshTokenService.hash(stolen)), any())).thenReturn(1, 0);
+        // Once redeemed, the hash is no longer cached, so the replay is looked up in the store
+        RefreshTokenFamily family = new RefreshTokenFamily(sessionId(refreshTokenService.refresh(stolen)), "alice",
+                Instant.now(), Instant.now().plusSeconds(60));
+        when(familyRepository.findByTokenHash(RefreshTokenService.hash(stolen))).thenReturn(Optional.of(family));
+        when(familyRepository.revoke(eq(family.getId()), any())).thenReturn(1);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh(stolen));
+        verify(tokenRepository).rotateAllOfFamily(eq(family.getId()), any());
+        assertEquals(1.0, meterRegistry.counter("auth.refresh.reuse").count());
+    }
+
+    @Test
+    void refresh_shouldLoadUnknownHashesFromTheStore() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(user));
+        when(tokenRepository.markRotated(anyString(), any())).thenReturn(1);
+        RefreshTokenFamily family = new RefreshTokenFamily(UUID.randomUUID(), "alice",
+                Instant.now(), Instant.now().plusSeconds(60));
+        when(familyRepository.findByTokenHash(RefreshTokenService.hash("issued-elsewhere")))
+                .thenReturn(Optional.of(family));
+
+        AuthResponse response = refreshTokenService.refresh("issued-elsewhere");
+
+        assertNotNull(response.refreshToken());
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("never-issued"));
+    }
+
+    @Test
+    void refresh_shouldRejectTokensOfRevokedFamilies() {
+        RefreshTokenFamily family = new RefreshTokenFamily(UUID.randomUUID(), "alice",
+                Instant.now(), Instant.now().plusSeconds(60));
+        family.setRevokedAt(Instant.now());
+        when(familyRepository.findByTokenHash(anyString())).thenReturn(Optional.of(family));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("logged-out"));
+        verify(tokenRepository, never()).markRotated(anyString(), any());
+    }
+
+    private UUID sessionId(AuthResponse response) {
+        return UUID.fromString(jwtUtil.parseValidClaims(response.accessToken()).get(JwtUtil.SESSION_ID_CLAIM, String.class));
+    }
+}
@@ -0,0 +1,94 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEmailsTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RegisteredEmails registeredEmails;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registeredEmails = new RegisteredEmails(userRepository, transactionManager, 1_000, 0.01,
+                Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void exists_shouldQueryEveryEmailUntilLoaded() {
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+
+        assertFalse(registeredEmails.exists("new@example.com", userRepository::existsByEmail));
+        verify(userRepository).existsByEmail("new@example.com");
+    }
+
+    @Test
+    void exists_shouldSkipTheQueryForEmailsNotInTheTable() {
+        load("Alice@Example.com", "bob@example.com");
+        when(userRepository.existsByEmail("alice@example.com")).thenReturn(true);
+
+        assertTrue(registeredEmails.exists("alice@example.com", userRepository::existsByEmail));
+        assertFalse(registeredEmails.exists("carol@example.com", userRepository::existsByEmail));
+
+        verify(userRepository, never()).existsByEmail("carol@example.com");
+        assertEquals(1.0, meterRegistry.counter("auth.registered-emails.skipped").count());
+    }
+
+    @Test
+    void add_shouldMakeNewEmailsVisibleAgain() {
+        load("alice@example.com");
+        when(userRepository.existsByEmail("carol@example.com")).thenReturn(true);
+
+        registeredEmails.add("carol@example.com");
+
+        assertTrue(registeredEmails.exists("carol@example.com", userRepository::existsByEmail));
+    }
+
+    @Test
+    void find_shouldCountLookupsThatFoundNothingAsFalsePositives() {
+        load("alice@example.com");
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(registeredEmails.find("alice@example.com", userRepository::findByEmail).isEmpty());
+
+        assertEquals(1.0, meterRegistry.counter("auth.registered-emails.false-positives").count());
+        assertEquals(1.0, meterRegistry.get("auth.registered-emails.false-positive-rate").gauge().value());
+    }
+
+    @Test
+    void rebuild_shouldScanTheTableInAReadOnlyTransaction() {
+        load("alice@example.com");
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    private void load(String... emails) {
+        when(userRepository.count()).thenReturn((long) emails.length);
+        when(userRepository.streamEmails()).thenReturn(Stream.of(emails));
+        assertTrue(registeredEmails.rebuild());
+    }
+}
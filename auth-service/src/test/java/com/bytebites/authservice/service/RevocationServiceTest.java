@@ -0,0 +1,106 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.TokenRevocationRepository;
+import com.bytebites.authservice.enums.RevocationKind;
+import com.bytebites.authservice.enums.UserRole;
+import com.bytebites.authservice.event.TokenRevokedEvent;
+import com.bytebites.authservice.model.TokenRevocation;
+import com.bytebites.authservice.model.User;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationServiceTest {
+
+    @Mock
+    private TokenRevocationRepository revocationRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private JwtUtil jwtUtil;
+    private RevocationService revocationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        keyRing.install(List.of(SigningKeyService.generate(Instant.now(), Instant.now())));
+        jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+
+        revocationService = new RevocationService(revocationRepository, eventPublisher, jwtUtil,
+                refreshTokenService, 60_000L, 120_000L);
+        user = new User(UUID.randomUUID(), "alice", "hash", "alice@example.com", null, List.of(UserRole.CUSTOMER));
+    }
+
+    @Test
+    void logout_shouldRevokeThePresentedTokenUntilItExpires() {
+        String token = jwtUtil.generateToken(user);
+        Claims claims = jwtUtil.parseValidClaims(token);
+
+        revocationService.logout(token, false);
+
+        ArgumentCaptor<TokenRevocation> revocation = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(revocationRepository).save(revocation.capture());
+        assertEquals(RevocationKind.TOKEN, revocation.getValue().getKind());
+        assertEquals(claims.getId(), revocation.getValue().getValue());
+        assertEquals(claims.getExpiration().toInstant(), revocation.getValue().getExpiresAt());
+        verify(eventPublisher).publishEvent(new TokenRevokedEvent(revocation.getValue()));
+    }
+
+    @Test
+    void logout_shouldRevokeTokensIssuedInTheSameSecondForAllSessions() {
+        String token = jwtUtil.generateToken(user);
+        Instant issuedAt = jwtUtil.parseValidClaims(token).getIssuedAt().toInstant();
+
+        revocationService.logout(token, true);
+
+        ArgumentCaptor<TokenRevocation> revocations = ArgumentCaptor.forClass(TokenRevocation.class);
+        verify(revocationRepository, times(2)).save(revocations.capture());
+        TokenRevocation userRevocation = revocations.getAllValues().get(1);
+        assertEquals(RevocationKind.USER, userRevocation.getKind());
+        assertEquals("alice", userRevocation.getValue());
+        // The gateway revokes tokens with iat < revokedBefore, and iat is truncated to the second
+        assertTrue(issuedAt.isBefore(userRevocation.getRevokedBefore()));
+        assertEquals(0, userRevocation.getRevokedBefore().getNano());
+        assertEquals(userRevocation.getRevokedBefore().plusMillis(120_000), userRevocation.getExpiresAt());
+        verify(eventPublisher, times(2)).publishEvent(any(TokenRevokedEvent.class));
+        verify(refreshTokenService).revokeAll("alice");
+    }
+
+    @Test
+    void logout_shouldRejectInvalidTokens() {
+        assertThrows(BadCredentialsException.class, () -> revocationService.logout("not-a-token", true));
+        verifyNoInteractions(revocationRepository, eventPublisher, refreshTokenService);
+    }
+
+    @Test
+    void logout_shouldRevokeTheRefreshTokensOfTheSession() {
+        UUID sessionId = UUID.randomUUID();
+
+        revocationService.logout(jwtUtil.generateToken(user, sessionId), false);
+
+        verify(refreshTokenService).revoke(sessionId);
+        verify(refreshTokenService, never()).revokeAll(any());
+    }
+}
@@ -0,0 +1,111 @@
+package com.bytebites.authservice.service;
+
+import com.bytebites.authservice.Repository.SigningKeyRepository;
+import com.bytebites.authservice.model.SigningKey;
+import com.bytebites.authservice.security.JwtKeyRing;
+import com.bytebites.authservice.security.SigningKeyCipher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SigningKeyServiceTest {
+
+    private static final String ENCRYPTION_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private SigningKeyRepository signingKeyRepository;
+
+    private JwtKeyRing keyRing;
+    private SigningKeyCipher cipher;
+    private SigningKeyService signingKeyService;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new JwtKeyRing();
+        cipher = new SigningKeyCipher(ENCRYPTION_KEY);
+        signingKeyService = new SigningKeyService(signingKeyRepository, keyRing, cipher,
+                Duration.ofMinutes(5), 60_000L, 120_000L);
+    }
+
+    @Test
+    void init_shouldStoreOnlyTheEncryptedPrivateKey() throws Exception {
+        when(signingKeyRepository.findFirstByRetiredAtIsNullOrderByActivatesAtDesc()).thenReturn(Optional.empty());
+        when(signingKeyRepository.save(any(SigningKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        signingKeyService.init();
+
+        ArgumentCaptor<SigningKey> saved = ArgumentCaptor.forClass(SigningKey.class);
+        verify(signingKeyRepository).save(saved.capture());
+        SigningKey stored = saved.getValue();
+        assertTrue(SigningKeyCipher.isEncrypted(stored.getPrivateKey()));
+        assertThrows(Exception.class, () ->
+                KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(stored.getPrivateKey())));
+        assertNotNull(KeyFactory.getInstance("EC").generatePrivate(
+                new PKCS8EncodedKeySpec(cipher.decrypt(stored.getKid(), stored.getPrivateKey()))));
+    }
+
+    @Test
+    void reload_shouldInstallDecryptedCopiesAndLeaveTheStoredKeysEncrypted() {
+        Instant now = Instant.now();
+        SigningKey key = SigningKeyService.generate(now, now);
+        byte[] encrypted = cipher.encrypt(key.getKid(), key.getPrivateKey());
+        key.setPrivateKey(encrypted);
+        when(signingKeyRepository.findUsable(any(Instant.class))).thenReturn(List.of(key));
+
+        signingKeyService.reload();
+
+        assertEquals(key.getKid(), keyRing.signingKey().kid());
+        assertSame(encrypted, key.getPrivateKey());
+    }
+
+    @Test
+    void init_shouldEncryptKeysStoredInPlaintext() {
+        Instant now = Instant.now();
+        SigningKey legacy = SigningKeyService.generate(now, now);
+        byte[] plaintext = legacy.getPrivateKey().clone();
+        when(signingKeyRepository.findAll()).thenReturn(List.of(legacy));
+        when(signingKeyRepository.findFirstByRetiredAtIsNullOrderByActivatesAtDesc()).thenReturn(Optional.of(legacy));
+        when(signingKeyRepository.findUsable(any(Instant.class))).thenReturn(List.of(legacy));
+
+        signingKeyService.init();
+
+        verify(signingKeyRepository).saveAll(List.of(legacy));
+        assertTrue(SigningKeyCipher.isEncrypted(legacy.getPrivateKey()));
+        assertArrayEquals(plaintext, cipher.decrypt(legacy.getKid(), legacy.getPrivateKey()));
+        assertEquals(legacy.getKid(), keyRing.signingKey().kid());
+    }
+
+    @Test
+    void decrypt_shouldRejectAKeyStoredUnderAnotherKid() {
+        Instant now = Instant.now();
+        SigningKey key = SigningKeyService.generate(now, now);
+        byte[] encrypted = cipher.encrypt(key.getKid(), key.getPrivateKey());
+
+        assertThrows(IllegalStateException.class, () -> cipher.decrypt("another-kid", encrypted));
+        assertThrows(IllegalStateException.class, () ->
+                new SigningKeyCipher(Base64.getEncoder().encodeToString(filled((byte) 1))).decrypt(key.getKid(), encrypted));
+    }
+
+    private static byte[] filled(byte value) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
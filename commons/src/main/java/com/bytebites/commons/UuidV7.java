@@ -0,0 +1,40 @@
+package com.bytebites.commons;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (version 7, RFC 9562): a 48-bit Unix millisecond timestamp, then a 12-bit
+ * counter, then 62 random bits. Stored as {@code BINARY(16)}, new keys sort after existing ones,
+ * so inserts append to the right edge of the InnoDB clustered index instead of splitting pages
+ * all over it as random v4 keys do.
+ * <p>
+ * Ids from this JVM are strictly increasing: the counter orders ids within a millisecond and
+ * carries into the timestamp when it overflows or the clock steps back.
+ * <p>
+ * Use on entity ids with {@code @UuidGenerator(algorithm = UuidV7.class)}.
+ */
+public class UuidV7 implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Timestamp in the upper bits, counter in the lower 12, exactly as they appear in the UUID
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << 12;
+        long next = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSigBits = (next >>> 12) << 16 | 0x7000L | (next & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+}
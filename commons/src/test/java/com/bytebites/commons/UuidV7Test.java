@@ -0,0 +1,43 @@
+package com.bytebites.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void generate_shouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1, "timestamp " + timestamp);
+    }
+
+    @Test
+    void generate_shouldIncreaseInBinaryOrder() {
+        // Far more ids than fit in one millisecond's counter, so the counter overflow is exercised
+        byte[] previous = toBytes(UuidV7.generate());
+        for (int i = 0; i < 100_000; i++) {
+            byte[] next = toBytes(UuidV7.generate());
+            assertTrue(Arrays.compareUnsigned(previous, next) < 0);
+            previous = next;
+        }
+    }
+
+    /** The {@code BINARY(16)} form the ids are stored and indexed in. */
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -1,11 +1,14 @@
 package com.bytebites.emailservice;
 
+import com.bytebites.emailservice.configuration.MailDeliveryProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @EnableKafka
 @SpringBootApplication
+@EnableConfigurationProperties(MailDeliveryProperties.class)
 public class EmailServiceApplication {
 
     public static void main(String[] args) {
@@ -1,36 +1,75 @@
 package com.bytebites.emailservice.configuration;
 
-import com.bytebites.emailservice.event.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventDeserializer;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Batch consumer for {@code orders.placed}. Each poll of up to {@code max-poll-records} events is
+ * handed to the listener as one list and acknowledged manually once it has been processed.
+ * Set {@code concurrency} to the topic's partition count: each consumer thread owns at least one
+ * partition, and threads beyond the partition count stay idle.
+ */
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConsumerConfig {
 
+    private final MailDeliveryProperties mailDeliveryProperties;
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // Let the broker wait briefly for a fuller fetch instead of returning every few records
+    @Value("${app.kafka.consumer.fetch-min-bytes:16384}")
+    private int fetchMinBytes;
+
+    @Value("${app.kafka.consumer.fetch-max-wait:PT0.1S}")
+    private Duration fetchMaxWait;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
     public ConsumerFactory<String, OrderPlacedEvent> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
 
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "restaurant-group");
 
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
         props.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, StringDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, OrderPlacedEventDeserializer.class);
 
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.bytebites.emailservice.event.OrderPlacedEvent");
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        // A batch is only acknowledged once delivered, so the poll interval must outlast the delivery timeout
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) fetchMaxWait.toMillis());
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG,
+                (int) mailDeliveryProperties.getBatchTimeout().plusMinutes(1).toMillis());
 
         return new DefaultKafkaConsumerFactory<>(props);
     }
@@ -40,6 +79,21 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, OrderPlacedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        if (virtualThreads) {
+            // The listener only waits on MailDispatcher's platform threads, so it need not hold one itself
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-events-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+
+        // SMTP outages are retried with backoff before the failed records are logged and skipped
+        ExponentialBackOff backOff = new ExponentialBackOff(1_000, 2.0);
+        backOff.setMaxInterval(Duration.ofSeconds(30).toMillis());
+        backOff.setMaxElapsedTime(Duration.ofMinutes(10).toMillis());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
         return factory;
     }
 }
@@ -0,0 +1,38 @@
+package com.bytebites.emailservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the batched SMTP delivery pipeline, bound from {@code app.mail.delivery.*}.
+ * The SMTP server itself is still configured through {@code spring.mail.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.mail.delivery")
+public class MailDeliveryProperties {
+
+    /** Sender address; should match the configured SMTP username. */
+    private String from = "your-email@gmail.com";
+
+    /** Persistent SMTP connections, and worker threads sending over them. */
+    private int connections = 4;
+
+    /** Messages sent over one connection before it goes back to the pool. */
+    private int chunkSize = 50;
+
+    /** Connection attempts per chunk before its remaining messages are reported as failed. */
+    private int maxAttempts = 3;
+
+    /** How long the Kafka listener waits for a batch to be delivered. */
+    private Duration batchTimeout = Duration.ofMinutes(2);
+
+    /**
+     * Concurrent sends allowed per recipient domain, e.g. {@code gmail.com: 2}.
+     * Domains not listed may use every connection.
+     */
+    private Map<String, Integer> providerConcurrency = new HashMap<>();
+}
@@ -0,0 +1,19 @@
+package com.bytebites.emailservice.delivery;
+
+/**
+ * A batch could not be fully delivered. Every message before {@link #getFailedIndex()}
+ * was accepted by the SMTP server or permanently rejected; later ones may or may not have been sent.
+ */
+public class MailDeliveryException extends RuntimeException {
+
+    private final int failedIndex;
+
+    public MailDeliveryException(String message, int failedIndex, Throwable cause) {
+        super(message, cause);
+        this.failedIndex = failedIndex;
+    }
+
+    public int getFailedIndex() {
+        return failedIndex;
+    }
+}
@@ -0,0 +1,260 @@
+package com.bytebites.emailservice.delivery;
+
+import com.bytebites.emailservice.configuration.MailDeliveryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends batches of mail over a {@link SmtpConnectionPool} on a fixed set of worker threads.
+ * <p>
+ * A batch is grouped by recipient domain and cut into chunks; each chunk is sent over one pooled
+ * connection while holding a permit of its domain's concurrency limit. Chunks of different
+ * domains are interleaved so that a throttled provider does not hold up the others.
+ * <p>
+ * A recipient the server rejects is logged and skipped, as retrying cannot help. Any other
+ * failure discards the connection and resumes the chunk on a new one, up to
+ * {@code max-attempts} times.
+ * <p>
+ * The workers are platform threads even in virtual-thread mode: Jakarta Mail's SMTP transport
+ * sends while holding its monitor, which would pin a virtual thread for the whole exchange.
+ * <p>
+ * Metrics: {@code email.delivery.sent}, {@code email.delivery.rejected},
+ * {@code email.delivery.failed} and the {@code email.delivery.batch} timer.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private final MailDeliveryProperties properties;
+    private final SmtpConnectionPool pool;
+    private final ExecutorService workers;
+    private final Map<String, Semaphore> providerLimits = new ConcurrentHashMap<>();
+
+    private final Counter sent;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer batchTimer;
+
+    public MailDispatcher(JavaMailSenderImpl mailSender, MailDeliveryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pool = new SmtpConnectionPool(mailSender, properties.getConnections());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.getConnections(), runnable -> {
+            Thread thread = new Thread(runnable, "mail-delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = meterRegistry.counter("email.delivery.sent");
+        this.rejected = meterRegistry.counter("email.delivery.rejected");
+        this.failed = meterRegistry.counter("email.delivery.failed");
+        this.batchTimer = meterRegistry.timer("email.delivery.batch");
+    }
+
+    /**
+     * Sends all {@code mails}. The future completes once each message has been accepted or
+     * rejected by the server, or fails with a {@link MailDeliveryException} naming the
+     * lowest index that could not be delivered.
+     */
+    public CompletableFuture<Void> dispatch(List<OutgoingMail> mails) {
+        if (mails.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Timer.Sample sample = Timer.start();
+        List<Chunk> ordered = interleave(chunk(mails));
+        List<CompletableFuture<Void>> futures = new ArrayList<>(ordered.size());
+        for (Chunk chunk : ordered) {
+            futures.add(CompletableFuture.runAsync(() -> send(chunk), workers));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, ex) -> {
+                    sample.stop(batchTimer);
+                    if (ex == null) {
+                        return null;
+                    }
+                    // Report the lowest failed index: everything before it is known to be done
+                    MailDeliveryException first = null;
+                    for (int i = 0; i < futures.size(); i++) {
+                        MailDeliveryException failure = failureOf(ordered.get(i), futures.get(i));
+                        if (failure != null && (first == null || failure.getFailedIndex() < first.getFailedIndex())) {
+                            first = failure;
+                        }
+                    }
+                    throw first;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        pool.close();
+    }
+
+    private void send(Chunk chunk) {
+        Semaphore limit = providerLimits.computeIfAbsent(chunk.domain(), domain ->
+                new Semaphore(properties.getProviderConcurrency().getOrDefault(domain, properties.getConnections())));
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure(chunk, 0, e);
+        }
+        try {
+            int next = 0;
+            int attempts = 0;
+            while (next < chunk.mails().size()) {
+                Transport transport;
+                try {
+                    transport = pool.borrow();
+                } catch (MessagingException e) {
+                    if (++attempts >= properties.getMaxAttempts()) {
+                        throw failure(chunk, next, e);
+                    }
+                    log.warn("Could not connect to SMTP server (attempt {}): {}", attempts, e.getMessage());
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw failure(chunk, next, e);
+                }
+                boolean healthy = true;
+                try {
+                    // next only advances past messages the server has answered, so a retry resumes there
+                    for (; next < chunk.mails().size(); next++) {
+                        sendOne(transport, chunk.mails().get(next).mail());
+                    }
+                } catch (MessagingException e) {
+                    healthy = false;
+                    if (++attempts >= properties.getMaxAttempts()) {
+                        throw failure(chunk, next, e);
+                    }
+                    log.warn("SMTP send failed (attempt {}), reconnecting: {}", attempts, e.getMessage());
+                } finally {
+                    if (healthy) {
+                        pool.release(transport);
+                    } else {
+                        pool.invalidate(transport);
+                    }
+                }
+            }
+        } finally {
+            limit.release();
+        }
+    }
+
+    private void sendOne(Transport transport, OutgoingMail mail) throws MessagingException {
+        MimeMessage message;
+        try {
+            message = toMimeMessage(mail);
+        } catch (AddressException e) {
+            rejected.increment();
+            log.warn("Skipping mail to malformed address {}: {}", mail.to(), e.getMessage());
+            return;
+        }
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+            sent.increment();
+        } catch (SendFailedException e) {
+            if (e.getInvalidAddresses() == null || e.getInvalidAddresses().length == 0) {
+                throw e;
+            }
+            rejected.increment();
+            log.warn("Recipient {} rejected: {}", mail.to(), e.getMessage());
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMail mail) throws MessagingException {
+        MimeMessage message = new MimeMessage(pool.getSession());
+        message.setFrom(new InternetAddress(properties.getFrom()));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(mail.to()));
+        message.setSubject(mail.subject());
+        message.setText(mail.body());
+        message.saveChanges();
+        return message;
+    }
+
+    private List<Deque<Chunk>> chunk(List<OutgoingMail> mails) {
+        Map<String, List<IndexedMail>> byDomain = new LinkedHashMap<>();
+        for (int i = 0; i < mails.size(); i++) {
+            OutgoingMail mail = mails.get(i);
+            byDomain.computeIfAbsent(mail.domain(), d -> new ArrayList<>()).add(new IndexedMail(i, mail));
+        }
+        List<Deque<Chunk>> perDomain = new ArrayList<>();
+        int size = properties.getChunkSize();
+        byDomain.forEach((domain, domainMails) -> {
+            Deque<Chunk> chunks = new ArrayDeque<>();
+            for (int from = 0; from < domainMails.size(); from += size) {
+                chunks.add(new Chunk(domain, domainMails.subList(from, Math.min(from + size, domainMails.size()))));
+            }
+            perDomain.add(chunks);
+        });
+        return perDomain;
+    }
+
+    private static List<Chunk> interleave(List<Deque<Chunk>> perDomain) {
+        List<Chunk> ordered = new ArrayList<>();
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Deque<Chunk> chunks : perDomain) {
+                Chunk chunk = chunks.poll();
+                if (chunk != null) {
+                    ordered.add(chunk);
+                    added = true;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    private MailDeliveryException failure(Chunk chunk, int position, Exception cause) {
+        failed.increment(chunk.mails().size() - position);
+        int index = chunk.mails().get(position).index();
+        return new MailDeliveryException("Could not deliver mail " + index + " to " + chunk.domain(), index, cause);
+    }
+
+    private MailDeliveryException failureOf(Chunk chunk, CompletableFuture<Void> future) {
+        if (!future.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof MailDeliveryException failure) {
+                return failure;
+            }
+            return failure(chunk, 0, e.getCause() instanceof Exception cause ? cause : e);
+        }
+    }
+
+    private record IndexedMail(int index, OutgoingMail mail) {
+    }
+
+    private record Chunk(String domain, List<IndexedMail> mails) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.bytebites.emailservice.delivery;
+
+/**
+ * A plain-text message to a single recipient.
+ */
+public record OutgoingMail(String to, String subject, String body) {
+
+    /** Recipient domain, which decides the provider concurrency limit that applies. */
+    public String domain() {
+        int at = to.lastIndexOf('@');
+        return at < 0 ? "" : to.substring(at + 1).toLowerCase();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bytebites.emailservice.delivery;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A bounded pool of connected SMTP {@link Transport}s, so that consecutive messages reuse one
+ * session instead of paying the connect, TLS and AUTH round trips each time.
+ * <p>
+ * At most {@code size} connections are open at once. A borrowed transport must be handed back
+ * with {@link #release} if it is still usable, or {@link #invalidate} after an I/O error.
+ * Idle connections are checked with a NOOP when borrowed, since servers drop them after a while.
+ */
+@Slf4j
+public class SmtpConnectionPool implements AutoCloseable {
+
+    private final Session session;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final Semaphore permits;
+    private final LinkedBlockingQueue<Transport> idle = new LinkedBlockingQueue<>();
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender, int size) {
+        this.session = mailSender.getSession();
+        this.protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        this.host = mailSender.getHost();
+        this.port = mailSender.getPort();
+        this.username = mailSender.getUsername();
+        this.password = mailSender.getPassword();
+        this.permits = new Semaphore(size);
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public Transport borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            Transport transport = idle.poll();
+            if (transport != null) {
+                if (transport.isConnected()) {
+                    return transport;
+                }
+                closeQuietly(transport);
+            }
+            transport = session.getTransport(protocol);
+            transport.connect(host, port, username, password);
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(Transport transport) {
+        idle.offer(transport);
+        permits.release();
+    }
+
+    public void invalidate(Transport transport) {
+        closeQuietly(transport);
+        permits.release();
+    }
+
+    @Override
+    public void close() {
+        Transport transport;
+        while ((transport = idle.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+}
@@ -1,8 +0,0 @@
-package com.bytebites.emailservice.enums;
-
-public enum OrderStatus {
-    PENDING,
-    CONFIRMED,
-    DELIVERED,
-    CANCELLED
-}
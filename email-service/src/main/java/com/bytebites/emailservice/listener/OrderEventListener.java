@@ -1,15 +1,22 @@
 package com.bytebites.emailservice.listener;
 
-import com.bytebites.emailservice.event.OrderPlacedEvent;
+import com.bytebites.emailservice.delivery.MailDeliveryException;
 import com.bytebites.emailservice.service.EmailService;
-import com.bytebites.emailservice.util.CustomUserPrincipal;
+import com.bytebites.events.OrderPlacedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Consumes order events in batches. A batch is acknowledged only once its confirmations have
+ * been delivered, so a crash mid-batch resends rather than loses mail.
+ */
 @Component
 @Slf4j
 public class OrderEventListener {
@@ -22,19 +29,15 @@ public class OrderEventListener {
             groupId = "email-group",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void handleOrderPlacedEvent(OrderPlacedEvent event) {
-        log.info("Received OrderPlacedEvent: {}", event.getOrderId());
-
-
-        String customerEmail = event.getEmail();
-
-        String subject = "Your ByteBites Order #" + event.getOrderId() + " is Confirmed!";
-        String body = "Dear Customer,\n\n" +
-                "Thank you for your order! Your order with ID " + event.getOrderId() +
-                " for a total of $" + event.getTotalAmount() + " has been placed.\n\n" +
-                "We'll notify you when it's on its way.\n\n" +
-                "Thanks for choosing ByteBites!";
-
-        emailService.sendOrderConfirmationEmail(customerEmail, subject, body);
+    public void handleOrderPlacedEvents(List<OrderPlacedEvent> events, Acknowledgment ack)
+            throws InterruptedException, TimeoutException {
+        log.info("Received {} OrderPlacedEvents", events.size());
+        try {
+            emailService.sendOrderConfirmations(events);
+            ack.acknowledge();
+        } catch (MailDeliveryException e) {
+            // Commits the records before the failed one and retries from there
+            throw new BatchListenerFailedException(e.getMessage(), e, e.getFailedIndex());
+        }
     }
 }
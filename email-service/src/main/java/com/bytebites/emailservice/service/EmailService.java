@@ -1,25 +1,64 @@
 package com.bytebites.emailservice.service;
 
+import com.bytebites.emailservice.configuration.MailDeliveryProperties;
+import com.bytebites.emailservice.delivery.MailDeliveryException;
+import com.bytebites.emailservice.delivery.MailDispatcher;
+import com.bytebites.emailservice.delivery.OutgoingMail;
+import com.bytebites.events.OrderPlacedEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class EmailService {
 
+    private final MailDispatcher mailDispatcher;
+    private final MailDeliveryProperties properties;
 
-    private final JavaMailSender mailSender;
+    /**
+     * Sends a confirmation for each order and blocks until the whole batch has been delivered.
+     * Orders without an email address are skipped.
+     *
+     * @throws MailDeliveryException with the index into {@code events} of the first order whose
+     *                               confirmation could not be delivered
+     */
+    public void sendOrderConfirmations(List<OrderPlacedEvent> events) throws InterruptedException, TimeoutException {
+        List<OutgoingMail> mails = new ArrayList<>(events.size());
+        List<Integer> eventIndex = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OrderPlacedEvent event = events.get(i);
+            if (event == null || event.getEmail() == null || event.getEmail().isBlank()) {
+                log.warn("Skipping order confirmation without recipient: {}", event);
+                continue;
+            }
+            mails.add(orderConfirmation(event));
+            eventIndex.add(i);
+        }
 
-    public void sendOrderConfirmationEmail(String toEmail, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom("your-email@gmail.com"); // Should match your configured username
-        message.setTo(toEmail);
-        message.setSubject(subject);
-        message.setText(body);
+        try {
+            mailDispatcher.dispatch(mails).get(properties.getBatchTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            MailDeliveryException failure = (MailDeliveryException) e.getCause();
+            throw new MailDeliveryException(failure.getMessage(), eventIndex.get(failure.getFailedIndex()), failure.getCause());
+        }
+        log.info("Sent {} order confirmation emails", mails.size());
+    }
 
-        mailSender.send(message);
-        System.out.println("Confirmation email sent successfully to " + toEmail);
+    private static OutgoingMail orderConfirmation(OrderPlacedEvent event) {
+        String subject = "Your ByteBites Order #" + event.getOrderId() + " is Confirmed!";
+        String body = "Dear Customer,\n\n" +
+                "Thank you for your order! Your order with ID " + event.getOrderId() +
+                " for a total of $" + event.getTotalAmount() + " has been placed.\n\n" +
+                "We'll notify you when it's on its way.\n\n" +
+                "Thanks for choosing ByteBites!";
+        return new OutgoingMail(event.getEmail(), subject, body);
     }
 }
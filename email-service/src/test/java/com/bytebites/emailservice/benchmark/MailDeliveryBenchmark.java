@@ -0,0 +1,105 @@
+package com.bytebites.emailservice.benchmark;
+
+import com.bytebites.emailservice.configuration.MailDeliveryProperties;
+import com.bytebites.emailservice.delivery.MailDispatcher;
+import com.bytebites.emailservice.delivery.OutgoingMail;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mails per second through the old path (one {@code JavaMailSender.send} and SMTP session per
+ * message, on the caller's thread) against {@link MailDispatcher}, sending a batch of
+ * {@value #BATCH} order confirmations to a local GreenMail server.
+ * GreenMail answers instantly, so this measures connection and protocol overhead only; against
+ * a real provider the pooled connections also hide network and TLS latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailDeliveryBenchmark {
+
+    private static final int BATCH = 200;
+
+    @Param({"1", "4", "8"})
+    private int connections;
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private MailDispatcher dispatcher;
+    private List<OutgoingMail> mails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setFrom("orders@bytebites.com");
+        properties.setConnections(connections);
+        dispatcher = new MailDispatcher(mailSender, properties, new SimpleMeterRegistry());
+
+        mails = new ArrayList<>(BATCH);
+        String[] domains = {"gmail.com", "yahoo.com", "outlook.com"};
+        for (int i = 0; i < BATCH; i++) {
+            mails.add(new OutgoingMail("customer" + i + "@" + domains[i % domains.length],
+                    "Your ByteBites Order #" + i + " is Confirmed!", "Thank you for your order!"));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.shutdown();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sessionPerMessage() {
+        for (OutgoingMail mail : mails) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("orders@bytebites.com");
+            message.setTo(mail.to());
+            message.setSubject(mail.subject());
+            message.setText(mail.body());
+            mailSender.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledDispatch() {
+        dispatcher.dispatch(mails).join();
+    }
+}
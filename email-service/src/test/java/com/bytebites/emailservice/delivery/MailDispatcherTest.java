@@ -0,0 +1,109 @@
+package com.bytebites.emailservice.delivery;
+
+import com.bytebites.emailservice.configuration.MailDeliveryProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void dispatch_shouldDeliverEveryMailAcrossProviders() throws Exception {
+        MailDeliveryProperties properties = properties();
+        properties.getProviderConcurrency().put("gmail.com", 1);
+        dispatcher = new MailDispatcher(sender(ServerSetupTest.SMTP.getPort()), properties, meterRegistry);
+        List<OutgoingMail> mails = mails(300, "gmail.com", "yahoo.com", "bytebites.com");
+
+        dispatcher.dispatch(mails).get(30, TimeUnit.SECONDS);
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 300));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        Set<String> subjects = Arrays.stream(received).map(MailDispatcherTest::subject).collect(Collectors.toSet());
+        assertEquals(300, subjects.size());
+        assertEquals(300, meterRegistry.counter("email.delivery.sent").count());
+    }
+
+    @Test
+    void dispatch_shouldSkipMalformedRecipientAndDeliverTheRest() throws Exception {
+        dispatcher = new MailDispatcher(sender(ServerSetupTest.SMTP.getPort()), properties(), meterRegistry);
+        List<OutgoingMail> mails = new ArrayList<>(mails(3, "gmail.com"));
+        mails.add(1, new OutgoingMail("not an address@@", "Order bad", "body"));
+
+        dispatcher.dispatch(mails).get(10, TimeUnit.SECONDS);
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 3));
+        assertEquals(1, meterRegistry.counter("email.delivery.rejected").count());
+    }
+
+    @Test
+    void dispatch_shouldReportFirstUndeliveredIndexWhenServerIsUnreachable() {
+        dispatcher = new MailDispatcher(sender(1), properties(), meterRegistry);
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> dispatcher.dispatch(mails(10, "gmail.com", "yahoo.com")).get(10, TimeUnit.SECONDS));
+
+        MailDeliveryException failure = assertInstanceOf(MailDeliveryException.class, e.getCause());
+        assertEquals(0, failure.getFailedIndex());
+        assertEquals(10, meterRegistry.counter("email.delivery.failed").count());
+    }
+
+    private static MailDeliveryProperties properties() {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setFrom("orders@bytebites.com");
+        properties.setConnections(4);
+        properties.setChunkSize(20);
+        properties.setMaxAttempts(2);
+        return properties;
+    }
+
+    private static JavaMailSenderImpl sender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(port);
+        return sender;
+    }
+
+    static List<OutgoingMail> mails(int count, String... domains) {
+        List<OutgoingMail> mails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mails.add(new OutgoingMail("customer" + i + "@" + domains[i % domains.length], "Order " + i, "Thanks for order " + i));
+        }
+        return mails;
+    }
+
+    private static String subject(MimeMessage message) {
+        try {
+            return message.getSubject();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
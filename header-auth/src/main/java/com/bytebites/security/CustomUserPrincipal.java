@@ -0,0 +1,14 @@
+package com.bytebites.security;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * The user a request was made for, as verified by the gateway.
+ */
+@Value
+public class CustomUserPrincipal {
+    UUID userId;
+    String email;
+}
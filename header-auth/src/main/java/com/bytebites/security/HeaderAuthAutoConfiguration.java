@@ -0,0 +1,22 @@
+package com.bytebites.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides the {@link HeaderAuthFilter} bean to any servlet service with this library on its
+ * classpath. Services add it to their security filter chain.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HeaderAuthAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HeaderAuthFilter headerAuthFilter(@Value("${app.security.header-auth.max-cached-role-sets:64}") int maxCachedRoleSets) {
+        return new HeaderAuthFilter(maxCachedRoleSets);
+    }
+}
@@ -0,0 +1,63 @@
+package com.bytebites.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Authenticates requests from the {@code X-User-ID}, {@code X-User-Roles} and {@code X-User-Email}
+ * headers that the gateway sets after verifying the caller's JWT. Services must therefore only be
+ * reachable through the gateway.
+ * <p>
+ * The per-request work is kept to reading the headers, parsing the user id and allocating the
+ * principal and its {@link HeaderAuthentication}; the authorities of each role combination are
+ * parsed once and shared. A request whose user id is not a UUID stays unauthenticated.
+ */
+@Slf4j
+public class HeaderAuthFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID_HEADER = "X-User-ID";
+    public static final String ROLES_HEADER = "X-User-Roles";
+    public static final String EMAIL_HEADER = "X-User-Email";
+
+    private final RoleAuthorities roleAuthorities;
+
+    public HeaderAuthFilter() {
+        this(RoleAuthorities.DEFAULT_MAX_CACHED);
+    }
+
+    public HeaderAuthFilter(int maxCachedRoleSets) {
+        this.roleAuthorities = new RoleAuthorities(maxCachedRoleSets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String userIdHeader = request.getHeader(USER_ID_HEADER);
+        String rolesHeader = request.getHeader(ROLES_HEADER);
+
+        if (userIdHeader != null && rolesHeader != null) {
+            SecurityContext context = SecurityContextHolder.getContext();
+            if (context.getAuthentication() == null) {
+                UUID userId = Uuids.parse(userIdHeader);
+                if (userId != null) {
+                    CustomUserPrincipal principal = new CustomUserPrincipal(userId, request.getHeader(EMAIL_HEADER));
+                    context.setAuthentication(new HeaderAuthentication(principal, roleAuthorities.forHeader(rolesHeader)));
+                } else {
+                    log.debug("Ignoring malformed {} header", USER_ID_HEADER);
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,51 @@
+package com.bytebites.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * An already authenticated request. Unlike {@code UsernamePasswordAuthenticationToken} it keeps
+ * the given authorities instead of copying them, so requests with the same roles share one list.
+ */
+public record HeaderAuthentication(CustomUserPrincipal principal, List<GrantedAuthority> authorities)
+        implements Authentication {
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public CustomUserPrincipal getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return principal.getUserId().toString();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (!authenticated) {
+            throw new IllegalArgumentException("A header authentication cannot be revoked; clear the security context instead");
+        }
+    }
+}
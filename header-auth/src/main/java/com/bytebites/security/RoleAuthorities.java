@@ -0,0 +1,68 @@
+package com.bytebites.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorities for {@code X-User-Roles} values such as {@code CUSTOMER,RESTAURANT_OWNER}.
+ * <p>
+ * There are only a handful of role combinations, so each distinct header value is parsed once
+ * and its immutable list is shared by every later request. Values beyond {@code maxCached} are
+ * parsed each time, so that odd headers cannot grow the cache without bound.
+ */
+final class RoleAuthorities {
+
+    static final int DEFAULT_MAX_CACHED = 64;
+
+    private final Map<String, List<GrantedAuthority>> cache = new ConcurrentHashMap<>();
+    private final int maxCached;
+
+    RoleAuthorities(int maxCached) {
+        this.maxCached = maxCached;
+    }
+
+    List<GrantedAuthority> forHeader(String rolesHeader) {
+        List<GrantedAuthority> authorities = cache.get(rolesHeader);
+        if (authorities == null) {
+            authorities = parse(rolesHeader);
+            if (cache.size() < maxCached) {
+                List<GrantedAuthority> raced = cache.putIfAbsent(rolesHeader, authorities);
+                authorities = raced != null ? raced : authorities;
+            }
+        }
+        return authorities;
+    }
+
+    /**
+     * Splits on commas and trims each role, skipping empty ones, without a regex.
+     */
+    static List<GrantedAuthority> parse(String rolesHeader) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        int length = rolesHeader.length();
+        int start = 0;
+        while (start <= length) {
+            int end = rolesHeader.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && Character.isWhitespace(rolesHeader.charAt(from))) {
+                from++;
+            }
+            while (to > from && Character.isWhitespace(rolesHeader.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + rolesHeader.substring(from, to)));
+            }
+            start = end + 1;
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,49 @@
+package com.bytebites.security;
+
+import java.util.UUID;
+
+final class Uuids {
+
+    private Uuids() {
+    }
+
+    /**
+     * Parses the canonical 36-character form, returning {@code null} instead of throwing when the
+     * value is malformed, so that a bad header costs no exception.
+     */
+    static UUID parse(String value) {
+        if (value == null || value.length() != 36
+                || value.charAt(8) != '-' || value.charAt(13) != '-'
+                || value.charAt(18) != '-' || value.charAt(23) != '-') {
+            return null;
+        }
+        long a = hex(value, 0, 8);
+        long b = hex(value, 9, 13);
+        long c = hex(value, 14, 18);
+        long d = hex(value, 19, 23);
+        long e = hex(value, 24, 36);
+        if ((a | b | c | d | e) < 0) {
+            return null;
+        }
+        return new UUID(a << 32 | b << 16 | c, d << 48 | e);
+    }
+
+    private static long hex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            char ch = value.charAt(i);
+            int digit;
+            if (ch >= '0' && ch <= '9') {
+                digit = ch - '0';
+            } else if (ch >= 'a' && ch <= 'f') {
+                digit = ch - 'a' + 10;
+            } else if (ch >= 'A' && ch <= 'F') {
+                digit = ch - 'A' + 10;
+            } else {
+                return -1;
+            }
+            result = result << 4 | digit;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bytebites.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeaderAuthFilterTest {
+
+    private final HeaderAuthFilter filter = new HeaderAuthFilter(2);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldAuthenticateFromGatewayHeaders() throws Exception {
+        UUID userId = UUID.randomUUID();
+
+        Authentication auth = filter(request(userId.toString(), " CUSTOMER, RESTAURANT_OWNER ,,", "user@example.com"));
+
+        assertNotNull(auth);
+        assertTrue(auth.isAuthenticated());
+        assertEquals(new CustomUserPrincipal(userId, "user@example.com"), auth.getPrincipal());
+        assertEquals(userId.toString(), auth.getName());
+        assertEquals(List.of("ROLE_CUSTOMER", "ROLE_RESTAURANT_OWNER"), AuthorityUtils.authorityListToSet(auth.getAuthorities()).stream().sorted().toList());
+    }
+
+    @Test
+    void doFilter_shouldShareAuthoritiesOfTheSameRolesUpToTheCacheSize() throws Exception {
+        Authentication customer = filter(request(UUID.randomUUID().toString(), "CUSTOMER", null));
+        Authentication again = filter(request(UUID.randomUUID().toString(), "CUSTOMER", null));
+        filter(request(UUID.randomUUID().toString(), "ADMIN", null));
+        Authentication uncached = filter(request(UUID.randomUUID().toString(), "RESTAURANT_OWNER", null));
+        Authentication uncachedAgain = filter(request(UUID.randomUUID().toString(), "RESTAURANT_OWNER", null));
+
+        assertNotSame(customer.getPrincipal(), again.getPrincipal());
+        assertSame(customer.getAuthorities(), again.getAuthorities());
+        assertNotSame(uncached.getAuthorities(), uncachedAgain.getAuthorities());
+        assertEquals(uncached.getAuthorities(), uncachedAgain.getAuthorities());
+    }
+
+    @Test
+    void doFilter_shouldLeaveRequestsWithMalformedUserIdUnauthenticated() throws Exception {
+        assertNull(filter(request("not-a-uuid", "ADMIN", null)));
+        assertNull(filter(request(UUID.randomUUID().toString().replace('-', '_'), "ADMIN", null)));
+        assertNull(filter(request(UUID.randomUUID().toString().substring(1) + "g", "ADMIN", null)));
+        assertNull(filter(request(UUID.randomUUID().toString(), null, null)));
+    }
+
+    @Test
+    void doFilter_shouldKeepAnExistingAuthentication() throws Exception {
+        TestingAuthenticationToken existing = new TestingAuthenticationToken("someone", null, "ROLE_ADMIN");
+        SecurityContextHolder.getContext().setAuthentication(existing);
+
+        filter.doFilter(request(UUID.randomUUID().toString(), "CUSTOMER", null), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertSame(existing, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void parse_shouldAgreeWithUuidFromString() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            assertEquals(uuid, Uuids.parse(uuid.toString()));
+            assertEquals(uuid, Uuids.parse(uuid.toString().toUpperCase()));
+        }
+        assertEquals(new UUID(-1, -1), Uuids.parse("ffffffff-ffff-ffff-ffff-ffffffffffff"));
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest request(String userId, String roles, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        if (userId != null) {
+            request.addHeader(HeaderAuthFilter.USER_ID_HEADER, userId);
+        }
+        if (roles != null) {
+            request.addHeader(HeaderAuthFilter.ROLES_HEADER, roles);
+        }
+        if (email != null) {
+            request.addHeader(HeaderAuthFilter.EMAIL_HEADER, email);
+        }
+        return request;
+    }
+}
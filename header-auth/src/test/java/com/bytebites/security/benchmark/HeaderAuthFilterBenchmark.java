@@ -0,0 +1,112 @@
+package com.bytebites.security.benchmark;
+
+import com.bytebites.security.HeaderAuthFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One pass of the shared {@link HeaderAuthFilter} against the filter each service used to carry,
+ * reproduced below as {@link LegacyHeaderAuthFilter}. Both see the same request and a no-op chain,
+ * and the security context is cleared after each call as it is at the end of a request.
+ * <p>
+ * Run with {@code -prof gc} to compare {@code gc.alloc.rate.norm}, the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeaderAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private final HeaderAuthFilter shared = new HeaderAuthFilter();
+    private final LegacyHeaderAuthFilter legacy = new LegacyHeaderAuthFilter();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/orders/my");
+        request.addHeader(HeaderAuthFilter.USER_ID_HEADER, UUID.randomUUID().toString());
+        request.addHeader(HeaderAuthFilter.ROLES_HEADER, "CUSTOMER,RESTAURANT_OWNER");
+        request.addHeader(HeaderAuthFilter.EMAIL_HEADER, "customer12345@example.com");
+    }
+
+    @Benchmark
+    public Authentication shared() throws ServletException, IOException {
+        return authenticate(shared);
+    }
+
+    @Benchmark
+    public Authentication legacy() throws ServletException, IOException {
+        return authenticate(legacy);
+    }
+
+    private Authentication authenticate(OncePerRequestFilter filter) throws ServletException, IOException {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    static class LegacyHeaderAuthFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String userId = request.getHeader("X-User-ID");
+            String rolesHeader = request.getHeader("X-User-Roles");
+            String email = request.getHeader("X-User-Email");
+
+            if (userId != null && rolesHeader != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                List<GrantedAuthority> authorities = Arrays.stream(rolesHeader.split(","))
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.trim()))
+                        .collect(Collectors.toList());
+
+                LegacyPrincipal principal = new LegacyPrincipal(userId, email);
+
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    record LegacyPrincipal(String userId, String email) {
+    }
+}
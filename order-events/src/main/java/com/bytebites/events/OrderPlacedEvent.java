@@ -1,6 +1,5 @@
-package com.bytebites.emailservice.event;
+package com.bytebites.events;
 
-import com.bytebites.emailservice.enums.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,9 +7,13 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+/**
+ * Published on {@code orders.placed} for every new order, keyed by restaurant ID.
+ * See {@link OrderPlacedEventCodec} for the wire format.
+ */
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
+@AllArgsConstructor
 public class OrderPlacedEvent {
     private UUID orderId;
     private UUID customerId;
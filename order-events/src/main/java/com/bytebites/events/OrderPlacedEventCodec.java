@@ -0,0 +1,116 @@
+package com.bytebites.events;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Binary encoding of {@link OrderPlacedEvent}, big-endian:
+ * <pre>
+ * version        1 byte   currently {@value #VERSION}
+ * orderId       16 bytes  most then least significant bits
+ * customerId    16 bytes
+ * restaurantId  16 bytes
+ * amount scale   1 byte
+ * amount        8 bytes   unscaled value, so 12.50 is scale 2 and 1250
+ * status         1 byte   {@link OrderStatus} ordinal
+ * email length   2 bytes  -1 when there is no email
+ * email          n bytes  UTF-8
+ * </pre>
+ * Later versions may only append fields. A reader skips fields it does not know, so consumers
+ * can be upgraded after producers.
+ */
+public final class OrderPlacedEventCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int FIXED_SIZE = 1 + 16 * 3 + 1 + 8 + 1 + 2;
+    private static final BigInteger MIN_AMOUNT = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_AMOUNT = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private OrderPlacedEventCodec() {
+    }
+
+    public static byte[] encode(OrderPlacedEvent event) {
+        BigDecimal amount = required(event.getTotalAmount(), "totalAmount");
+        BigInteger unscaled = amount.unscaledValue();
+        if (amount.scale() < 0 || amount.scale() > Byte.MAX_VALUE
+                || unscaled.compareTo(MIN_AMOUNT) < 0 || unscaled.compareTo(MAX_AMOUNT) > 0) {
+            throw new IllegalArgumentException("totalAmount " + amount + " does not fit a scaled long");
+        }
+        byte[] email = event.getEmail() == null ? null : event.getEmail().getBytes(StandardCharsets.UTF_8);
+        if (email != null && email.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("email is longer than " + Short.MAX_VALUE + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE + (email == null ? 0 : email.length));
+        buffer.put(VERSION);
+        putUuid(buffer, required(event.getOrderId(), "orderId"));
+        putUuid(buffer, required(event.getCustomerId(), "customerId"));
+        putUuid(buffer, required(event.getRestaurantId(), "restaurantId"));
+        buffer.put((byte) amount.scale());
+        buffer.putLong(unscaled.longValue());
+        buffer.put((byte) required(event.getStatus(), "status").ordinal());
+        if (email == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) email.length);
+            buffer.put(email);
+        }
+        return buffer.array();
+    }
+
+    public static OrderPlacedEvent decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version < 1) {
+                throw new IllegalArgumentException("Not an OrderPlacedEvent payload, version byte " + version);
+            }
+            OrderPlacedEvent event = new OrderPlacedEvent();
+            event.setOrderId(getUuid(buffer));
+            event.setCustomerId(getUuid(buffer));
+            event.setRestaurantId(getUuid(buffer));
+            int scale = buffer.get();
+            event.setTotalAmount(BigDecimal.valueOf(buffer.getLong(), scale));
+            int status = buffer.get();
+            if (status < 0 || status >= STATUSES.length) {
+                throw new IllegalArgumentException("Unknown order status " + status);
+            }
+            event.setStatus(STATUSES[status]);
+            short emailLength = buffer.getShort();
+            if (emailLength < -1) {
+                throw new IllegalArgumentException("Invalid email length " + emailLength);
+            }
+            if (emailLength >= 0) {
+                byte[] email = new byte[emailLength];
+                buffer.get(email);
+                event.setEmail(new String(email, StandardCharsets.UTF_8));
+            }
+            // Anything left was appended by a later version
+            return event;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated OrderPlacedEvent payload of " + data.length + " bytes", e);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,36 @@
+package com.bytebites.events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer reading {@link OrderPlacedEventCodec} payloads.
+ * <p>
+ * JSON payloads, written before the binary format was introduced, are still read, so records
+ * already on the topic or waiting in the order outbox survive the upgrade. A JSON object starts
+ * with {@code '{'}, which is never a valid version byte.
+ */
+public class OrderPlacedEventDeserializer implements Deserializer<OrderPlacedEvent> {
+
+    private static final ObjectMapper LEGACY_JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public OrderPlacedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (data.length > 0 && data[0] == '{') {
+                return LEGACY_JSON.readValue(data, OrderPlacedEvent.class);
+            }
+            return OrderPlacedEventCodec.decode(data);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SerializationException("Cannot deserialize OrderPlacedEvent from " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bytebites.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link OrderPlacedEventCodec} payloads.
+ */
+public class OrderPlacedEventSerializer implements Serializer<OrderPlacedEvent> {
+
+    @Override
+    public byte[] serialize(String topic, OrderPlacedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return OrderPlacedEventCodec.encode(event);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot serialize OrderPlacedEvent " + event.getOrderId(), e);
+        }
+    }
+}
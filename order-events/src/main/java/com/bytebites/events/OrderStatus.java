@@ -0,0 +1,11 @@
+package com.bytebites.events;
+
+/**
+ * Order status as carried by events. Encoded by ordinal, so constants may only be appended.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    DELIVERED,
+    CANCELLED
+}
@@ -0,0 +1,75 @@
+package com.bytebites.events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderPlacedEventCodecTest {
+
+    private final OrderPlacedEventSerializer serializer = new OrderPlacedEventSerializer();
+    private final OrderPlacedEventDeserializer deserializer = new OrderPlacedEventDeserializer();
+
+    @Test
+    void roundTrip_shouldPreserveEveryField() {
+        OrderPlacedEvent event = event("zoë@example.com");
+
+        byte[] payload = serializer.serialize("orders.placed", event);
+
+        assertEquals(OrderPlacedEventCodec.VERSION, payload[0]);
+        assertEquals(1 + 48 + 1 + 8 + 1 + 2 + "zoë@example.com".getBytes(StandardCharsets.UTF_8).length, payload.length);
+        assertEquals(event, deserializer.deserialize("orders.placed", payload));
+    }
+
+    @Test
+    void roundTrip_shouldKeepMissingEmailAndAmountScale() {
+        OrderPlacedEvent event = event(null);
+        event.setTotalAmount(new BigDecimal("1234567.005"));
+
+        OrderPlacedEvent decoded = OrderPlacedEventCodec.decode(OrderPlacedEventCodec.encode(event));
+
+        assertNull(decoded.getEmail());
+        assertEquals(new BigDecimal("1234567.005"), decoded.getTotalAmount());
+    }
+
+    @Test
+    void decode_shouldIgnoreFieldsAppendedByLaterVersions() {
+        OrderPlacedEvent event = event("customer@example.com");
+        byte[] current = OrderPlacedEventCodec.encode(event);
+        byte[] later = Arrays.copyOf(current, current.length + 9);
+        later[0] = OrderPlacedEventCodec.VERSION + 1;
+
+        assertEquals(event, OrderPlacedEventCodec.decode(later));
+    }
+
+    @Test
+    void deserialize_shouldReadLegacyJsonPayloads() {
+        OrderPlacedEvent event = event("customer@example.com");
+        String json = "{\"orderId\":\"" + event.getOrderId() + "\",\"customerId\":\"" + event.getCustomerId()
+                + "\",\"restaurantId\":\"" + event.getRestaurantId() + "\",\"totalAmount\":25.40,"
+                + "\"status\":\"PENDING\",\"email\":\"customer@example.com\"}";
+
+        assertEquals(event, deserializer.deserialize("orders.placed", json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void invalidPayloads_shouldBeRejected() {
+        byte[] truncated = Arrays.copyOf(OrderPlacedEventCodec.encode(event(null)), 20);
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("orders.placed", truncated));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("orders.placed", new byte[]{0}));
+
+        OrderPlacedEvent incomplete = event(null);
+        incomplete.setOrderId(null);
+        assertThrows(SerializationException.class, () -> serializer.serialize("orders.placed", incomplete));
+    }
+
+    private static OrderPlacedEvent event(String email) {
+        return new OrderPlacedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("25.40"), OrderStatus.PENDING, email);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bytebites.events.benchmark;
+
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventCodec;
+import com.bytebites.events.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding one {@link OrderPlacedEvent} with {@link OrderPlacedEventCodec} against
+ * Jackson, which is what Spring Kafka's {@code JsonSerializer} and {@code JsonDeserializer} used
+ * before. Scores are nanoseconds per event; the payload sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacedEventCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OrderPlacedEvent event;
+    private byte[] binary;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        event = new OrderPlacedEvent(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("42.50"), OrderStatus.PENDING, "customer12345@example.com");
+        binary = OrderPlacedEventCodec.encode(event);
+        json = objectMapper.writeValueAsBytes(event);
+        System.out.printf("%nPayload size: binary %d bytes, JSON %d bytes%n", binary.length, json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return OrderPlacedEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public OrderPlacedEvent decodeBinary() {
+        return OrderPlacedEventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public OrderPlacedEvent decodeJson() throws IOException {
+        return objectMapper.readValue(json, OrderPlacedEvent.class);
+    }
+}
@@ -1,36 +1,74 @@
 package com.bytebites.orderservice.config;
 
-import com.bytebites.orderservice.event.OrderPlacedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Producer used by the outbox relay. Values are already serialized when they are written
+ * to the outbox, {@code orders.placed} with
+ * {@link com.bytebites.events.OrderPlacedEventSerializer}, so records are sent as raw
+ * bytes. {@code orders.placed} is keyed by restaurant and
+ * {@code orders.status-changed} by order, so each key's events land on one partition in order.
+ * <p>
+ * The producer's own metrics (batch size, queue time, request latency, compression rate,
+ * buffer exhaustion) are published as {@code kafka.producer.*}.
+ */
 @Configuration
 @EnableKafka
+@EnableConfigurationProperties(KafkaProducerProperties.class)
 public class KafkaProducerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${app.outbox.relay.max-block-ms:5000}")
+    private int maxBlockMs;
+
     @Bean
-    public KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate(ProducerFactory<String, OrderPlacedEvent> pf) {
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> pf) {
         return new KafkaTemplate<>(pf);
     }
 
     @Bean
-    public ProducerFactory<String, OrderPlacedEvent> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory(KafkaProducerProperties properties, MeterRegistry meterRegistry) {
+        DefaultKafkaProducerFactory<String, byte[]> factory =
+                new DefaultKafkaProducerFactory<>(producerConfig(bootstrapServers, maxBlockMs, properties));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    public static Map<String, Object> producerConfig(String bootstrapServers, int maxBlockMs,
+                                                     KafkaProducerProperties properties) {
         Map<String, Object> config = new HashMap<>();
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
 
-        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        // Idempotence keeps per-partition order across internal retries
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, properties.getMaxInFlightRequestsPerConnection());
+        // Bounds how long a relay send can block on metadata, which counts against its claim on the outbox
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
 
-        return new DefaultKafkaProducerFactory<>(config);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getBatchSize());
+        config.put(ProducerConfig.LINGER_MS_CONFIG, properties.getLingerMs());
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompressionType());
+        config.put(ProducerConfig.BUFFER_MEMORY_CONFIG, properties.getBufferMemory());
+        return config;
     }
-}
\ No newline at end of file
+}
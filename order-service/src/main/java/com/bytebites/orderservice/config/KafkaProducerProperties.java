@@ -0,0 +1,29 @@
+package com.bytebites.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Throughput settings of the outbox relay's producer, bound from {@code app.kafka.producer.*}.
+ * The relay sends a whole outbox batch before awaiting it, so {@code linger-ms} only delays the
+ * last, partly filled Kafka batch of each outbox batch.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.producer")
+public class KafkaProducerProperties {
+
+    /** Upper bound of a per-partition record batch, in bytes. */
+    private int batchSize = 64 * 1024;
+
+    /** How long a partly filled batch waits for more records. */
+    private int lingerMs = 10;
+
+    /** One of {@code none}, {@code gzip}, {@code snappy}, {@code lz4} or {@code zstd}. */
+    private String compressionType = "lz4";
+
+    /** Memory for records waiting to be sent; {@code send} blocks once it is used up. */
+    private long bufferMemory = 32L * 1024 * 1024;
+
+    /** At most 5, or the idempotent producer can no longer guarantee ordering. */
+    private int maxInFlightRequestsPerConnection = 5;
+}
@@ -1,6 +1,6 @@
 package com.bytebites.orderservice.config;
 
-import com.bytebites.orderservice.security.HeaderAuthFilter;
+import com.bytebites.security.HeaderAuthFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
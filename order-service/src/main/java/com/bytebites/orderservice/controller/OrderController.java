@@ -1,20 +1,43 @@
 package com.bytebites.orderservice.controller;
+import com.bytebites.orderservice.dto.BatchOrderResponse;
 import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.OrderPage;
+import com.bytebites.orderservice.dto.OrderStats;
 import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.exception.InvalidOrderException;
+import com.bytebites.orderservice.exception.UnauthorizedOrderAccessException;
+import com.bytebites.orderservice.service.OrderBatchService;
+import com.bytebites.orderservice.service.OrderExportService;
+import com.bytebites.orderservice.service.OrderIdempotencyService;
 import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.bytebites.orderservice.service.OrderStatsRebuilder;
+import com.bytebites.orderservice.service.OrderStatsService;
+import com.bytebites.orderservice.service.OrderStreamHub;
+import com.bytebites.orderservice.service.RestaurantOwnership;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,6 +50,13 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderServiceImpl orderService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderBatchService orderBatchService;
+    private final OrderStatsService orderStatsService;
+    private final OrderStatsRebuilder orderStatsRebuilder;
+    private final OrderStreamHub orderStreamHub;
+    private final RestaurantOwnership restaurantOwnership;
 
     @Operation(
             summary = "Get all orders",
@@ -44,19 +74,77 @@ public class OrderController {
 
     @Operation(
             summary = "Create a new order",
-            description = "Allows customers to place a new order",
+            description = "Allows customers to place a new order. Requests retried with the same Idempotency-Key "
+                    + "return the original order instead of placing a new one.",
             responses = {
-                    @ApiResponse(responseCode = "201", description = "Order created"),
-                    @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content)
+                    @ApiResponse(responseCode = "201", description = "Order created, or replayed when Idempotent-Replayed is set"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+                    @ApiResponse(responseCode = "422", description = "Idempotency-Key reused for a different request", content = @Content)
             }
     )
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<OrderView> create(
             @RequestBody @Valid CreateOrderRequest request,
-            @NotNull  @RequestHeader("X-User-ID") UUID userId) {
-        OrderView createdOrder = orderService.createOrder(request, userId);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+            @NotNull  @RequestHeader("X-User-ID") UUID userId,
+            @Parameter(description = "Client-generated key, e.g. a UUID, identifying this order attempt across retries")
+            @Size(max = 100) @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder(idempotencyKey, request, userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header("Idempotent-Replayed", "true");
+        }
+        return response.body(result.order());
+    }
+
+    @Operation(
+            summary = "Create orders in bulk",
+            description = "Places many orders in one request, e.g. for catering partners. Each order is validated "
+                    + "on its own; the response lists, in request order, the created order or the errors of each entry.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed, see the per-order results"),
+                    @ApiResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content)
+            }
+    )
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<BatchOrderResponse> createBatch(
+            @RequestBody @NotEmpty List<CreateOrderRequest> requests,
+            @NotNull @RequestHeader("X-User-ID") UUID userId) {
+        return ResponseEntity.ok(orderBatchService.createOrders(requests, userId));
+    }
+
+    @Operation(
+            summary = "Update order status",
+            description = "Moves an order along PENDING -> CONFIRMED -> DELIVERED, or to CANCELLED before delivery. "
+                    + "Customers may only cancel their own orders; other changes need the owner of the order's restaurant. "
+                    + "Send the version the decision was based on as If-Match to have the update refused if the order "
+                    + "changed meanwhile; the new version is returned as ETag.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Status updated"),
+                    @ApiResponse(responseCode = "403", description = "Access denied", content = @Content),
+                    @ApiResponse(responseCode = "404", description = "Order not found", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "Order changed concurrently", content = @Content),
+                    @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content),
+                    @ApiResponse(responseCode = "422", description = "Transition not allowed", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Restaurant owner could not be looked up", content = @Content)
+            }
+    )
+    @PatchMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'RESTAURANT_OWNER', 'ADMIN')")
+    public ResponseEntity<OrderView> updateStatus(
+            @PathVariable UUID id,
+            @RequestParam OrderStatus status,
+            @Parameter(description = "Expected order version, e.g. \"3\"")
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @NotNull @RequestHeader("X-User-ID") UUID userId,
+            Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        OrderView order = orderService.updateStatus(id, status, parseVersion(ifMatch), admin ? null : userId);
+        return ResponseEntity.ok()
+                .eTag(Long.toString(order.version()))
+                .body(order);
     }
 
     @Operation(
@@ -73,4 +161,130 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
-}
\ No newline at end of file
+    @Operation(
+            summary = "Stream my order changes",
+            description = "Server-Sent Events stream of the current customer's order status changes, as "
+                    + "order-status-changed events. Idle streams receive a heartbeat comment; a client that falls "
+                    + "behind is disconnected and should reconnect and reload its orders.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream opened")
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public SseEmitter streamMyOrders(@NotNull @RequestHeader("X-User-ID") UUID customerId) {
+        return orderStreamHub.subscribe(customerId);
+    }
+
+    @Operation(
+            summary = "Get a page of orders",
+            description = "Keyset-paginated listing, newest first. Pass the returned nextCursor to get the following page.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successful retrieval"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content),
+                    @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+            }
+    )
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<OrderPage> getOrderPage(
+            @Parameter(description = "Only orders of this restaurant") @RequestParam(required = false) UUID restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size) {
+        return ResponseEntity.ok(orderService.findPage(restaurantId, cursor, size));
+    }
+
+    @Operation(
+            summary = "Get a page of my orders",
+            description = "Keyset-paginated listing of the current customer's orders, newest first",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Orders retrieved"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
+            }
+    )
+    @GetMapping("/myorder/page")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<OrderPage> getMyOrderPage(
+            @NotNull @RequestHeader("X-User-ID") UUID ownerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size) {
+        return ResponseEntity.ok(orderService.findPageForCustomer(ownerId, cursor, size));
+    }
+
+    @Operation(
+            summary = "Get hourly order stats",
+            description = "Orders and revenue of one of the caller's restaurants per hour and status, from "
+                    + "pre-aggregated rollups. Defaults to the last 24 hours; at most 92 days per request.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stats retrieved"),
+                    @ApiResponse(responseCode = "400", description = "Invalid time range", content = @Content),
+                    @ApiResponse(responseCode = "403", description = "Not the restaurant's owner", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Restaurant owner could not be looked up", content = @Content)
+            }
+    )
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<OrderStats> getStats(
+            @RequestParam UUID restaurantId,
+            @NotNull @RequestHeader("X-User-ID") UUID userId,
+            @Parameter(description = "Start of the range, inclusive, rounded down to the hour")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range, exclusive, rounded down to the hour")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!restaurantOwnership.isOwner(userId, restaurantId)) {
+            throw new UnauthorizedOrderAccessException("Only the owner of restaurant " + restaurantId
+                    + " can see its stats");
+        }
+        return ResponseEntity.ok(orderStatsService.getHourlyStats(restaurantId, from, to));
+    }
+
+    @Operation(
+            summary = "Rebuild order stats",
+            description = "Recomputes the hourly rollups from all orders in the background",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Rebuild started"),
+                    @ApiResponse(responseCode = "409", description = "A rebuild is already running", content = @Content),
+                    @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+            }
+    )
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> rebuildStats() {
+        return orderStatsRebuilder.startRebuild()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    @Operation(
+            summary = "Export orders",
+            description = "Streams every order as newline-delimited JSON, newest first, at constant memory",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export streamed"),
+                    @ApiResponse(responseCode = "403", description = "Access denied", content = @Content)
+            }
+    )
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Only orders of this restaurant") @RequestParam(required = false) UUID restaurantId) {
+        StreamingResponseBody body = out -> orderExportService.writeNdjson(restaurantId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new InvalidOrderException("If-Match must be an order version such as \"3\"");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bytebites.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Outcome of one entry of a batch order request. {@code index} is the entry's position in the
+ * request; {@code order} is set when it was created and {@code errors} when it was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchOrderItemResult(
+        int index,
+        Status status,
+        OrderView order,
+        Map<String, String> errors
+) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static BatchOrderItemResult created(int index, OrderView order) {
+        return new BatchOrderItemResult(index, Status.CREATED, order, null);
+    }
+
+    public static BatchOrderItemResult rejected(int index, Map<String, String> errors) {
+        return new BatchOrderItemResult(index, Status.REJECTED, null, errors);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bytebites.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch order request, with one entry per submitted order in request order.
+ */
+public record BatchOrderResponse(
+        int created,
+        int rejected,
+        List<BatchOrderItemResult> results
+) {
+}
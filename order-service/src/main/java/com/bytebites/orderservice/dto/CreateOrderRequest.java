@@ -1,6 +1,7 @@
 package com.bytebites.orderservice.dto;
 
 import com.bytebites.orderservice.enums.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -17,7 +18,7 @@ public record CreateOrderRequest(
         @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
         BigDecimal totalAmount,
 
-        @NotNull(message = "Order status is required")
+        @Schema(deprecated = true, description = "Ignored: orders are always placed as PENDING and move on through PATCH /api/orders/{id}/status")
         OrderStatus status
 ) {}
 
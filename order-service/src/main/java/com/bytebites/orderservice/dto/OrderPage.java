@@ -0,0 +1,12 @@
+package com.bytebites.orderservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of orders. {@code nextCursor} is {@code null} on the last page.
+ */
+public record OrderPage(
+        List<OrderView> items,
+        String nextCursor
+) {
+}
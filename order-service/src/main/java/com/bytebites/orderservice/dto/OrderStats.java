@@ -0,0 +1,17 @@
+package com.bytebites.orderservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hourly order volume and revenue of one restaurant between {@code from} (inclusive) and
+ * {@code to} (exclusive). Hours without orders are omitted.
+ */
+public record OrderStats(
+        UUID restaurantId,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<OrderStatsBucket> buckets
+) {
+}
@@ -0,0 +1,21 @@
+package com.bytebites.orderservice.dto;
+
+import com.bytebites.orderservice.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Orders placed in the hour starting at {@code hour} that currently have {@code status}.
+ */
+public record OrderStatsBucket(
+        LocalDateTime hour,
+        String status,
+        long orders,
+        BigDecimal revenue
+) {
+
+    public OrderStatsBucket(LocalDateTime hour, OrderStatus status, Long orders, BigDecimal revenue) {
+        this(hour, status.name(), orders, revenue);
+    }
+}
@@ -8,6 +8,7 @@ public record OrderView(
         UUID customerId,
         UUID restaurantId,
         BigDecimal totalAmount,
-        String status
+        String status,
+        long version
 ) {
 }
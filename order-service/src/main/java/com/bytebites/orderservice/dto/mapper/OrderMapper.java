@@ -14,12 +14,11 @@ import java.util.UUID;
 public class OrderMapper {
 
     public Order toEntity(CreateOrderRequest request, UUID customerId) {
-        System.out.println(request);
         Order order = new Order();
         order.setCustomerId(customerId);
         order.setRestaurantId(request.restaurantId());
         order.setTotalAmount(request.totalAmount());
-        order.setStatus(request.status());
+        order.setStatus(OrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
         return order;
     }
@@ -30,7 +29,8 @@ public class OrderMapper {
                 order.getCustomerId(),
                 order.getRestaurantId(),
                 order.getTotalAmount(),
-                order.getStatus().name()
+                order.getStatus().name(),
+                order.getVersion()
         );
     }
 }
@@ -1,9 +1,26 @@
 package com.bytebites.orderservice.enums;
 
+import java.util.Set;
+
+/**
+ * Lifecycle of an order. Orders are placed as {@link #PENDING}; {@link #DELIVERED} and
+ * {@link #CANCELLED} are final.
+ */
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     DELIVERED,
-    CANCELLED
-}
+    CANCELLED;
 
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> Set.of(CONFIRMED, CANCELLED);
+            case CONFIRMED -> Set.of(DELIVERED, CANCELLED);
+            case DELIVERED, CANCELLED -> Set.of();
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return nextStatuses().contains(next);
+    }
+}
@@ -5,17 +5,22 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Published on {@code orders.status-changed}, keyed by order id. {@code version} is the order's
+ * version after the change, so consumers can drop duplicates and out-of-date events.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class OrderPlacedEvent {
+public class OrderStatusChangedEvent {
     private UUID orderId;
     private UUID customerId;
     private UUID restaurantId;
-    private BigDecimal totalAmount;
+    private OrderStatus previousStatus;
     private OrderStatus status;
-    private String email;
-}
\ No newline at end of file
+    private long version;
+    private Instant changedAt;
+}
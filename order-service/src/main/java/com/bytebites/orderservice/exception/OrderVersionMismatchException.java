@@ -0,0 +1,14 @@
+package com.bytebites.orderservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The client's {@code If-Match} version is not the order's current version: it decided on a stale copy.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class OrderVersionMismatchException extends RuntimeException {
+    public OrderVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.bytebites.orderservice.exception;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RestaurantServiceUnavailableException extends RuntimeException {
+    public RestaurantServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
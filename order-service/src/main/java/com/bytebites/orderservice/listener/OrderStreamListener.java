@@ -0,0 +1,41 @@
+package com.bytebites.orderservice.listener;
+
+import com.bytebites.orderservice.event.OrderStatusChangedEvent;
+import com.bytebites.orderservice.service.OrderEventOutbox;
+import com.bytebites.orderservice.service.OrderStreamHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Feeds {@link OrderStreamHub} from {@code orders.status-changed}, so a change committed on one
+ * instance reaches the customer's streams on every instance, this one included.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStreamListener {
+
+    private final OrderStreamHub orderStreamHub;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = OrderEventOutbox.ORDER_STATUS_CHANGED_TOPIC,
+            groupId = "order-stream-${random.uuid}",
+            containerFactory = "orderStreamListenerContainerFactory"
+    )
+    public void onStatusChanged(byte[] payload) {
+        OrderStatusChangedEvent event;
+        try {
+            event = objectMapper.readValue(payload, OrderStatusChangedEvent.class);
+        } catch (IOException e) {
+            log.warn("Skipping malformed order status event: {}", e.getMessage());
+            return;
+        }
+        orderStreamHub.onStatusChanged(event);
+    }
+}
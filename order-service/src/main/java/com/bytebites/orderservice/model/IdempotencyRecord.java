@@ -0,0 +1,68 @@
+package com.bytebites.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An {@code Idempotency-Key} seen on order creation, scoped to the customer that sent it, with the
+ * response to replay for it. The row is inserted before the order so that a second request with
+ * the same key blocks on the primary key until the first one commits.
+ * Expired rows are deleted by {@link com.bytebites.orderservice.service.OrderIdempotencyService}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "order_idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    /** {@code <customerId>:<Idempotency-Key>} */
+    @Id
+    @Column(length = 140)
+    private String id;
+
+    /** SHA-256 of the request body, to reject a key reused for a different order. */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    /** The {@code OrderView} returned for the key, as JSON. */
+    @Column(length = 2048)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Always inserted with an assigned id; lets save() persist instead of merging with a SELECT first
+    @Transient
+    private boolean isNew;
+
+    public IdempotencyRecord(String id, String requestHash, Instant createdAt, Instant expiresAt) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
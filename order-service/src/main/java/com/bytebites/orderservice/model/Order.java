@@ -1,8 +1,10 @@
 package com.bytebites.orderservice.model;
+import com.bytebites.commons.UuidV7;
 import com.bytebites.orderservice.enums.OrderStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,11 +12,17 @@ import java.util.UUID;
 
 @Entity
 @Data
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset pagination walks (created_at, id) newest first, optionally within one customer or restaurant
+        @Index(name = "idx_orders_created", columnList = "created_at, id"),
+        @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at, id"),
+        @Index(name = "idx_orders_restaurant_created", columnList = "restaurant_id, created_at, id")
+})
 public class Order {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     @NotNull
@@ -39,6 +47,11 @@ public class Order {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Status updates are optimistic: a write based on a stale read fails instead of overwriting
+    @Version
+    @Column(nullable = false)
+    private long version;
+
 }
 
 
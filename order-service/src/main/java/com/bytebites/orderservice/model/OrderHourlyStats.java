@@ -0,0 +1,32 @@
+package com.bytebites.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Number and value of a restaurant's orders placed in one hour, per current status. Each bucket is
+ * split over a few shard rows, so concurrent writers rarely wait on the same row; readers sum them.
+ * Maintained by {@link com.bytebites.orderservice.service.OrderStatsService} in the transaction
+ * that places or updates the orders; rows are never written through this entity.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "order_hourly_stats", indexes = {
+        // Hibernate lays out the embedded key alphabetically, so per-restaurant ranges need their own index
+        @Index(name = "idx_order_stats_restaurant_hour", columnList = "restaurant_id, hour_bucket")
+})
+public class OrderHourlyStats {
+
+    @EmbeddedId
+    private OrderHourlyStatsKey id;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+}
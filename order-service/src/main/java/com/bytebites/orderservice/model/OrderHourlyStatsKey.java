@@ -0,0 +1,34 @@
+package com.bytebites.orderservice.model;
+
+import com.bytebites.orderservice.enums.OrderStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHourlyStatsKey implements Serializable {
+
+    @Column(nullable = false)
+    private UUID restaurantId;
+
+    @Column(nullable = false)
+    private LocalDateTime hourBucket;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private int shard;
+}
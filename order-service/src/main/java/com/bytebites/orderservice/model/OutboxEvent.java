@@ -0,0 +1,49 @@
+package com.bytebites.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A Kafka record waiting to be published, written in the same transaction as the change it describes.
+ * Rows are deleted by {@link com.bytebites.orderservice.service.OutboxRelay} once the broker acknowledged them.
+ * While a relay is sending a row, the row carries that relay's claim.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "order_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(name = "message_key", length = 64)
+    private String messageKey;
+
+    @Column(nullable = false, length = 16384)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /** Identifies the relay run that is sending this row; null while unclaimed. */
+    @Column(name = "claim_id", length = 36)
+    private String claimId;
+
+    /** When the claim lapses and another relay may send the row again. */
+    private Instant claimedUntil;
+
+    public OutboxEvent(String topic, String messageKey, byte[] payload, Instant createdAt) {
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.bytebites.orderservice.repository;
+
+import com.bytebites.orderservice.dto.OrderStatsBucket;
+import com.bytebites.orderservice.model.OrderHourlyStats;
+import com.bytebites.orderservice.model.OrderHourlyStatsKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderHourlyStatsRepository extends JpaRepository<OrderHourlyStats, OrderHourlyStatsKey> {
+
+    @Query("select new com.bytebites.orderservice.dto.OrderStatsBucket(s.id.hourBucket, s.id.status, sum(s.orderCount), sum(s.revenue)) "
+            + "from OrderHourlyStats s where s.id.restaurantId = :restaurantId "
+            + "and s.id.hourBucket >= :from and s.id.hourBucket < :to "
+            + "group by s.id.hourBucket, s.id.status having sum(s.orderCount) > 0 "
+            + "order by s.id.hourBucket, s.id.status")
+    List<OrderStatsBucket> findRange(UUID restaurantId, LocalDateTime from, LocalDateTime to);
+}
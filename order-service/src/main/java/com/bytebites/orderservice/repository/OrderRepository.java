@@ -1,6 +1,10 @@
 package com.bytebites.orderservice.repository;
 
 import com.bytebites.orderservice.model.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,4 +14,11 @@ import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, UUID> {
     List<Order> findByCustomerId(UUID customerId);
-}
\ No newline at end of file
+
+    // Keyset scrolling: continuing from a KeysetScrollPosition becomes a range predicate on the sort keys
+    Window<Order> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Order> findByCustomerId(UUID customerId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Order> findByRestaurantId(UUID restaurantId, ScrollPosition position, Sort sort, Limit limit);
+}
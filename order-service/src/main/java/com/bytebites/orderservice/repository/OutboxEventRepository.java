@@ -0,0 +1,29 @@
+package com.bytebites.orderservice.repository;
+
+import com.bytebites.orderservice.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events, only for as long as it takes to claim them. The lock is
+     * deliberately blocking (no SKIP LOCKED): relays on different instances see the same head of
+     * the table, which keeps events with the same key in publication order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> lockOldest(Pageable page);
+
+    /** Hands unpublished events back, unless their claim has lapsed and been taken over. */
+    @Modifying
+    @Query("update OutboxEvent e set e.claimId = null, e.claimedUntil = null where e.id in :ids and e.claimId = :claimId")
+    int releaseClaim(Collection<Long> ids, String claimId);
+}
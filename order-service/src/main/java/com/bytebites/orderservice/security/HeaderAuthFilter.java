@@ -1,46 +0,0 @@
-package com.bytebites.orderservice.security;
-import com.bytebites.orderservice.util.CustomUserPrincipal;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
-
-@Component
-public class HeaderAuthFilter extends OncePerRequestFilter {
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request,
-                                    HttpServletResponse response,
-                                    FilterChain filterChain) throws ServletException, IOException {
-        String userId = request.getHeader("X-User-ID");
-        String rolesHeader = request.getHeader("X-User-Roles");
-        String email = request.getHeader("X-User-Email");
-
-        if (userId != null && rolesHeader != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            List<GrantedAuthority> authorities = Arrays.stream(rolesHeader.split(","))
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.trim()))
-                    .collect(Collectors.toList());
-
-            CustomUserPrincipal principal = new CustomUserPrincipal(userId, email);
-
-            UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(principal, null, authorities);
-
-            SecurityContextHolder.getContext().setAuthentication(authToken);
-        }
-
-        filterChain.doFilter(request, response);
-    }
-}
-
@@ -0,0 +1,127 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.commons.UuidV7;
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.orderservice.dto.BatchOrderItemResult;
+import com.bytebites.orderservice.dto.BatchOrderResponse;
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.mapper.OrderMapper;
+import com.bytebites.orderservice.exception.InvalidOrderException;
+import com.bytebites.orderservice.model.Order;
+import com.bytebites.orderservice.util.UuidBytes;
+import com.bytebites.security.CustomUserPrincipal;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Places many orders for one customer in a single transaction, for catering and partner
+ * integrations that submit hundreds at a time.
+ * <p>
+ * Each entry is validated on its own: invalid entries are reported and skipped, the rest are
+ * created. Order ids are assigned up front so that the orders and their outbox events can be
+ * written with JDBC batch inserts, a few statements per batch instead of two per order; the
+ * outbox relay then publishes the events in batches as usual.
+ * <p>
+ * On MySQL, add {@code rewriteBatchedStatements=true} to the JDBC URL so the driver sends each
+ * batch as multi-row inserts rather than one statement per row.
+ */
+@Slf4j
+@Service
+public class OrderBatchService {
+
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, customer_id, restaurant_id, total_amount, status, created_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderEventOutbox orderEventOutbox;
+    private final OrderStatsService orderStatsService;
+    private final OrderMapper orderMapper;
+    private final Validator validator;
+    private final int maxSize;
+    private final int jdbcBatchSize;
+
+    public OrderBatchService(JdbcTemplate jdbcTemplate,
+                             OrderEventOutbox orderEventOutbox,
+                             OrderStatsService orderStatsService,
+                             OrderMapper orderMapper,
+                             Validator validator,
+                             @Value("${app.orders.batch.max-size:1000}") int maxSize,
+                             @Value("${app.orders.batch.jdbc-batch-size:100}") int jdbcBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderEventOutbox = orderEventOutbox;
+        this.orderStatsService = orderStatsService;
+        this.orderMapper = orderMapper;
+        this.validator = validator;
+        this.maxSize = maxSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @Transactional
+    public BatchOrderResponse createOrders(List<CreateOrderRequest> requests, UUID userId) {
+        if (requests.size() > maxSize) {
+            throw new InvalidOrderException("A batch may contain at most " + maxSize + " orders, got " + requests.size());
+        }
+        CustomUserPrincipal principal = (CustomUserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        List<BatchOrderItemResult> results = new ArrayList<>(requests.size());
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateOrderRequest request = requests.get(i);
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results.add(BatchOrderItemResult.rejected(i, errors));
+                continue;
+            }
+            Order order = orderMapper.toEntity(request, userId);
+            order.setId(UuidV7.generate());
+            orders.add(order);
+            results.add(BatchOrderItemResult.created(i, orderMapper.toView(order)));
+        }
+
+        if (!orders.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ORDER, orders, jdbcBatchSize, (ps, order) -> {
+                ps.setBytes(1, UuidBytes.toBytes(order.getId()));
+                ps.setBytes(2, UuidBytes.toBytes(order.getCustomerId()));
+                ps.setBytes(3, UuidBytes.toBytes(order.getRestaurantId()));
+                ps.setBigDecimal(4, order.getTotalAmount());
+                ps.setString(5, order.getStatus().name());
+                ps.setTimestamp(6, Timestamp.valueOf(order.getCreatedAt()));
+            });
+            orderStatsService.recordPlaced(orders);
+            List<OrderPlacedEvent> events = orders.stream()
+                    .map(order -> OrderServiceImpl.placedEvent(order, principal.getEmail()))
+                    .toList();
+            orderEventOutbox.appendAll(OrderEventOutbox.ORDERS_PLACED_TOPIC, events,
+                    event -> event.getRestaurantId().toString(), jdbcBatchSize);
+        }
+
+        int rejected = requests.size() - orders.size();
+        log.info("Batch of {} orders from userId={}: {} created, {} rejected", requests.size(), userId, orders.size(), rejected);
+        return new BatchOrderResponse(orders.size(), rejected, results);
+    }
+
+    private Map<String, String> validate(CreateOrderRequest request) {
+        if (request == null) {
+            return Map.of("order", "Order is required");
+        }
+        return validator.validate(request).stream()
+                .collect(Collectors.toMap(
+                        violation -> violation.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage,
+                        (existing, replacement) -> existing
+                ));
+    }
+}
@@ -0,0 +1,75 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventSerializer;
+import com.bytebites.orderservice.model.OutboxEvent;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+/**
+ * Records events in the outbox table instead of sending them to Kafka directly.
+ * Must be called inside the transaction that performs the change, so the event is
+ * stored if and only if that change commits. {@link OrderPlacedEvent}s are stored in the
+ * binary format of the shared {@code order-events} schema; other events as JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    public static final String ORDERS_PLACED_TOPIC = "orders.placed";
+    public static final String ORDER_STATUS_CHANGED_TOPIC = "orders.status-changed";
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO order_outbox (topic, message_key, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderPlacedEventSerializer placedSerializer = new OrderPlacedEventSerializer();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String key, Object event) {
+        outboxEventRepository.save(new OutboxEvent(topic, key, serialize(event), Instant.now()));
+    }
+
+    /**
+     * Appends many events with JDBC batch inserts. The outbox id is an identity column, which
+     * Hibernate cannot batch, so this bypasses the entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <E> void appendAll(String topic, List<E> events, Function<E, String> keyOf, int batchSize) {
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        // Same binding Hibernate uses for Instant columns
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_EVENT, events, batchSize, (ps, event) -> {
+            ps.setString(1, topic);
+            ps.setString(2, keyOf.apply(event));
+            ps.setBytes(3, serialize(event));
+            ps.setTimestamp(4, createdAt, utc);
+        });
+    }
+
+    private byte[] serialize(Object event) {
+        if (event instanceof OrderPlacedEvent placed) {
+            return placedSerializer.serialize(ORDERS_PLACED_TOPIC, placed);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+}
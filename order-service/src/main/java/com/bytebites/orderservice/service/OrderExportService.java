@@ -0,0 +1,85 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.util.UuidBytes;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Streams orders as NDJSON (one JSON object per line) straight from a JDBC cursor.
+ * Rows are serialized as they are read and never collected, so memory use does not
+ * depend on the number of orders.
+ * <p>
+ * MySQL Connector/J only streams a result set row by row when the fetch size is
+ * {@link Integer#MIN_VALUE}, which is the default of {@code app.orders.export.fetch-size};
+ * other drivers need a positive value.
+ */
+@Slf4j
+@Service
+public class OrderExportService {
+
+    private static final String SELECT_ORDERS =
+            "SELECT id, customer_id, restaurant_id, total_amount, status, version FROM orders";
+    private static final String NEWEST_FIRST = " ORDER BY created_at DESC, id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter orderWriter;
+
+    public OrderExportService(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              @Value("${app.orders.export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // One flush per buffer rather than per row; the caller owns the stream
+        this.orderWriter = objectMapper.writerFor(OrderView.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Writes all orders, or one restaurant's orders when {@code restaurantId} is set, newest first.
+     *
+     * @return the number of orders written
+     */
+    public long writeNdjson(UUID restaurantId, OutputStream out) throws IOException {
+        long[] written = {0};
+        String sql = SELECT_ORDERS + (restaurantId != null ? " WHERE restaurant_id = ?" : "") + NEWEST_FIRST;
+        Object[] args = restaurantId != null ? new Object[]{UuidBytes.toBytes(restaurantId)} : new Object[0];
+
+        try (JsonGenerator generator = orderWriter.createGenerator(out)) {
+            jdbcTemplate.query(sql, rs -> {
+                OrderView view = new OrderView(
+                        UuidBytes.fromBytes(rs.getBytes(1)),
+                        UuidBytes.fromBytes(rs.getBytes(2)),
+                        UuidBytes.fromBytes(rs.getBytes(3)),
+                        rs.getBigDecimal(4),
+                        rs.getString(5),
+                        rs.getLong(6));
+                try {
+                    orderWriter.writeValue(generator, view);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    // Client went away: abort the query instead of reading the rest of the table
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} orders", written[0]);
+        return written[0];
+    }
+}
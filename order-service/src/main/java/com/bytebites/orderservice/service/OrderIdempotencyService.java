@@ -0,0 +1,203 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.exception.IdempotencyKeyConflictException;
+import com.bytebites.orderservice.model.IdempotencyRecord;
+import com.bytebites.orderservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Order creation guarded by a client-supplied {@code Idempotency-Key}, so that retried requests
+ * create one order and one {@code OrderPlacedEvent}.
+ * <p>
+ * Keys are scoped to the customer and checked in two places:
+ * <ul>
+ *     <li>an in-memory window of recent keys, holding the in-flight or finished response. Concurrent
+ *     duplicates on this instance wait for the first request instead of doing the work again, and
+ *     recent replays are answered without a database round trip;</li>
+ *     <li>the {@code order_idempotency_keys} table, which covers other instances and restarts. The key
+ *     is inserted before the order in the same transaction, so a duplicate on another instance blocks
+ *     on the primary key until the first commits and then replays its response.</li>
+ * </ul>
+ * A replay returns the stored {@link OrderView} and reads neither {@code orders} nor Kafka. A key
+ * reused with a different request body is rejected. Failed requests leave no trace and can be retried.
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+    private final OrderServiceImpl orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final AsyncCache<String, StoredResponse> window;
+
+    public OrderIdempotencyService(OrderServiceImpl orderService,
+                                   IdempotencyRecordRepository idempotencyRecordRepository,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.orders.idempotency.ttl:PT24H}") Duration ttl,
+                                   @Value("${app.orders.idempotency.window-size:100000}") long windowSize,
+                                   @Value("${app.orders.idempotency.window-ttl:PT10M}") Duration windowTtl) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        // Failed futures are dropped by Caffeine, so a failed request can be retried with the same key
+        this.window = Caffeine.newBuilder()
+                .maximumSize(windowSize)
+                .expireAfterWrite(windowTtl.compareTo(ttl) < 0 ? windowTtl : ttl)
+                .buildAsync();
+    }
+
+    /**
+     * Creates the order, or returns the response of the earlier request with the same key.
+     * Without a key this is a plain {@link OrderServiceImpl#createOrder}.
+     */
+    public Result createOrder(String idempotencyKey, CreateOrderRequest request, UUID userId) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return new Result(orderService.createOrder(request, userId), false);
+        }
+        String scopedKey = userId + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = window.asMap().putIfAbsent(scopedKey, mine);
+        if (existing != null) {
+            return replay(await(existing), requestHash, idempotencyKey);
+        }
+        try {
+            Result result = createOnce(scopedKey, idempotencyKey, requestHash, request, userId);
+            mine.complete(new StoredResponse(requestHash, result.order()));
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Result createOnce(String scopedKey, String idempotencyKey, String requestHash,
+                              CreateOrderRequest request, UUID userId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(scopedKey);
+                if (existing.isPresent()) {
+                    if (existing.get().getExpiresAt().isAfter(now)) {
+                        return replay(stored(existing.get()), requestHash, idempotencyKey);
+                    }
+                    // Not swept yet; the key is free again
+                    idempotencyRecordRepository.delete(existing.get());
+                    idempotencyRecordRepository.flush();
+                }
+
+                IdempotencyRecord record = new IdempotencyRecord(scopedKey, requestHash, now, now.plus(ttl));
+                idempotencyRecordRepository.saveAndFlush(record);
+
+                OrderView order = orderService.createOrder(request, userId);
+                record.setOrderId(order.id());
+                record.setResponse(toJson(order));
+                count("created");
+                return new Result(order, false);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed the same key while this insert was waiting on it
+            IdempotencyRecord record = idempotencyRecordRepository.findById(scopedKey).orElseThrow(() -> e);
+            return replay(stored(record), requestHash, idempotencyKey);
+        }
+    }
+
+    private Result replay(StoredResponse stored, String requestHash, String idempotencyKey) {
+        if (!stored.requestHash().equals(requestHash)) {
+            count("conflict");
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different order request");
+        }
+        count("replayed");
+        return new Result(stored.order(), true);
+    }
+
+    private StoredResponse stored(IdempotencyRecord record) {
+        try {
+            return new StoredResponse(record.getRequestHash(), objectMapper.readValue(record.getResponse(), OrderView.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for idempotency key " + record.getId(), e);
+        }
+    }
+
+    private String toJson(OrderView order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + order.id(), e);
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash order request", e);
+        }
+    }
+
+    private static StoredResponse await(CompletableFuture<StoredResponse> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("order.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    /**
+     * @param replayed whether {@code order} is the stored response of an earlier request
+     */
+    public record Result(OrderView order, boolean replayed) {
+    }
+
+    private record StoredResponse(String requestHash, OrderView order) {
+    }
+}
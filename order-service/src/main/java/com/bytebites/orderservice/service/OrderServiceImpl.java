@@ -1,25 +1,40 @@
 package com.bytebites.orderservice.service;
 
 
+import com.bytebites.events.OrderPlacedEvent;
 import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.OrderCursor;
+import com.bytebites.orderservice.dto.OrderPage;
 import com.bytebites.orderservice.dto.OrderView;
-import com.bytebites.orderservice.event.OrderPlacedEvent;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.event.OrderStatusChangedEvent;
+import com.bytebites.orderservice.exception.InvalidStatusTransitionException;
+import com.bytebites.orderservice.exception.OrderVersionMismatchException;
+import com.bytebites.orderservice.exception.ResourceNotFoundException;
+import com.bytebites.orderservice.exception.UnauthorizedOrderAccessException;
 import com.bytebites.orderservice.model.Order;
 import com.bytebites.orderservice.dto.mapper.OrderMapper;
 import com.bytebites.orderservice.repository.OrderRepository;
-import com.bytebites.orderservice.util.CustomUserPrincipal;
+import com.bytebites.security.CustomUserPrincipal;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,10 +43,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
 
-    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    private final OrderEventOutbox orderEventOutbox;
+    private final OrderStatsService orderStatsService;
+    private final RestaurantOwnership restaurantOwnership;
+    private final TransactionTemplate transactionTemplate;
 
 
     @CircuitBreaker(name = "OrderService", fallbackMethod = "fallbackFindAll")
@@ -44,6 +64,7 @@ public class OrderServiceImpl {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public OrderView createOrder(CreateOrderRequest request, UUID userId) {
         log.info("Received order request from userId={} for restaurantId={}", userId, request.restaurantId());
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -51,18 +72,90 @@ public class OrderServiceImpl {
         Order order = orderMapper.toEntity(request, userId);
 
         Order saved = orderRepository.save(order);
-        OrderPlacedEvent event = new OrderPlacedEvent();
-        event.setOrderId(saved.getId());
-        event.setCustomerId(saved.getCustomerId());
-        event.setRestaurantId(saved.getRestaurantId());
-        event.setTotalAmount(saved.getTotalAmount());
-        event.setStatus(saved.getStatus());
-        event.setEmail(principal.getEmail());
-        kafkaTemplate.send("orders.placed", event);
+        orderStatsService.recordPlaced(List.of(saved));
+        OrderPlacedEvent event = placedEvent(saved, principal.getEmail());
+        // Published by OutboxRelay after commit, keyed by restaurant to keep its events in order
+        orderEventOutbox.append(OrderEventOutbox.ORDERS_PLACED_TOPIC, saved.getRestaurantId().toString(), event);
         log.info("Order placed successfully. OrderId={}", saved.getId());
         return orderMapper.toView(saved);
     }
 
+    /**
+     * Moves an order to {@code status} if its lifecycle allows it.
+     * <p>
+     * No lock is taken: the update is checked against the version that was read, so of two
+     * concurrent updates the later one fails with an
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} instead of
+     * overwriting the first. {@code expectedVersion}, when given, extends the check to the copy
+     * the client decided on. Setting the current status again changes nothing.
+     * <p>
+     * The caller is authorized before the transaction starts, as that may ask restaurant-service
+     * who owns the restaurant; the customer and restaurant of an order never change, so the answer
+     * still holds once the transaction runs.
+     *
+     * @param callerId the acting user, or {@code null} for an admin. Customers may only cancel their
+     *                 own orders; any other change needs the owner of the order's restaurant
+     * @throws com.bytebites.orderservice.exception.RestaurantServiceUnavailableException if the owner
+     *         cannot be looked up
+     */
+    public OrderView updateStatus(UUID orderId, OrderStatus status, Long expectedVersion, UUID callerId) {
+        if (callerId != null && !mayUpdate(findOrder(orderId), status, callerId)) {
+            throw new UnauthorizedOrderAccessException("Only the restaurant's owner can move order " + orderId
+                    + " to " + status + "; customers can only cancel their own orders");
+        }
+        return transactionTemplate.execute(tx -> applyStatus(orderId, status, expectedVersion));
+    }
+
+    private OrderView applyStatus(UUID orderId, OrderStatus status, Long expectedVersion) {
+        Order order = findOrder(orderId);
+        if (expectedVersion != null && expectedVersion != order.getVersion()) {
+            throw new OrderVersionMismatchException("Order " + orderId + " is at version " + order.getVersion()
+                    + ", not " + expectedVersion);
+        }
+        OrderStatus previous = order.getStatus();
+        if (previous == status) {
+            return orderMapper.toView(order);
+        }
+        if (!previous.canTransitionTo(status)) {
+            throw new InvalidStatusTransitionException("Order " + orderId + " cannot go from " + previous + " to " + status);
+        }
+
+        order.setStatus(status);
+        // Flush first: a lost race fails here, before the shared rollup rows are touched
+        Order saved = orderRepository.saveAndFlush(order);
+        orderStatsService.recordStatusChange(saved, previous);
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(orderId, saved.getCustomerId(),
+                saved.getRestaurantId(), previous, status, saved.getVersion(), Instant.now());
+        // Also what feeds the customers' streams, on every instance, once it has been relayed
+        orderEventOutbox.append(OrderEventOutbox.ORDER_STATUS_CHANGED_TOPIC, orderId.toString(), event);
+        log.info("Order {} moved from {} to {} (version {})", orderId, previous, status, saved.getVersion());
+        return orderMapper.toView(saved);
+    }
+
+    private Order findOrder(UUID orderId) {
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
+    }
+
+    private boolean mayUpdate(Order order, OrderStatus status, UUID callerId) {
+        if (status == OrderStatus.CANCELLED && callerId.equals(order.getCustomerId())) {
+            return true;
+        }
+        return restaurantOwnership.isOwner(callerId, order.getRestaurantId());
+    }
+
+    static OrderPlacedEvent placedEvent(Order order, String email) {
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.setOrderId(order.getId());
+        event.setCustomerId(order.getCustomerId());
+        event.setRestaurantId(order.getRestaurantId());
+        event.setTotalAmount(order.getTotalAmount());
+        // The event schema has its own copy of the status, with the same constants
+        event.setStatus(com.bytebites.events.OrderStatus.valueOf(order.getStatus().name()));
+        event.setEmail(email);
+        return event;
+    }
+
     @CircuitBreaker(name = "OrderService", fallbackMethod = "fallFindByUser")
     @Retry(name = "orderService")
     public List<OrderView> findAllOrdersById(UUID userId) {
@@ -74,6 +167,41 @@ public class OrderServiceImpl {
     }
 
 
+    /**
+     * Keyset-paginated listing of all orders, or of one restaurant's orders when {@code restaurantId} is set.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage findPage(UUID restaurantId, String cursor, int size) {
+        ScrollPosition position = scrollPosition(cursor);
+        Window<Order> window = restaurantId == null
+                ? orderRepository.findBy(position, NEWEST_FIRST, Limit.of(size))
+                : orderRepository.findByRestaurantId(restaurantId, position, NEWEST_FIRST, Limit.of(size));
+        return toPage(window);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderPage findPageForCustomer(UUID customerId, String cursor, int size) {
+        Window<Order> window = orderRepository.findByCustomerId(customerId, scrollPosition(cursor), NEWEST_FIRST, Limit.of(size));
+        return toPage(window);
+    }
+
+    private static ScrollPosition scrollPosition(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        OrderCursor position = OrderCursor.decode(cursor);
+        return ScrollPosition.forward(Map.of("createdAt", position.createdAt(), "id", position.id()));
+    }
+
+    private OrderPage toPage(Window<Order> window) {
+        List<OrderView> items = window.getContent().stream()
+                .map(orderMapper::toView)
+                .toList();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? OrderCursor.of(window.getContent().get(window.size() - 1)).encode()
+                : null;
+        return new OrderPage(items, nextCursor);
+    }
 
     public List<OrderView> fallbackFindAll(Throwable ex) {
         log.warn("Fallback for findAll: {}", ex.getMessage());
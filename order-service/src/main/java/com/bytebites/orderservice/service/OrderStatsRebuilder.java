@@ -0,0 +1,154 @@
+package com.bytebites.orderservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes {@code order_hourly_stats} from the {@code orders} table, e.g. after the rollups were
+ * introduced or orders were changed by hand.
+ * <p>
+ * The time span covered by orders is cut into chunks of {@code chunk-hours}, which are rebuilt in
+ * parallel on {@code parallelism} threads. Each chunk is aggregated by the database and replaces
+ * its buckets in one transaction, so a rebuild can run while orders are being placed. Only one
+ * rebuild runs at a time per instance; run the scheduled one ({@code rebuild-cron}, off by
+ * default) on a single instance.
+ */
+@Slf4j
+@Component
+public class OrderStatsRebuilder {
+
+    private static final String AGGREGATE_ORDERS =
+            "SELECT restaurant_id, YEAR(created_at), MONTH(created_at), DAY(created_at), HOUR(created_at), status, "
+                    + "COUNT(*), SUM(total_amount) FROM orders WHERE created_at >= ? AND created_at < ? "
+                    + "GROUP BY restaurant_id, YEAR(created_at), MONTH(created_at), DAY(created_at), HOUR(created_at), status";
+    private static final String INSERT_BUCKET =
+            "INSERT INTO order_hourly_stats (restaurant_id, hour_bucket, status, shard, order_count, revenue) VALUES (?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkHours;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrderStatsRebuilder(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.orders.stats.rebuild.parallelism:4}") int parallelism,
+                               @Value("${app.orders.stats.rebuild.chunk-hours:24}") int chunkHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+        this.chunkHours = chunkHours;
+    }
+
+    @Scheduled(cron = "${app.orders.stats.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Starts a rebuild on a background thread.
+     *
+     * @return {@code false} if a rebuild is already running
+     */
+    public boolean startRebuild() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().name("order-stats-rebuild").daemon().start(() -> {
+            try {
+                rebuildChunks();
+            } catch (RuntimeException e) {
+                log.error("Order stats rebuild failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Rebuilds on the calling thread.
+     *
+     * @return the number of buckets written, or empty if a rebuild was already running
+     */
+    public OptionalInt rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Order stats rebuild already running, skipping");
+            return OptionalInt.empty();
+        }
+        try {
+            return OptionalInt.of(rebuildChunks());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int rebuildChunks() {
+        long started = System.nanoTime();
+        LocalDateTime[] span = jdbcTemplate.queryForObject("SELECT MIN(created_at), MAX(created_at) FROM orders",
+                (rs, rowNum) -> new LocalDateTime[]{
+                        rs.getTimestamp(1) != null ? rs.getTimestamp(1).toLocalDateTime() : null,
+                        rs.getTimestamp(2) != null ? rs.getTimestamp(2).toLocalDateTime() : null});
+        if (span == null || span[0] == null) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("DELETE FROM order_hourly_stats"));
+            return 0;
+        }
+        LocalDateTime start = span[0].truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = span[1].truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+        // Buckets outside the span belong to orders that no longer exist
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM order_hourly_stats WHERE hour_bucket < ? OR hour_bucket >= ?",
+                Timestamp.valueOf(start), Timestamp.valueOf(end)));
+
+        AtomicInteger buckets = new AtomicInteger();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (LocalDateTime from = start; from.isBefore(end); from = from.plusHours(chunkHours)) {
+                LocalDateTime chunkStart = from;
+                LocalDateTime chunkEnd = from.plusHours(chunkHours).isBefore(end) ? from.plusHours(chunkHours) : end;
+                chunks.add(CompletableFuture.runAsync(() -> buckets.addAndGet(rebuildChunk(chunkStart, chunkEnd)), workers));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            workers.shutdownNow();
+        }
+        log.info("Rebuilt order stats from {} to {}: {} chunks, {} buckets in {} ms", start, end, chunks.size(),
+                buckets.get(), (System.nanoTime() - started) / 1_000_000);
+        return buckets.get();
+    }
+
+    private int rebuildChunk(LocalDateTime from, LocalDateTime to) {
+        Integer written = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM order_hourly_stats WHERE hour_bucket >= ? AND hour_bucket < ?",
+                    Timestamp.valueOf(from), Timestamp.valueOf(to));
+            List<Object[]> rows = jdbcTemplate.query(AGGREGATE_ORDERS, (rs, rowNum) -> new Object[]{
+                    rs.getBytes(1),
+                    Timestamp.valueOf(LocalDateTime.of(rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), 0)),
+                    rs.getString(6),
+                    rs.getLong(7),
+                    rs.getBigDecimal(8)
+            }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+            jdbcTemplate.batchUpdate(INSERT_BUCKET, rows);
+            return rows.size();
+        });
+        return written == null ? 0 : written;
+    }
+}
@@ -0,0 +1,139 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.dto.OrderStats;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.exception.InvalidOrderException;
+import com.bytebites.orderservice.model.Order;
+import com.bytebites.orderservice.repository.OrderHourlyStatsRepository;
+import com.bytebites.orderservice.util.UuidBytes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hourly order volume and revenue per restaurant, kept in {@code order_hourly_stats} so that
+ * dashboards read a few dozen rows instead of scanning {@code orders}.
+ * <p>
+ * Orders are counted in the hour they were placed, under their current status: placing an order
+ * adds it to its hour, a status change moves it between that hour's status rows. Updates are
+ * atomic upserts made in the caller's transaction, so the rollups commit or roll back together
+ * with the orders. Rows are always upserted in key order, so two transactions touching the same
+ * buckets cannot deadlock. {@link OrderStatsRebuilder} recomputes the table from scratch.
+ * <p>
+ * A busy restaurant sends every order and status change of the hour to the same few buckets.
+ * Each transaction therefore writes to one of {@code shards} rows per bucket, picked at random,
+ * and holds that row's lock until it commits; reads add the shards up.
+ */
+@Service
+public class OrderStatsService {
+
+    private static final Duration MAX_RANGE = Duration.ofDays(92);
+
+    private static final String UPSERT_BUCKET =
+            "INSERT INTO order_hourly_stats (restaurant_id, hour_bucket, status, shard, order_count, revenue) VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), revenue = revenue + VALUES(revenue)";
+
+    private static final Comparator<Bucket> KEY_ORDER = Comparator.comparing(Bucket::restaurantId)
+            .thenComparing(Bucket::hour)
+            .thenComparing(Bucket::status);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderHourlyStatsRepository orderHourlyStatsRepository;
+    private final int shards;
+
+    public OrderStatsService(JdbcTemplate jdbcTemplate,
+                             OrderHourlyStatsRepository orderHourlyStatsRepository,
+                             @Value("${app.orders.stats.shards:8}") int shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderHourlyStatsRepository = orderHourlyStatsRepository;
+        this.shards = shards;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPlaced(List<Order> orders) {
+        Map<Bucket, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Order order : orders) {
+            deltas.merge(Bucket.of(order, order.getStatus()), new Delta(1, order.getTotalAmount()), Delta::plus);
+        }
+        upsert(deltas);
+    }
+
+    /**
+     * Moves {@code order}, which already carries its new status, out of its {@code previous} status bucket.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, OrderStatus previous) {
+        if (previous == order.getStatus()) {
+            return;
+        }
+        Map<Bucket, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.put(Bucket.of(order, previous), new Delta(-1, order.getTotalAmount().negate()));
+        deltas.put(Bucket.of(order, order.getStatus()), new Delta(1, order.getTotalAmount()));
+        upsert(deltas);
+    }
+
+    /**
+     * Buckets of one restaurant from {@code from} (inclusive) to {@code to} (exclusive), both rounded
+     * down to the hour. Defaults to the last 24 hours.
+     */
+    @Transactional(readOnly = true)
+    public OrderStats getHourlyStats(UUID restaurantId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null
+                ? to.truncatedTo(ChronoUnit.HOURS)
+                : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = from != null ? from.truncatedTo(ChronoUnit.HOURS) : end.minusHours(24);
+        if (!start.isBefore(end)) {
+            throw new InvalidOrderException("'from' must be at least an hour before 'to'");
+        }
+        if (Duration.between(start, end).compareTo(MAX_RANGE) > 0) {
+            throw new InvalidOrderException("Stats can be requested for at most " + MAX_RANGE.toDays() + " days at a time");
+        }
+        return new OrderStats(restaurantId, start, end, orderHourlyStatsRepository.findRange(restaurantId, start, end));
+    }
+
+    private void upsert(Map<Bucket, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((bucket, delta) -> rows.add(new Object[]{
+                UuidBytes.toBytes(bucket.restaurantId()),
+                Timestamp.valueOf(bucket.hour()),
+                bucket.status().name(),
+                shard,
+                delta.orders(),
+                delta.revenue()
+        }));
+        jdbcTemplate.batchUpdate(UPSERT_BUCKET, rows);
+    }
+
+    private record Bucket(UUID restaurantId, LocalDateTime hour, OrderStatus status) {
+
+        static Bucket of(Order order, OrderStatus status) {
+            return new Bucket(order.getRestaurantId(), order.getCreatedAt().truncatedTo(ChronoUnit.HOURS), status);
+        }
+    }
+
+    private record Delta(long orders, BigDecimal revenue) {
+
+        Delta plus(Delta other) {
+            return new Delta(orders + other.orders, revenue.add(other.revenue));
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.event.OrderStatusChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of order changes to the customers' {@code GET /api/orders/stream} connections.
+ * <p>
+ * Open streams are async servlet requests, so an idle stream holds no thread: only its socket, an
+ * {@link SseEmitter} and a queue of at most {@code buffer-size} events. Events are drained by a
+ * small pool of sender threads, one drain per stream at a time. Each write runs on a separate
+ * writer thread and a sender waits for it at most {@code write-timeout}: a client whose TCP window
+ * is full would otherwise hold a sender until the socket times out, and a few such clients would
+ * stall every stream. A stream whose write misses the deadline is closed; the abandoned write is
+ * left to the servlet container's socket timeout and completes the stream once it returns. The
+ * writer pool is bounded: once {@code max-stalled-writes} abandoned writes are stuck on top of one
+ * live write per sender, further writes are refused and their streams closed, so slow clients
+ * cannot pile up threads. These are platform threads on purpose: {@link SseEmitter} holds its
+ * monitor while writing, which would pin virtual threads.
+ * <p>
+ * A stream whose queue is full belongs to a client that stopped reading. It is closed rather than
+ * allowed to hold events, and the client is expected to reconnect and reload its orders. Every
+ * stream gets a comment every {@code heartbeat-interval-ms}, which keeps proxies from timing idle
+ * streams out and fills the queue of a client that is gone without closing its socket, even when
+ * no orders change.
+ * <p>
+ * Changes arrive through {@link com.bytebites.orderservice.listener.OrderStreamListener}, which
+ * reads {@code orders.status-changed} in a consumer group of its own, so every instance pushes
+ * every committed change to the streams it holds.
+ * <p>
+ * Metrics: the {@code order.stream.connections} gauge, {@code order.stream.events}, tagged
+ * {@code queued} or {@code dropped}, {@code order.stream.stalled}, streams closed because a
+ * write missed its deadline, {@code order.stream.refused}, streams closed because the writer pool
+ * was full, and the {@code order.stream.abandoned-writes} gauge.
+ */
+@Slf4j
+@Component
+public class OrderStreamHub {
+
+    static final String STATUS_CHANGED_EVENT = "order-status-changed";
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders;
+    private final ExecutorService writers;
+    private final long writeTimeoutNanos;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Counter queued;
+    private final Counter dropped;
+    private final Counter stalled;
+    private final Counter refused;
+    private final AtomicInteger abandonedWrites = new AtomicInteger();
+
+    public OrderStreamHub(@Value("${app.orders.stream.buffer-size:32}") int bufferSize,
+                          @Value("${app.orders.stream.timeout:PT30M}") Duration timeout,
+                          @Value("${app.orders.stream.sender-threads:8}") int senderThreads,
+                          @Value("${app.orders.stream.write-timeout:PT5S}") Duration writeTimeout,
+                          @Value("${app.orders.stream.max-stalled-writes:256}") int maxStalledWrites,
+                          MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemonThreads("order-stream-"));
+        // Busy threads: one per sender waiting on a write, plus one per abandoned write
+        this.writers = new ThreadPoolExecutor(0, senderThreads + maxStalledWrites, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), daemonThreads("order-stream-write-"));
+        this.queued = meterRegistry.counter("order.stream.events", "outcome", "queued");
+        this.dropped = meterRegistry.counter("order.stream.events", "outcome", "dropped");
+        this.stalled = meterRegistry.counter("order.stream.stalled");
+        this.refused = meterRegistry.counter("order.stream.refused");
+        meterRegistry.gauge("order.stream.connections", connections);
+        meterRegistry.gauge("order.stream.abandoned-writes", abandonedWrites);
+    }
+
+    /**
+     * Opens a stream of the customer's order changes. It ends after {@code timeout}, upon which
+     * {@code EventSource} clients reconnect by themselves.
+     */
+    public SseEmitter subscribe(UUID customerId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        register(customerId, emitter);
+        return emitter;
+    }
+
+    void register(UUID customerId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(customerId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscriber));
+        subscribers.compute(customerId, (id, streams) -> {
+            Set<Subscriber> set = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        connections.incrementAndGet();
+        // Gets the response headers through proxies before the first change
+        offer(subscriber, SseEmitter.event().comment("connected").build());
+    }
+
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        publish(event.getCustomerId(), SseEmitter.event()
+                .name(STATUS_CHANGED_EVENT)
+                .id(event.getOrderId() + ":" + event.getVersion())
+                .data(event, MediaType.APPLICATION_JSON)
+                .build());
+    }
+
+    void publish(UUID customerId, Set<DataWithMediaType> event) {
+        Set<Subscriber> streams = subscribers.get(customerId);
+        if (streams == null) {
+            return;
+        }
+        for (Subscriber subscriber : streams) {
+            if (offer(subscriber, event)) {
+                queued.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> streams : subscribers.values()) {
+            // Offered even behind pending events, so that a client that stopped reading overflows its queue
+            streams.forEach(subscriber -> offer(subscriber, HEARTBEAT));
+        }
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(this::close));
+        senders.shutdown();
+        writers.shutdown();
+    }
+
+    private boolean offer(Subscriber subscriber, Set<DataWithMediaType> event) {
+        if (!subscriber.queue().offer(event)) {
+            dropped.increment();
+            log.info("Closing order stream of customer {}: more than {} events behind",
+                    subscriber.customerId(), bufferSize);
+            close(subscriber);
+            return false;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> event;
+            while (!subscriber.closed().get() && (event = subscriber.queue().poll()) != null) {
+                if (!write(subscriber, event)) {
+                    remove(subscriber);
+                }
+            }
+            if (subscriber.closed().get()) {
+                subscriber.queue().clear();
+                // An abandoned write still holds the emitter's monitor, and completes it once it returns
+                if (!subscriber.writeAbandoned().get()) {
+                    subscriber.emitter().complete();
+                }
+                return;
+            }
+            subscriber.draining().set(false);
+        } while (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    /**
+     * Writes one event, waiting at most {@code write-timeout}.
+     *
+     * @return {@code false} if the client is gone or too slow, and the stream must be closed
+     */
+    private boolean write(Subscriber subscriber, Set<DataWithMediaType> event) {
+        // Whoever sets it first, the finished write or the sender giving up, decides who completes
+        AtomicBoolean settled = new AtomicBoolean();
+        Future<?> write;
+        try {
+            write = writers.submit(() -> {
+                try {
+                    subscriber.emitter().send(event);
+                } finally {
+                    if (!settled.compareAndSet(false, true)) {
+                        abandonedWrites.decrementAndGet();
+                        subscriber.emitter().complete();
+                    }
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            refused.increment();
+            log.warn("Closing order stream of customer {}: {} writes are stuck on slow clients",
+                    subscriber.customerId(), abandonedWrites.get());
+            return false;
+        }
+        try {
+            write.get(writeTimeoutNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            // Counted before giving up, so that the write finishing right after cannot take it below zero
+            abandonedWrites.incrementAndGet();
+            if (!settled.compareAndSet(false, true)) {
+                // The write finished just now after all
+                abandonedWrites.decrementAndGet();
+                return succeeded(write);
+            }
+            subscriber.writeAbandoned().set(true);
+            stalled.increment();
+            log.info("Closing order stream of customer {}: a write took longer than {} ms",
+                    subscriber.customerId(), TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+            return false;
+        } catch (ExecutionException e) {
+            log.debug("Order stream of customer {} is gone: {}", subscriber.customerId(), e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean succeeded(Future<?> write) {
+        try {
+            write.get();
+            return true;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed().compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.customerId(), (id, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+        connections.decrementAndGet();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Subscriber(UUID customerId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue,
+                              AtomicBoolean draining, AtomicBoolean closed, AtomicBoolean writeAbandoned) {
+
+        Subscriber(UUID customerId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this(customerId, emitter, queue, new AtomicBoolean(), new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.model.OutboxEvent;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox table to Kafka in batches.
+ * <p>
+ * Each batch is claimed in a short transaction, sent with no transaction open, and the
+ * acknowledged rows are deleted in a second short transaction. Row locks are therefore held
+ * for milliseconds, not for as long as the broker takes to answer, and order inserts never wait
+ * on Kafka. A claim lapses after {@code claim-timeout}, so the rows of a relay that died are
+ * picked up again. Only the head of the table is ever claimed, and not while another relay's
+ * claim on it is live: relays on different instances take turns, so a later event cannot
+ * overtake an earlier one with the same key.
+ * <p>
+ * Rows are deleted only once acknowledged, so delivery is at-least-once. When a send fails,
+ * the remaining rows with the same key are handed back as well, so a retry cannot overtake an
+ * earlier event of the same key (they may be delivered twice instead).
+ * <p>
+ * Publish latency, from outbox insert to broker ack, is recorded as {@code order.outbox.publish.latency};
+ * send latency, from handing the record to the producer to the ack, as {@code order.outbox.send.latency}.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+    private final Timer publishLatency;
+    private final Timer sendLatency;
+    private final Counter publishFailures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.relay.send-timeout:PT10S}") Duration sendTimeout,
+                       @Value("${app.outbox.relay.claim-timeout:PT1M}") Duration claimTimeout,
+                       MeterRegistry meterRegistry) {
+        if (claimTimeout.compareTo(sendTimeout) <= 0) {
+            throw new IllegalArgumentException("app.outbox.relay.claim-timeout must be longer than app.outbox.relay.send-timeout");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+        this.publishLatency = Timer.builder("order.outbox.publish.latency")
+                .description("Time from outbox insert to broker acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendLatency = Timer.builder("order.outbox.send.latency")
+                .description("Time from producer send to broker acknowledgement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("order.outbox.publish.failures")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        // Keep draining while whole batches get published, then wait for the next poll
+        while (relayBatch() == batchSize) {
+            // next batch
+        }
+    }
+
+    /**
+     * Publishes one batch and returns the number of events that were acknowledged.
+     */
+    public int relayBatch() {
+        String claimId = UUID.randomUUID().toString();
+        List<OutboxEvent> batch = claim(claimId);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            // A send can block on metadata for max-block-ms; stop starting new ones once out of time
+            sends.add(System.nanoTime() < deadline ? send(event)
+                    : CompletableFuture.failedFuture(new TimeoutException("Send timeout elapsed before sending")));
+        }
+
+        Set<String> failedKeys = new HashSet<>();
+        List<Long> published = new ArrayList<>(batch.size());
+        List<Long> unpublished = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            if (!failedKeys.contains(event.getMessageKey()) && awaitAck(event, sends.get(i), deadline)) {
+                published.add(event.getId());
+                publishLatency.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } else {
+                failedKeys.add(event.getMessageKey());
+                unpublished.add(event.getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(published);
+            }
+            if (!unpublished.isEmpty()) {
+                outboxEventRepository.releaseClaim(unpublished, claimId);
+            }
+        });
+        return published.size();
+    }
+
+    /**
+     * Claims the oldest events, or none while another relay's claim on them is live.
+     */
+    private List<OutboxEvent> claim(String claimId) {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            List<OutboxEvent> oldest = outboxEventRepository.lockOldest(PageRequest.of(0, batchSize));
+            Instant now = Instant.now();
+            if (oldest.stream().anyMatch(event -> event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now))) {
+                // Sending the rows behind the claimed ones could overtake events with the same key
+                return List.<OutboxEvent>of();
+            }
+            Instant claimedUntil = now.plus(claimTimeout);
+            for (OutboxEvent event : oldest) {
+                event.setClaimId(claimId);
+                event.setClaimedUntil(claimedUntil);
+            }
+            return oldest;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> send(OutboxEvent event) {
+        try {
+            Timer.Sample sample = Timer.start();
+            return kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload())
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            sample.stop(sendLatency);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // send() can fail synchronously, e.g. when metadata cannot be fetched in time
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean awaitAck(OutboxEvent event, CompletableFuture<SendResult<String, byte[]>> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            publishFailures.increment();
+            log.warn("Failed to publish outbox event id={} to {}: {}", event.getId(), event.getTopic(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bytebites.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.bytebites.orderservice.exception.RestaurantServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Who owns a restaurant, as recorded by restaurant-service.
+ * <p>
+ * Owners are looked up with {@code GET /api/restaurants/{id}} and kept for a few minutes, so a
+ * kitchen moving a stream of orders along costs one call per restaurant rather than one per order.
+ * A restaurant that is handed to another owner is therefore still manageable by the previous one
+ * until its entry expires. Unknown restaurants are not cached.
+ * <p>
+ * Any failure other than a 404, such as a timeout or a 5xx, is a
+ * {@link RestaurantServiceUnavailableException}, answered with 503: the caller may retry, and
+ * nothing is cached.
+ */
+@Slf4j
+@Service
+public class RestaurantOwnership {
+
+    private final RestClient restClient;
+    private final Cache<UUID, UUID> owners;
+
+    public RestaurantOwnership(RestClient.Builder restClientBuilder,
+                               @Value("${app.orders.restaurants.base-url:http://restaurant-service}") String baseUrl,
+                               @Value("${app.orders.restaurants.timeout:PT2S}") Duration timeout,
+                               @Value("${app.orders.restaurants.owner-cache-size:10000}") long cacheSize,
+                               @Value("${app.orders.restaurants.owner-cache-ttl:PT5M}") Duration cacheTtl) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public boolean isOwner(UUID userId, UUID restaurantId) {
+        return userId.equals(ownerOf(restaurantId));
+    }
+
+    /**
+     * The owner's user id, or {@code null} if restaurant-service does not know the restaurant.
+     *
+     * @throws RestaurantServiceUnavailableException if restaurant-service cannot be asked
+     */
+    public UUID ownerOf(UUID restaurantId) {
+        return owners.get(restaurantId, this::fetchOwner);
+    }
+
+    private UUID fetchOwner(UUID restaurantId) {
+        try {
+            Restaurant restaurant = restClient.get()
+                    .uri("/api/restaurants/{id}", restaurantId)
+                    .retrieve()
+                    .body(Restaurant.class);
+            return Objects.requireNonNull(restaurant).ownerId();
+        } catch (HttpClientErrorException.NotFound e) {
+            log.warn("Restaurant {} not found in restaurant-service", restaurantId);
+            return null;
+        } catch (RestClientException e) {
+            throw new RestaurantServiceUnavailableException("Cannot look up the owner of restaurant "
+                    + restaurantId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private record Restaurant(UUID id, UUID ownerId) {}
+}
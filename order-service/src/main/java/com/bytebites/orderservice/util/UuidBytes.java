@@ -0,0 +1,32 @@
+package com.bytebites.orderservice.util;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversions for UUID columns read or bound through plain JDBC. Hibernate stores {@link UUID}
+ * as {@code BINARY(16)} on MySQL (most significant bits first), which the driver exposes as bytes.
+ */
+public final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Expected 16 bytes for a UUID, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
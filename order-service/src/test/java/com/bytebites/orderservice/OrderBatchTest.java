@@ -0,0 +1,139 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventCodec;
+import com.bytebites.orderservice.dto.BatchOrderItemResult;
+import com.bytebites.orderservice.dto.BatchOrderResponse;
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.exception.InvalidOrderException;
+import com.bytebites.orderservice.model.Order;
+import com.bytebites.orderservice.model.OutboxEvent;
+import com.bytebites.orderservice.repository.OrderRepository;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.bytebites.orderservice.service.OrderBatchService;
+import com.bytebites.orderservice.service.OrderEventOutbox;
+import com.bytebites.security.CustomUserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=3600000",
+        "app.orders.idempotency.sweep-interval-ms=3600000",
+        "app.orders.batch.max-size=250",
+        "app.orders.batch.jdbc-batch-size=50"
+})
+class OrderBatchTest {
+
+    @MockitoBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final UUID customerId = UUID.randomUUID();
+    private final UUID restaurantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        // Other tests on this thread may have left a mocked context behind
+        SecurityContextHolder.clearContext();
+        CustomUserPrincipal principal = new CustomUserPrincipal(customerId, "caterer@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createOrders_shouldCreateValidEntriesAndReportInvalidOnes() {
+        List<CreateOrderRequest> requests = Arrays.asList(
+                new CreateOrderRequest(restaurantId, new BigDecimal("12.50"), OrderStatus.PENDING),
+                new CreateOrderRequest(restaurantId, new BigDecimal("0.00"), OrderStatus.PENDING),
+                null,
+                new CreateOrderRequest(restaurantId, new BigDecimal("7.25"), OrderStatus.PENDING));
+
+        BatchOrderResponse response = orderBatchService.createOrders(requests, customerId);
+
+        assertEquals(2, response.created());
+        assertEquals(2, response.rejected());
+        assertEquals(List.of(BatchOrderItemResult.Status.CREATED, BatchOrderItemResult.Status.REJECTED,
+                        BatchOrderItemResult.Status.REJECTED, BatchOrderItemResult.Status.CREATED),
+                response.results().stream().map(BatchOrderItemResult::status).toList());
+        assertTrue(response.results().get(1).errors().containsKey("totalAmount"));
+
+        // Read back through JPA: the JDBC inserts must match the entity mapping
+        BatchOrderItemResult last = response.results().get(3);
+        Order saved = orderRepository.findById(last.order().id()).orElseThrow();
+        assertEquals(customerId, saved.getCustomerId());
+        assertEquals(restaurantId, saved.getRestaurantId());
+        assertEquals(0, new BigDecimal("7.25").compareTo(saved.getTotalAmount()));
+        assertEquals(OrderStatus.PENDING, saved.getStatus());
+
+        List<OutboxEvent> outbox = outboxEventRepository.findAll();
+        assertEquals(2, outbox.size());
+        OutboxEvent first = outbox.get(0);
+        assertEquals(OrderEventOutbox.ORDERS_PLACED_TOPIC, first.getTopic());
+        assertEquals(restaurantId.toString(), first.getMessageKey());
+        assertTrue(Duration.between(first.getCreatedAt(), Instant.now()).abs().toSeconds() < 60);
+        OrderPlacedEvent event = OrderPlacedEventCodec.decode(first.getPayload());
+        assertEquals(response.results().get(0).order().id(), event.getOrderId());
+        assertEquals("caterer@example.com", event.getEmail());
+    }
+
+    @Test
+    void createOrders_shouldInsertAcrossSeveralJdbcBatches() {
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(new CreateOrderRequest(restaurantId, BigDecimal.valueOf(1000 + i, 2), OrderStatus.PENDING));
+        }
+
+        BatchOrderResponse response = orderBatchService.createOrders(requests, customerId);
+
+        assertEquals(120, response.created());
+        assertEquals(120, orderRepository.count());
+        assertEquals(120, outboxEventRepository.count());
+    }
+
+    @Test
+    void createOrders_shouldRejectOversizedBatch() {
+        List<CreateOrderRequest> requests = Collections.nCopies(251,
+                new CreateOrderRequest(restaurantId, new BigDecimal("1.00"), OrderStatus.PENDING));
+
+        assertThrows(InvalidOrderException.class, () -> orderBatchService.createOrders(requests, customerId));
+        assertEquals(0, orderRepository.count());
+    }
+}
@@ -0,0 +1,185 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.exception.IdempotencyKeyConflictException;
+import com.bytebites.orderservice.repository.IdempotencyRecordRepository;
+import com.bytebites.orderservice.repository.OrderRepository;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.bytebites.orderservice.service.OrderIdempotencyService;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.bytebites.security.CustomUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=3600000",
+        "app.orders.idempotency.sweep-interval-ms=3600000"
+})
+class OrderIdempotencyTest {
+
+    @MockitoBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final UUID customerId = UUID.randomUUID();
+    private final CreateOrderRequest request =
+            new CreateOrderRequest(UUID.randomUUID(), new BigDecimal("19.99"), OrderStatus.PENDING);
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+        authenticate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createOrder_shouldReplayOriginalOrderForSameKey() {
+        OrderIdempotencyService.Result first = orderIdempotencyService.createOrder("key-1", request, customerId);
+        OrderIdempotencyService.Result second = orderIdempotencyService.createOrder("key-1", request, customerId);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.order(), second.order());
+        assertEquals(1, orderRepository.count());
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    @Test
+    void createOrder_shouldCollapseConcurrentDuplicates() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<OrderIdempotencyService.Result>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<OrderIdempotencyService.Result> task = () -> {
+                    authenticate();
+                    start.await();
+                    return orderIdempotencyService.createOrder("key-2", request, customerId);
+                };
+                results.add(executor.submit(task));
+            }
+            start.countDown();
+
+            int created = 0;
+            UUID orderId = null;
+            for (Future<OrderIdempotencyService.Result> result : results) {
+                OrderIdempotencyService.Result r = result.get(30, TimeUnit.SECONDS);
+                created += r.replayed() ? 0 : 1;
+                orderId = orderId == null ? r.order().id() : orderId;
+                assertEquals(orderId, r.order().id());
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, orderRepository.count());
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    @Test
+    void createOrder_shouldReplayFromDatabaseOnAnotherInstance() {
+        OrderIdempotencyService.Result first = orderIdempotencyService.createOrder("key-3", request, customerId);
+
+        // Same database, empty in-memory window
+        OrderIdempotencyService otherInstance = new OrderIdempotencyService(orderService, idempotencyRecordRepository,
+                objectMapper, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofHours(24), 100, Duration.ofMinutes(10));
+        OrderIdempotencyService.Result replay = otherInstance.createOrder("key-3", request, customerId);
+
+        assertTrue(replay.replayed());
+        assertEquals(first.order(), replay.order());
+        assertEquals(1, orderRepository.count());
+        assertThrows(IdempotencyKeyConflictException.class, () -> otherInstance.createOrder("key-3",
+                new CreateOrderRequest(request.restaurantId(), new BigDecimal("5.00"), OrderStatus.PENDING), customerId));
+    }
+
+    @Test
+    void createOrder_shouldRejectKeyReusedForDifferentRequest() {
+        orderIdempotencyService.createOrder("key-4", request, customerId);
+
+        CreateOrderRequest other = new CreateOrderRequest(request.restaurantId(), new BigDecimal("5.00"), OrderStatus.PENDING);
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> orderIdempotencyService.createOrder("key-4", other, customerId));
+        // The same key from another customer is a different key
+        assertFalse(orderIdempotencyService.createOrder("key-4", request, UUID.randomUUID()).replayed());
+        assertEquals(2, orderRepository.count());
+    }
+
+    @Test
+    void sweepExpired_shouldDeleteOnlyExpiredKeys() {
+        orderIdempotencyService.createOrder("old", request, customerId);
+        orderIdempotencyService.createOrder("new", request, customerId);
+        idempotencyRecordRepository.findById(customerId + ":old").ifPresent(record -> {
+            record.setExpiresAt(Instant.now().minusSeconds(1));
+            idempotencyRecordRepository.save(record);
+        });
+
+        orderIdempotencyService.sweepExpired();
+
+        assertFalse(idempotencyRecordRepository.existsById(customerId + ":old"));
+        assertTrue(idempotencyRecordRepository.existsById(customerId + ":new"));
+    }
+
+    private void authenticate() {
+        CustomUserPrincipal principal = new CustomUserPrincipal(customerId, "customer@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
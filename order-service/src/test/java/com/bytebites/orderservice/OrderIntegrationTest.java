@@ -2,7 +2,6 @@ package com.bytebites.orderservice;
 
 import com.bytebites.orderservice.dto.CreateOrderRequest;
 import com.bytebites.orderservice.enums.OrderStatus;
-import com.bytebites.orderservice.event.OrderPlacedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import static org.hamcrest.Matchers.comparesEqualTo;
@@ -57,7 +56,7 @@ public class OrderIntegrationTest {
     private ObjectMapper objectMapper;
 
     @MockitoBean
-    private KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     private final UUID customerId = UUID.randomUUID();
     private final UUID restaurantOwnerId = UUID.randomUUID();
@@ -0,0 +1,132 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.orderservice.dto.OrderPage;
+import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.exception.InvalidOrderException;
+import com.bytebites.orderservice.model.Order;
+import com.bytebites.orderservice.repository.OrderRepository;
+import com.bytebites.orderservice.service.OrderExportService;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.orders.export.fetch-size=100"
+})
+class OrderListingTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID restaurantId = UUID.randomUUID();
+    private final UUID customerId = UUID.randomUUID();
+    private List<Order> restaurantOrders;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        restaurantOrders = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Groups of three share a timestamp so the id tie-breaker is exercised
+            restaurantOrders.add(order(restaurantId, i % 2 == 0 ? customerId : UUID.randomUUID(), base.plusMinutes(i / 3)));
+        }
+        orderRepository.saveAll(restaurantOrders);
+        orderRepository.saveAll(List.of(
+                order(UUID.randomUUID(), customerId, base),
+                order(UUID.randomUUID(), UUID.randomUUID(), base.plusDays(1))));
+    }
+
+    @Test
+    void findPage_shouldWalkAllOrdersOfRestaurantWithoutGapsOrDuplicates() {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPage page = orderService.findPage(restaurantId, cursor, 10);
+            page.items().forEach(view -> seen.add(view.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        Set<UUID> expected = restaurantOrders.stream().map(Order::getId).collect(Collectors.toSet());
+        assertEquals(25, seen.size());
+        assertEquals(expected, new HashSet<>(seen));
+        // Newest first; ties are ordered by the database and only need to be stable
+        List<LocalDateTime> createdAt = seen.stream()
+                .map(id -> orderRepository.findById(id).orElseThrow().getCreatedAt())
+                .toList();
+        for (int i = 1; i < createdAt.size(); i++) {
+            assertFalse(createdAt.get(i).isAfter(createdAt.get(i - 1)));
+        }
+    }
+
+    @Test
+    void findPageForCustomer_shouldOnlyReturnCustomerOrders() {
+        OrderPage page = orderService.findPageForCustomer(customerId, null, 50);
+
+        assertEquals(14, page.items().size());
+        assertNull(page.nextCursor());
+        assertTrue(page.items().stream().allMatch(view -> view.customerId().equals(customerId)));
+    }
+
+    @Test
+    void findPage_shouldRejectMalformedCursor() {
+        assertThrows(InvalidOrderException.class, () -> orderService.findPage(null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void writeNdjson_shouldStreamOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = orderExportService.writeNdjson(restaurantId, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(25, written);
+        assertEquals(25, lines.length);
+        OrderView first = objectMapper.readValue(lines[0], OrderView.class);
+        assertEquals(restaurantId, first.restaurantId());
+        assertEquals(OrderStatus.PENDING.name(), first.status());
+    }
+
+    private static Order order(UUID restaurantId, UUID customerId, LocalDateTime createdAt) {
+        Order order = new Order();
+        order.setRestaurantId(restaurantId);
+        order.setCustomerId(customerId);
+        order.setTotalAmount(new BigDecimal("12.50"));
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+}
@@ -1,20 +1,21 @@
 package com.bytebites.orderservice;
 
+import com.bytebites.events.OrderPlacedEvent;
 import com.bytebites.orderservice.dto.CreateOrderRequest;
 import com.bytebites.orderservice.dto.OrderView;
 import com.bytebites.orderservice.model.Order;
 import com.bytebites.orderservice.enums.OrderStatus;
-import com.bytebites.orderservice.event.OrderPlacedEvent;
 import com.bytebites.orderservice.dto.mapper.OrderMapper;
 import com.bytebites.orderservice.repository.OrderRepository;
+import com.bytebites.orderservice.service.OrderEventOutbox;
 import com.bytebites.orderservice.service.OrderServiceImpl;
-import com.bytebites.orderservice.util.CustomUserPrincipal;
+import com.bytebites.orderservice.service.OrderStatsService;
+import com.bytebites.security.CustomUserPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,7 +37,10 @@ class OrderServiceImplTest {
     private OrderMapper orderMapper;
 
     @Mock
-    private KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    private OrderEventOutbox orderEventOutbox;
+
+    @Mock
+    private OrderStatsService orderStatsService;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -55,7 +59,7 @@ class OrderServiceImplTest {
     @Test
     void findAll_shouldReturnMappedOrders() {
         Order order = new Order();
-        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name());
+        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name(), 0L);
 
         when(orderRepository.findAll()).thenReturn(List.of(order));
         when(orderMapper.toView(order)).thenReturn(view);
@@ -74,7 +78,7 @@ class OrderServiceImplTest {
         Order order = new Order();
         order.setCustomerId(userId);
 
-        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name());
+        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name(), 0L);
 
         when(orderRepository.findByCustomerId(userId)).thenReturn(List.of(order));
         when(orderMapper.toView(order)).thenReturn(view);
@@ -89,7 +93,7 @@ class OrderServiceImplTest {
     }
 
     @Test
-    void createOrder_shouldSaveOrderAndSendKafkaEvent() {
+    void createOrder_shouldSaveOrderAndRecordOutboxEvent() {
         CreateOrderRequest request = new CreateOrderRequest(
                 restaurantId,
                 new BigDecimal("100.00"),
@@ -103,14 +107,14 @@ class OrderServiceImplTest {
         order.setTotalAmount(new BigDecimal("100.00"));
         order.setStatus(OrderStatus.CONFIRMED);
 
-        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name());
+        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name(), 0L);
 
         when(orderMapper.toEntity(request, userId)).thenReturn(order);
         when(orderRepository.save(order)).thenReturn(order);
         when(orderMapper.toView(order)).thenReturn(view);
 
         // Mock Security Context
-        CustomUserPrincipal principal = new CustomUserPrincipal(userId.toString(), "user@example.com");
+        CustomUserPrincipal principal = new CustomUserPrincipal(userId, "user@example.com");
         Authentication auth = mock(Authentication.class);
         when(auth.getPrincipal()).thenReturn(principal);
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -123,7 +127,7 @@ class OrderServiceImplTest {
         assertEquals(view, result);
 
         verify(orderRepository).save(order);
-        verify(kafkaTemplate).send(eq("orders.placed"), any(OrderPlacedEvent.class));
+        verify(orderEventOutbox).append(eq("orders.placed"), eq(restaurantId.toString()), any(OrderPlacedEvent.class));
     }
 
     @Test
@@ -139,10 +143,11 @@ class OrderServiceImplTest {
         when(orderRepository.save(order)).thenThrow(new RuntimeException("DB error"));
 
         assertThrows(RuntimeException.class, () -> orderService.createOrder(request, userId));
+        verifyNoInteractions(orderEventOutbox);
     }
 
     @Test
-    void createOrder_shouldSendCorrectKafkaEvent() {
+    void createOrder_shouldRecordCorrectOutboxEvent() {
         CreateOrderRequest request = new CreateOrderRequest(
                 restaurantId,
                 new BigDecimal("100.00"),
@@ -156,14 +161,14 @@ class OrderServiceImplTest {
         order.setTotalAmount(new BigDecimal("100.00"));
         order.setStatus(OrderStatus.CONFIRMED);
 
-        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name());
+        OrderView view = new OrderView(orderId, userId, restaurantId, new BigDecimal("100.00"), OrderStatus.CONFIRMED.name(), 0L);
 
         when(orderMapper.toEntity(request, userId)).thenReturn(order);
         when(orderRepository.save(order)).thenReturn(order);
         when(orderMapper.toView(order)).thenReturn(view);
 
         // Security context
-        CustomUserPrincipal principal = new CustomUserPrincipal(userId.toString(), "user@example.com");
+        CustomUserPrincipal principal = new CustomUserPrincipal(userId, "user@example.com");
         Authentication auth = mock(Authentication.class);
         when(auth.getPrincipal()).thenReturn(principal);
         SecurityContext securityContext = mock(SecurityContext.class);
@@ -173,7 +178,7 @@ class OrderServiceImplTest {
         orderService.createOrder(request, userId);
 
         ArgumentCaptor<OrderPlacedEvent> captor = ArgumentCaptor.forClass(OrderPlacedEvent.class);
-        verify(kafkaTemplate).send(eq("orders.placed"), captor.capture());
+        verify(orderEventOutbox).append(eq("orders.placed"), eq(restaurantId.toString()), captor.capture());
 
         OrderPlacedEvent event = captor.getValue();
         assertEquals(orderId, event.getOrderId());
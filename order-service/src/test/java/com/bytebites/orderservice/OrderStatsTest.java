@@ -0,0 +1,213 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.orderservice.dto.BatchOrderResponse;
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.OrderStats;
+import com.bytebites.orderservice.dto.OrderStatsBucket;
+import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.exception.InvalidOrderException;
+import com.bytebites.orderservice.model.Order;
+import com.bytebites.orderservice.repository.OrderHourlyStatsRepository;
+import com.bytebites.orderservice.repository.OrderRepository;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.bytebites.orderservice.service.OrderBatchService;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.bytebites.orderservice.service.OrderStatsRebuilder;
+import com.bytebites.orderservice.service.OrderStatsService;
+import com.bytebites.orderservice.service.RestaurantOwnership;
+import com.bytebites.security.CustomUserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stats;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=3600000",
+        "app.orders.idempotency.sweep-interval-ms=3600000",
+        "app.orders.stats.rebuild.parallelism=3",
+        "app.orders.stats.rebuild.chunk-hours=2"
+})
+@AutoConfigureMockMvc
+class OrderStatsTest {
+
+    @MockitoBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @MockitoSpyBean
+    private RestaurantOwnership restaurantOwnership;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderStatsRebuilder orderStatsRebuilder;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderHourlyStatsRepository orderHourlyStatsRepository;
+
+    private final UUID customerId = UUID.randomUUID();
+    private final UUID restaurantId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        orderHourlyStatsRepository.deleteAll();
+        // Other tests on this thread may have left a mocked context behind
+        SecurityContextHolder.clearContext();
+        CustomUserPrincipal principal = new CustomUserPrincipal(customerId, "customer@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void placedOrdersAndStatusChanges_shouldUpdateRollups() {
+        OrderView single = orderService.createOrder(
+                new CreateOrderRequest(restaurantId, new BigDecimal("10.00"), OrderStatus.PENDING), customerId);
+        BatchOrderResponse batch = orderBatchService.createOrders(List.of(
+                new CreateOrderRequest(restaurantId, new BigDecimal("2.50"), OrderStatus.PENDING),
+                new CreateOrderRequest(restaurantId, new BigDecimal("4.00"), OrderStatus.PENDING),
+                new CreateOrderRequest(UUID.randomUUID(), new BigDecimal("99.00"), OrderStatus.PENDING)), customerId);
+
+        orderService.updateStatus(single.id(), OrderStatus.CONFIRMED, null, null);
+        orderService.updateStatus(batch.results().get(1).order().id(), OrderStatus.CONFIRMED, null, null);
+
+        List<OrderStatsBucket> buckets = orderStatsService.getHourlyStats(restaurantId, null, null).buckets();
+        // Orders of this test may straddle an hour boundary, so sum over hours per status
+        assertEquals(1, orders(buckets, "PENDING"));
+        assertEquals(0, new BigDecimal("2.50").compareTo(revenue(buckets, "PENDING")));
+        assertEquals(2, orders(buckets, "CONFIRMED"));
+        assertEquals(0, new BigDecimal("14.00").compareTo(revenue(buckets, "CONFIRMED")));
+
+        // The incremental rollups match a full recomputation
+        orderStatsRebuilder.rebuild();
+        assertEquals(buckets, orderStatsService.getHourlyStats(restaurantId, null, null).buckets());
+    }
+
+    @Test
+    void rebuild_shouldRecomputeRollupsInChunks() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 0, 0);
+        // Ten hours of orders, i.e. five chunks: two orders in each hour, one of them cancelled every third hour
+        for (int hour = 0; hour < 10; hour++) {
+            save(base.plusHours(hour).plusMinutes(5), OrderStatus.DELIVERED, "20.00");
+            save(base.plusHours(hour).plusMinutes(50), hour % 3 == 0 ? OrderStatus.CANCELLED : OrderStatus.DELIVERED, "5.00");
+        }
+        save(base.plusHours(3), OrderStatus.DELIVERED, "1.00", UUID.randomUUID());
+
+        OptionalInt written = orderStatsRebuilder.rebuild();
+
+        assertEquals(OptionalInt.of(15), written);
+        OrderStats stats = orderStatsService.getHourlyStats(restaurantId, base, base.plusDays(1));
+        assertEquals(14, stats.buckets().size());
+        OrderStatsBucket firstHour = stats.buckets().get(1);
+        assertEquals(base, firstHour.hour());
+        assertEquals("DELIVERED", firstHour.status());
+        assertEquals(1, firstHour.orders());
+        assertEquals(0, new BigDecimal("20.00").compareTo(firstHour.revenue()));
+        assertEquals(16, orders(stats.buckets(), "DELIVERED"));
+        assertEquals(4, orders(stats.buckets(), "CANCELLED"));
+
+        // A second rebuild replaces rather than adds
+        orderStatsRebuilder.rebuild();
+        assertEquals(stats, orderStatsService.getHourlyStats(restaurantId, base, base.plusDays(1)));
+    }
+
+    @Test
+    void getHourlyStats_shouldRejectInvalidRanges() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        assertThrows(InvalidOrderException.class, () -> orderStatsService.getHourlyStats(restaurantId, now, now));
+        assertThrows(InvalidOrderException.class,
+                () -> orderStatsService.getHourlyStats(restaurantId, now.minusDays(93), now));
+    }
+
+    @Test
+    void getStats_shouldOnlyShowARestaurantToItsOwner() throws Exception {
+        UUID ownerId = UUID.randomUUID();
+        // restaurant-service is not running here
+        doReturn(ownerId).when(restaurantOwnership).ownerOf(restaurantId);
+
+        mockMvc.perform(get("/api/orders/stats")
+                        .param("restaurantId", restaurantId.toString())
+                        .header("X-User-ID", ownerId.toString())
+                        .header("X-User-Email", "owner@example.com")
+                        .header("X-User-Roles", "RESTAURANT_OWNER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.restaurantId").value(restaurantId.toString()));
+
+        mockMvc.perform(get("/api/orders/stats")
+                        .param("restaurantId", restaurantId.toString())
+                        .header("X-User-ID", UUID.randomUUID().toString())
+                        .header("X-User-Email", "other-owner@example.com")
+                        .header("X-User-Roles", "RESTAURANT_OWNER"))
+                .andExpect(status().isForbidden());
+    }
+
+    private void save(LocalDateTime createdAt, OrderStatus status, String amount) {
+        save(createdAt, status, amount, restaurantId);
+    }
+
+    private void save(LocalDateTime createdAt, OrderStatus status, String amount, UUID restaurant) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setRestaurantId(restaurant);
+        order.setTotalAmount(new BigDecimal(amount));
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        orderRepository.save(order);
+    }
+
+    private static long orders(List<OrderStatsBucket> buckets, String status) {
+        return buckets.stream().filter(b -> b.status().equals(status)).mapToLong(OrderStatsBucket::orders).sum();
+    }
+
+    private static BigDecimal revenue(List<OrderStatsBucket> buckets, String status) {
+        return buckets.stream().filter(b -> b.status().equals(status)).map(OrderStatsBucket::revenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,273 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.OrderStatsBucket;
+import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.event.OrderStatusChangedEvent;
+import com.bytebites.orderservice.exception.InvalidStatusTransitionException;
+import com.bytebites.orderservice.exception.OrderVersionMismatchException;
+import com.bytebites.orderservice.exception.RestaurantServiceUnavailableException;
+import com.bytebites.orderservice.exception.UnauthorizedOrderAccessException;
+import com.bytebites.orderservice.model.Order;
+import com.bytebites.orderservice.model.OutboxEvent;
+import com.bytebites.orderservice.repository.OrderHourlyStatsRepository;
+import com.bytebites.orderservice.repository.OrderRepository;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.bytebites.orderservice.service.OrderEventOutbox;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.bytebites.orderservice.service.OrderStatsService;
+import com.bytebites.orderservice.service.RestaurantOwnership;
+import com.bytebites.security.CustomUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:status;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=3600000",
+        "app.orders.idempotency.sweep-interval-ms=3600000"
+})
+class OrderStatusTest {
+
+    @MockitoBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @MockitoSpyBean
+    private RestaurantOwnership restaurantOwnership;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderHourlyStatsRepository orderHourlyStatsRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final UUID customerId = UUID.randomUUID();
+    private final UUID restaurantId = UUID.randomUUID();
+    private OrderView order;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        orderHourlyStatsRepository.deleteAll();
+        // Other tests on this thread may have left a mocked context behind
+        SecurityContextHolder.clearContext();
+        CustomUserPrincipal principal = new CustomUserPrincipal(customerId, "customer@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        // The requested status is ignored: orders always start as PENDING
+        order = orderService.createOrder(
+                new CreateOrderRequest(restaurantId, new BigDecimal("18.00"), OrderStatus.DELIVERED), customerId);
+        outboxEventRepository.deleteAll();
+        // restaurant-service is not running here
+        doReturn(UUID.randomUUID()).when(restaurantOwnership).ownerOf(restaurantId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void updateStatus_shouldFollowLifecycleAndPublishEvents() {
+        assertEquals("PENDING", order.status());
+        assertEquals(0, order.version());
+
+        OrderView confirmed = orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, 0L, null);
+        OrderView delivered = orderService.updateStatus(order.id(), OrderStatus.DELIVERED, null, null);
+
+        assertEquals(1, confirmed.version());
+        assertEquals("DELIVERED", delivered.status());
+        assertEquals(2, delivered.version());
+        // Repeating the current status is a no-op
+        assertEquals(delivered, orderService.updateStatus(order.id(), OrderStatus.DELIVERED, null, null));
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CANCELLED, null, null));
+
+        List<OrderStatusChangedEvent> events = statusEvents();
+        assertEquals(2, events.size());
+        assertEquals(OrderStatus.PENDING, events.get(0).getPreviousStatus());
+        assertEquals(OrderStatus.CONFIRMED, events.get(0).getStatus());
+        assertEquals(2, events.get(1).getVersion());
+        assertTrue(outboxEventRepository.findAll().stream()
+                .allMatch(e -> e.getMessageKey().equals(order.id().toString())));
+    }
+
+    @Test
+    void updateStatus_shouldRejectDecisionBasedOnStaleVersion() {
+        // Kitchen and courier both read version 0; the kitchen confirms first
+        orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, 0L, null);
+
+        assertThrows(OrderVersionMismatchException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CANCELLED, 0L, null));
+        assertEquals(OrderStatus.CONFIRMED, orderRepository.findById(order.id()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void staleEntity_shouldNotOverwriteNewerUpdate() {
+        Order stale = orderRepository.findById(order.id()).orElseThrow();
+        orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, null);
+
+        stale.setStatus(OrderStatus.CANCELLED);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderRepository.save(stale));
+
+        Order current = orderRepository.findById(order.id()).orElseThrow();
+        assertEquals(OrderStatus.CONFIRMED, current.getStatus());
+        assertEquals(1, current.getVersion());
+    }
+
+    @Test
+    void concurrentUpdates_shouldNeverLoseAnAppliedChange() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                OrderStatus target = i % 2 == 0 ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        long before = orderRepository.findById(order.id()).orElseThrow().getVersion();
+                        return orderService.updateStatus(order.id(), target, null, null).version() > before;
+                    } catch (ObjectOptimisticLockingFailureException | InvalidStatusTransitionException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int applied = 0;
+            for (Future<Boolean> result : results) {
+                applied += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+            }
+
+            // Every change that reported success is in the version count and the event chain
+            Order current = orderRepository.findById(order.id()).orElseThrow();
+            List<OrderStatusChangedEvent> events = statusEvents();
+            assertTrue(applied >= 1);
+            assertEquals(applied, current.getVersion());
+            assertEquals(applied, events.size());
+            OrderStatus previous = OrderStatus.PENDING;
+            for (OrderStatusChangedEvent event : events) {
+                assertEquals(previous, event.getPreviousStatus());
+                previous = event.getStatus();
+            }
+            assertEquals(current.getStatus(), previous);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The rollups still count the order exactly once
+        List<OrderStatsBucket> buckets = orderStatsService.getHourlyStats(restaurantId, null, null).buckets();
+        assertEquals(1, buckets.stream().mapToLong(OrderStatsBucket::orders).sum());
+    }
+
+    @Test
+    void updateStatus_shouldOnlyLetCustomersCancelTheirOwnOrders() {
+        assertThrows(UnauthorizedOrderAccessException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, customerId));
+        assertThrows(UnauthorizedOrderAccessException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CANCELLED, null, UUID.randomUUID()));
+
+        assertEquals("CANCELLED", orderService.updateStatus(order.id(), OrderStatus.CANCELLED, null, customerId).status());
+    }
+
+    @Test
+    void updateStatus_shouldOnlyLetTheOwnerOfTheOrdersRestaurantManageIt() {
+        UUID ownerOfThisRestaurant = UUID.randomUUID();
+        UUID ownerOfAnotherRestaurant = UUID.randomUUID();
+        doReturn(ownerOfThisRestaurant).when(restaurantOwnership).ownerOf(restaurantId);
+
+        assertThrows(UnauthorizedOrderAccessException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, ownerOfAnotherRestaurant));
+        assertThrows(UnauthorizedOrderAccessException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CANCELLED, null, ownerOfAnotherRestaurant));
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.id()).orElseThrow().getStatus());
+
+        assertEquals("CONFIRMED",
+                orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, ownerOfThisRestaurant).status());
+    }
+
+    @Test
+    void updateStatus_shouldAskRestaurantServiceBeforeTheTransactionStarts() {
+        UUID ownerOfThisRestaurant = UUID.randomUUID();
+        List<Boolean> askedInTransaction = new ArrayList<>();
+        doAnswer(invocation -> {
+            askedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return ownerOfThisRestaurant;
+        }).when(restaurantOwnership).ownerOf(restaurantId);
+
+        orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, ownerOfThisRestaurant);
+
+        assertEquals(List.of(false), askedInTransaction);
+    }
+
+    @Test
+    void updateStatus_shouldLeaveTheOrderAloneWhenRestaurantServiceFails() {
+        doThrow(new RestaurantServiceUnavailableException("restaurant-service timed out", null))
+                .when(restaurantOwnership).ownerOf(restaurantId);
+
+        assertThrows(RestaurantServiceUnavailableException.class,
+                () -> orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, UUID.randomUUID()));
+        assertEquals(OrderStatus.PENDING, orderRepository.findById(order.id()).orElseThrow().getStatus());
+        assertTrue(statusEvents().isEmpty());
+    }
+
+    private List<OrderStatusChangedEvent> statusEvents() {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> e.getTopic().equals(OrderEventOutbox.ORDER_STATUS_CHANGED_TOPIC))
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .map(e -> {
+                    try {
+                        return objectMapper.readValue(e.getPayload(), OrderStatusChangedEvent.class);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.dto.OrderView;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.service.OrderEventOutbox;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.bytebites.security.CustomUserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stream;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=50",
+        "app.orders.idempotency.sweep-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 2, topics = {OrderEventOutbox.ORDERS_PLACED_TOPIC, OrderEventOutbox.ORDER_STATUS_CHANGED_TOPIC})
+class OrderStreamTest {
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @LocalServerPort
+    private int port;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stream_shouldPushCommittedStatusChangesOfTheCustomerThroughKafka() throws Exception {
+        // The stream listener starts from the latest offset, so it must be assigned before the change
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, embeddedKafka.getPartitionsPerTopic());
+        }
+        UUID customerId = UUID.randomUUID();
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new CustomUserPrincipal(customerId, "customer@example.com"), null, List.of()));
+        OrderView order = orderService.createOrder(
+                new CreateOrderRequest(UUID.randomUUID(), new BigDecimal("9.50"), null), customerId);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/stream"))
+                .header("X-User-ID", customerId.toString())
+                .header("X-User-Roles", "CUSTOMER")
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            assertEquals(":connected", reader.readLine());
+
+            orderService.updateStatus(order.id(), OrderStatus.CONFIRMED, null, null);
+
+            String line;
+            while ((line = reader.readLine()) != null && line.isEmpty()) {
+                // Blank line ending the connected comment
+            }
+            assertEquals("event:order-status-changed", line);
+            assertEquals("id:" + order.id() + ":1", reader.readLine());
+            String data = reader.readLine();
+            assertTrue(data.startsWith("data:"));
+            assertTrue(data.contains("\"status\":\"CONFIRMED\""));
+            assertTrue(data.contains("\"previousStatus\":\"PENDING\""));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventDeserializer;
+import com.bytebites.events.OrderStatus;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.bytebites.orderservice.service.OrderEventOutbox;
+import com.bytebites.orderservice.service.OutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=50",
+        "app.outbox.relay.batch-size=7"
+})
+@EmbeddedKafka(partitions = 3, topics = OrderEventOutbox.ORDERS_PLACED_TOPIC)
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void relay_shouldPublishCommittedEventsInOrderPerRestaurant() throws Exception {
+        List<UUID> restaurants = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        int perRestaurant = 10;
+
+        try (Consumer<String, OrderPlacedEvent> consumer = consumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, OrderEventOutbox.ORDERS_PLACED_TOPIC);
+
+            // Interleave restaurants and use totalAmount as the per-restaurant sequence number
+            for (int seq = 1; seq <= perRestaurant; seq++) {
+                int sequence = seq;
+                transactionTemplate.executeWithoutResult(status -> restaurants.forEach(restaurantId ->
+                        orderEventOutbox.append(OrderEventOutbox.ORDERS_PLACED_TOPIC, restaurantId.toString(),
+                                event(restaurantId, sequence))));
+            }
+
+            Map<String, List<Integer>> received = new HashMap<>();
+            long deadline = System.currentTimeMillis() + 30_000;
+            int expected = restaurants.size() * perRestaurant;
+            int count = 0;
+            while (count < expected && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, OrderPlacedEvent> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5));
+                for (ConsumerRecord<String, OrderPlacedEvent> record : records) {
+                    OrderPlacedEvent event = record.value();
+                    assertEquals(record.key(), event.getRestaurantId().toString());
+                    received.computeIfAbsent(record.key(), k -> new ArrayList<>()).add(event.getTotalAmount().intValue());
+                    count++;
+                }
+            }
+
+            assertEquals(expected, count);
+            for (UUID restaurantId : restaurants) {
+                List<Integer> sequence = received.get(restaurantId.toString());
+                assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), sequence);
+            }
+        }
+
+        // Drain anything the scheduled relay has not deleted yet; while its claim is live, wait for it
+        long drainDeadline = System.currentTimeMillis() + 10_000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < drainDeadline) {
+            outboxRelay.relayBatch();
+            Thread.sleep(50);
+        }
+        assertEquals(0, outboxEventRepository.count());
+
+        assertTrue(meterRegistry.get("order.outbox.send.latency").timer().count() >= 30);
+        assertTrue(meterRegistry.get("kafka.producer.record.send.total").functionCounter().count() >= 30);
+        assertNotNull(meterRegistry.find("kafka.producer.buffer.exhausted.total").functionCounter());
+    }
+
+    @Test
+    void append_shouldNotStoreEventWhenTransactionRollsBack() {
+        long before = outboxEventRepository.count();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            UUID restaurantId = UUID.randomUUID();
+            orderEventOutbox.append(OrderEventOutbox.ORDERS_PLACED_TOPIC, restaurantId.toString(), event(restaurantId, 1));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, outboxEventRepository.count());
+    }
+
+    private static OrderPlacedEvent event(UUID restaurantId, int sequence) {
+        return new OrderPlacedEvent(UUID.randomUUID(), UUID.randomUUID(), restaurantId,
+                BigDecimal.valueOf(sequence), OrderStatus.PENDING, "customer@example.com");
+    }
+
+    private Consumer<String, OrderPlacedEvent> consumer() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test-" + UUID.randomUUID(), "false", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new OrderPlacedEventDeserializer())
+                .createConsumer();
+    }
+}
@@ -0,0 +1,128 @@
+package com.bytebites.orderservice;
+
+import com.bytebites.orderservice.model.OutboxEvent;
+import com.bytebites.orderservice.repository.OutboxEventRepository;
+import com.bytebites.orderservice.service.OutboxRelay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:relay;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "app.outbox.relay.poll-interval-ms=3600000",
+        "app.orders.idempotency.sweep-interval-ms=3600000"
+})
+class OutboxRelayTest {
+
+    private static final String TOPIC = "orders.placed";
+
+    @MockitoBean
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void relayBatch_shouldSendWithNoTransactionOrRowLockHeld() {
+        List<Boolean> sentInTransaction = new CopyOnWriteArrayList<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class))).thenAnswer(invocation -> {
+            sentInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return CompletableFuture.completedFuture(null);
+        });
+        append("restaurant-a");
+        append("restaurant-b");
+
+        assertEquals(2, outboxRelay.relayBatch());
+
+        assertEquals(List.of(false, false), sentInTransaction);
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void relayBatch_shouldLeaveClaimedEventsToTheRelayThatClaimedThem() throws Exception {
+        CompletableFuture<SendResult<String, byte[]>> ack = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class))).thenReturn(ack);
+        append("restaurant-a");
+        append("restaurant-a");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> first = executor.submit(outboxRelay::relayBatch);
+            verify(kafkaTemplate, timeout(5_000).times(2)).send(anyString(), anyString(), any(byte[].class));
+
+            // The broker has not answered, yet new events can be written and the claim holds
+            append("restaurant-a");
+            assertEquals(0, outboxRelay.relayBatch());
+            verify(kafkaTemplate, times(2)).send(anyString(), anyString(), any(byte[].class));
+
+            ack.complete(null);
+            assertEquals(2, first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    @Test
+    void relayBatch_shouldHandBackEventsOfAFailedKeyForTheNextRun() {
+        when(kafkaTemplate.send(eq(TOPIC), eq("restaurant-a"), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send(eq(TOPIC), eq("restaurant-b"), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        append("restaurant-a");
+        append("restaurant-b");
+        append("restaurant-a");
+
+        assertEquals(1, outboxRelay.relayBatch());
+
+        List<OutboxEvent> left = outboxEventRepository.findAll();
+        assertEquals(2, left.size());
+        assertTrue(left.stream().allMatch(event -> event.getClaimId() == null && event.getClaimedUntil() == null));
+
+        reset(kafkaTemplate);
+        when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        assertEquals(2, outboxRelay.relayBatch());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    private void append(String key) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.save(new OutboxEvent(TOPIC, key, new byte[]{1}, Instant.now())));
+    }
+}
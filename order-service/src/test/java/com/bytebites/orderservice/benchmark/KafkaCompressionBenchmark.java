@@ -0,0 +1,119 @@
+package com.bytebites.orderservice.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventCodec;
+import com.bytebites.events.OrderStatus;
+import com.bytebites.orderservice.config.KafkaProducerConfig;
+import com.bytebites.orderservice.config.KafkaProducerProperties;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing {@value #EVENTS} {@code orders.placed} events the way the outbox relay does (send
+ * all, then await all acks) with each compression codec, against an embedded single-node broker.
+ * Events are keyed by one of {@value #RESTAURANTS} restaurants. Scores are events per second; the
+ * bytes the producer put on the wire per event are printed when each trial ends.
+ * <p>
+ * The broker runs in the benchmark JVM and there is no real network, so compression only shows
+ * its CPU cost here. Its saving in bandwidth and broker disk is what the printed figure measures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class KafkaCompressionBenchmark {
+
+    private static final int EVENTS = 2_000;
+    private static final int RESTAURANTS = 50;
+    private static final String TOPIC = "bench.orders.placed";
+
+    @Param({"none", "gzip", "snappy", "lz4", "zstd"})
+    public String compression;
+
+    private EmbeddedKafkaBroker broker;
+    private KafkaProducer<String, byte[]> producer;
+    private List<ProducerRecord<String, byte[]>> records;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        broker = new EmbeddedKafkaKraftBroker(1, 6, TOPIC);
+        broker.afterPropertiesSet();
+
+        KafkaProducerProperties properties = new KafkaProducerProperties();
+        properties.setCompressionType(compression);
+        producer = new KafkaProducer<>(KafkaProducerConfig.producerConfig(broker.getBrokersAsString(), 5000, properties));
+
+        Random random = new Random(42);
+        List<UUID> restaurants = new ArrayList<>();
+        for (int i = 0; i < RESTAURANTS; i++) {
+            restaurants.add(UUID.randomUUID());
+        }
+        records = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            UUID restaurantId = restaurants.get(random.nextInt(RESTAURANTS));
+            OrderPlacedEvent event = new OrderPlacedEvent(UUID.randomUUID(), UUID.randomUUID(), restaurantId,
+                    BigDecimal.valueOf(500 + random.nextInt(10_000), 2), OrderStatus.PENDING,
+                    "customer" + random.nextInt(100_000) + "@example.com");
+            records.add(new ProducerRecord<>(TOPIC, restaurantId.toString(), OrderPlacedEventCodec.encode(event)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s: %.1f bytes on the wire per event, average compression rate %.2f%n",
+                compression, metric("outgoing-byte-total") / metric("record-send-total"), metric("compression-rate-avg"));
+        producer.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int publish() throws Exception {
+        List<Future<RecordMetadata>> sends = new ArrayList<>(EVENTS);
+        for (ProducerRecord<String, byte[]> record : records) {
+            sends.add(producer.send(record));
+        }
+        for (Future<RecordMetadata> send : sends) {
+            send.get();
+        }
+        return sends.size();
+    }
+
+    private double metric(String name) {
+        return producer.metrics().entrySet().stream()
+                .filter(e -> e.getKey().group().equals("producer-metrics") && e.getKey().name().equals(name))
+                .mapToDouble(e -> ((Number) e.getValue().metricValue()).doubleValue())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+}
@@ -0,0 +1,116 @@
+package com.bytebites.orderservice.benchmark;
+
+import com.bytebites.orderservice.OrderServiceApplication;
+import com.bytebites.orderservice.dto.CreateOrderRequest;
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.service.OrderBatchService;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import com.bytebites.security.CustomUserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placing {@value #ORDERS} orders one {@code createOrder} call at a time against one
+ * {@link OrderBatchService#createOrders} call, on an in-memory H2 database. Scores are orders per
+ * second. H2 has no network round trips, so this understates the gain on MySQL, where each
+ * single-order transaction also pays for its statements and commit over the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class OrderBatchBenchmark {
+
+    private static final int ORDERS = 500;
+
+    private ConfigurableApplicationContext context;
+    private OrderServiceImpl orderService;
+    private OrderBatchService orderBatchService;
+    private JdbcTemplate jdbcTemplate;
+    private UUID customerId;
+    private List<CreateOrderRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:batch-bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "server.port=0",
+                        "app.outbox.relay.poll-interval-ms=3600000",
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderServiceImpl.class);
+        orderBatchService = context.getBean(OrderBatchService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        customerId = UUID.randomUUID();
+        UUID restaurantId = UUID.randomUUID();
+        requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            requests.add(new CreateOrderRequest(restaurantId, BigDecimal.valueOf(1_000 + i, 2), OrderStatus.PENDING));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTables() {
+        jdbcTemplate.update("DELETE FROM order_outbox");
+        jdbcTemplate.update("DELETE FROM orders");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public int oneByOne() {
+        authenticate();
+        int created = 0;
+        for (CreateOrderRequest request : requests) {
+            orderService.createOrder(request, customerId);
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public int batch() {
+        authenticate();
+        return orderBatchService.createOrders(requests, customerId).created();
+    }
+
+    private void authenticate() {
+        CustomUserPrincipal principal = new CustomUserPrincipal(customerId, "bench@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
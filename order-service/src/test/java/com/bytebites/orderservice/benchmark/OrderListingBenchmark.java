@@ -0,0 +1,133 @@
+package com.bytebites.orderservice.benchmark;
+
+import com.bytebites.orderservice.OrderServiceApplication;
+import com.bytebites.orderservice.dto.OrderCursor;
+import com.bytebites.orderservice.service.OrderExportService;
+import com.bytebites.orderservice.service.OrderServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing the orders table the old way ({@code findAll} into a list) against a keyset page
+ * and the NDJSON export, on an in-memory H2 database seeded with {@code rows} orders.
+ * Run with {@code -prof gc}: the list and the export allocate about as much per row, but the
+ * list keeps every entity and view reachable until it returns, while the export only holds the
+ * current row.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class OrderListingBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private OrderServiceImpl orderService;
+    private OrderExportService orderExportService;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "server.port=0",
+                        "app.orders.export.fetch-size=1000",
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderServiceImpl.class);
+        orderExportService = context.getBean(OrderExportService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+
+        // A cursor halfway down the table, where OFFSET paging would be at its slowest
+        middleCursor = jdbcTemplate.queryForObject(
+                "SELECT created_at, id FROM orders ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?",
+                (rs, rowNum) -> new OrderCursor(rs.getTimestamp(1).toLocalDateTime(), rs.getObject(2, UUID.class)).encode(),
+                rows / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int listAllInMemory() {
+        return orderService.findAll().size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public long exportNdjson() throws IOException {
+        return orderExportService.writeNdjson(null, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int keysetPage() {
+        return orderService.findPage(null, middleCursor, 50).items().size();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<UUID> restaurants = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            restaurants.add(UUID.randomUUID());
+        }
+        int chunk = 10_000;
+        for (int offset = 0; offset < rows; offset += chunk) {
+            List<Object[]> batch = new ArrayList<>(chunk);
+            for (int i = offset; i < Math.min(rows, offset + chunk); i++) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                batch.add(new Object[]{
+                        UUID.randomUUID(),
+                        UUID.randomUUID(),
+                        restaurants.get(random.nextInt(restaurants.size())),
+                        BigDecimal.valueOf(random.nextInt(1_000, 10_000), 2),
+                        "PENDING",
+                        Timestamp.valueOf(start.plusSeconds(i))
+                });
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO orders (id, customer_id, restaurant_id, total_amount, status, created_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)",
+                    batch);
+        }
+    }
+}
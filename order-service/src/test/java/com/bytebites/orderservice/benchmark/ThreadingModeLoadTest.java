@@ -0,0 +1,419 @@
+package com.bytebites.orderservice.benchmark;
+
+import com.bytebites.orderservice.OrderServiceApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Closed-loop load test of {@code GET /api/orders/myorder/page}, once with Tomcat's platform
+ * request threads and once with virtual threads. Each of {@code clients} virtual threads sends a
+ * request, waits for the response and sends the next one.
+ * <p>
+ * The service runs in a child JVM on H2, with every JDBC statement delayed by
+ * {@code load.db-latency} while it holds its connection, to stand in for the MySQL round trip.
+ * Both modes use the {@code virtual-threads} profile's Hikari pool unless {@code load.pool-size}
+ * overrides it, so only the threading model differs. This is not a JMH benchmark; run its
+ * {@code main} with the test classpath and enough file descriptors for two sockets per client:
+ * <pre>
+ * ulimit -n 20000
+ * java -Dload.db-latency=PT0.01S -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.bytebites.orderservice.benchmark.ThreadingModeLoadTest 1000 10000
+ * </pre>
+ * Clients and service share the machine, so on a small box both modes end up CPU-bound; compare
+ * them with each other rather than with production numbers. A closed loop of {@code n} clients
+ * waits about {@code n / throughput} per request, so raise {@code load.request-timeout} (60 s)
+ * and the warmup when a level would exceed it, or no request completes.
+ * <p>
+ * With {@code -Dload.jfr=<dir>} each service JVM records {@code jdk.VirtualThreadPinned} events,
+ * with no threshold, to {@code <dir>/platform.jfr} and {@code <dir>/virtual.jfr}; the output then
+ * lists the frames that pinned most, by the first frame outside the JDK. {@code -Dload.threads=virtual}
+ * runs only one of the modes. A service that runs out of heap or stops answering gets a row with
+ * {@code -1} Tomcat threads.
+ */
+public final class ThreadingModeLoadTest {
+
+    private static final int CUSTOMERS = 1_000;
+    private static final int ORDERS_PER_CUSTOMER = 5;
+    private static final String REQUEST_THREADS = "request-threads";
+
+    private ThreadingModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("serve")) {
+            serve(Boolean.parseBoolean(args[1]));
+            return;
+        }
+        int[] levels = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{1_000, 10_000};
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT15S"));
+        Duration requestTimeout = Duration.parse(System.getProperty("load.request-timeout", "PT60S"));
+        String jfr = System.getProperty("load.jfr");
+        List<String> modes = List.of(System.getProperty("load.threads", "platform,virtual").split(","));
+
+        List<String> rows = new ArrayList<>();
+        List<String> pinning = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            if (!modes.contains(virtual ? "virtual" : "platform")) {
+                continue;
+            }
+            Process service = fork(virtual);
+            BlockingQueue<String> out = drain(service);
+            try (PrintWriter in = new PrintWriter(service.getOutputStream(), true)) {
+                int port = (int) reply(out, "port=");
+                for (int clients : levels) {
+                    Result result = run(port, clients, warmup, duration, requestTimeout, () -> {
+                        in.println(REQUEST_THREADS);
+                        return reply(out, REQUEST_THREADS + "=");
+                    });
+                    rows.add(String.format("%-9s %8d %10.0f %9.1f %9.1f %9.1f %8d %9d",
+                            virtual ? "virtual" : "platform", clients, result.throughput(),
+                            result.latency().getValueAtPercentile(50) / 1e3,
+                            result.latency().getValueAtPercentile(99) / 1e3,
+                            result.latency().getMaxValue() / 1e3,
+                            result.errors(), result.requestThreads()));
+                }
+            } finally {
+                service.waitFor(30, TimeUnit.SECONDS);
+                service.destroy();
+            }
+            if (jfr != null) {
+                pinning.addAll(pinning(recording(jfr, virtual), virtual ? "virtual" : "platform"));
+            }
+        }
+
+        String poolSize = System.getProperty("load.pool-size");
+        System.out.printf("%nDB latency %s per statement, pool %s%n", System.getProperty("load.db-latency", "PT0.01S"),
+                poolSize != null ? poolSize : "from the virtual-threads profile");
+        System.out.printf("%-9s %8s %10s %9s %9s %9s %8s %9s%n",
+                "threads", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "tomcat");
+        rows.forEach(System.out::println);
+        if (jfr != null) {
+            System.out.printf("%njdk.VirtualThreadPinned by first non-JDK frame%n%-9s %8s %9s  %s%n",
+                    "threads", "events", "total ms", "frame");
+            pinning.forEach(System.out::println);
+        }
+    }
+
+    private static Path recording(String directory, boolean virtual) {
+        return Path.of(directory, (virtual ? "virtual" : "platform") + ".jfr");
+    }
+
+    /** The five frames with the most pinned events in {@code recording}. */
+    private static List<String> pinning(Path recording, String mode) throws IOException {
+        if (!Files.exists(recording) || Files.size(recording) == 0) {
+            // A JVM that did not shut down cleanly never wrote its recording
+            return List.of(String.format("%-9s no recording at %s", mode, recording));
+        }
+        Map<String, long[]> byFrame = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            if (event.getEventType().getName().equals("jdk.VirtualThreadPinned")) {
+                long[] countAndNanos = byFrame.computeIfAbsent(culprit(event.getStackTrace()), frame -> new long[2]);
+                countAndNanos[0]++;
+                countAndNanos[1] += event.getDuration().toNanos();
+            }
+        }
+        if (byFrame.isEmpty()) {
+            return List.of(String.format("%-9s %8d %9.1f  -", mode, 0, 0.0));
+        }
+        return byFrame.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(5)
+                .map(entry -> String.format("%-9s %8d %9.1f  %s", mode, entry.getValue()[0],
+                        entry.getValue()[1] / 1e6, entry.getKey()))
+                .toList();
+    }
+
+    private static String culprit(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "(no stack trace)";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "(JDK only)";
+    }
+
+    private static Process fork(boolean virtual) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        // Fail the requests instead of leaving a JVM that thrashes in GC
+        command.add("-XX:+ExitOnOutOfMemoryError");
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("load."))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        String jfr = System.getProperty("load.jfr");
+        if (jfr != null) {
+            command.add("-XX:StartFlightRecording:filename=" + recording(jfr, virtual)
+                    + ",jdk.VirtualThreadPinned#threshold=0ms");
+        }
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                ThreadingModeLoadTest.class.getName(), "serve", Boolean.toString(virtual)));
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    /**
+     * Runs the service until stdin closes. Prints {@code port=}, then answers each
+     * {@value #REQUEST_THREADS} line with the number of Tomcat platform worker threads.
+     */
+    private static void serve(boolean virtual) throws IOException {
+        // Devtools would otherwise re-run this main in a restart class loader, losing the arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // A killed load test would otherwise leave this JVM competing with the next run
+        ProcessHandle.current().parent().ifPresent(parent -> parent.onExit().thenRun(() -> Runtime.getRuntime().halt(1)));
+        Duration dbLatency = Duration.parse(System.getProperty("load.db-latency", "PT0.01S"));
+        // Passed as arguments, which rank above the profile's own settings
+        List<String> overrides = new ArrayList<>(List.of("--spring.threads.virtual.enabled=" + virtual));
+        String poolSize = System.getProperty("load.pool-size");
+        if (poolSize != null) {
+            overrides.add("--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .profiles("virtual-threads")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "server.port=0",
+                        "app.outbox.relay.poll-interval-ms=3600000",
+                        "app.orders.idempotency.sweep-interval-ms=3600000",
+                        "logging.level.root=WARN")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(delayingDataSources(dbLatency)))
+                .run(overrides.toArray(String[]::new))) {
+            seed(context.getBean(JdbcTemplate.class));
+            System.out.println("port=" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            System.out.flush();
+            BufferedReader commands = new BufferedReader(new InputStreamReader(System.in));
+            String command;
+            while ((command = commands.readLine()) != null) {
+                if (command.equals(REQUEST_THREADS)) {
+                    System.out.println(REQUEST_THREADS + "=" + Thread.getAllStackTraces().keySet().stream()
+                            .filter(thread -> thread.getName().startsWith("http-nio-") && thread.getName().contains("-exec-"))
+                            .count());
+                    System.out.flush();
+                }
+            }
+        }
+    }
+
+    private static Result run(int port, int clients, Duration warmup, Duration duration, Duration requestTimeout,
+                              RequestThreadCount requestThreads) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        Histogram latency = new ConcurrentHistogram(Math.max(TimeUnit.SECONDS.toMicros(60), requestTimeout.toNanos() / 1_000), 3);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/myorder/page?size=20"))
+                    .header("X-User-ID", customer(i % CUSTOMERS).toString())
+                    .header("X-User-Roles", "CUSTOMER")
+                    .timeout(requestTimeout)
+                    .build();
+            threads.add(Thread.ofVirtual().start(() -> {
+                // Spread connection setup over the first half of the warmup
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(warmup.toNanos() / 2 + 1));
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    long end = System.nanoTime();
+                    if (start >= measureFrom && end <= measureUntil) {
+                        if (ok) {
+                            completed.incrementAndGet();
+                            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(end - start), latency.getHighestTrackableValue()));
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(measureUntil - System.nanoTime()));
+        long serviceThreads;
+        try {
+            serviceThreads = requestThreads.get();
+        } catch (IOException e) {
+            // The service died or stalled under the load; its requests are counted as errors
+            serviceThreads = -1;
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        http.shutdownNow();
+        return new Result(completed.get() / (duration.toNanos() / 1e9), latency, errors.get(), serviceThreads);
+    }
+
+    /**
+     * Reads the service's stdout until it exits, keeping only the replies to the load test. Logging
+     * must be drained as well: a full pipe blocks the appender, and every request that logs queues
+     * behind it.
+     */
+    private static BlockingQueue<String> drain(Process service) {
+        BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+        Thread.ofPlatform().daemon().start(() -> {
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(service.getInputStream()))) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    if (line.startsWith("port=") || line.startsWith(REQUEST_THREADS + "=")) {
+                        replies.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                // The service is gone either way
+            }
+            replies.add("");
+        });
+        return replies;
+    }
+
+    /**
+     * Waits for the service's next reply, which must start with {@code prefix}. A service that
+     * spends its time in GC never answers, so the wait is bounded.
+     */
+    private static long reply(BlockingQueue<String> out, String prefix) throws IOException {
+        String line;
+        try {
+            line = out.poll(2, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + prefix, e);
+        }
+        if (line == null) {
+            throw new IOException("Service did not print " + prefix + " in time");
+        }
+        if (!line.startsWith(prefix)) {
+            // Keeps the end-of-output marker for later calls
+            out.add(line);
+            throw new IOException("Service exited before printing " + prefix);
+        }
+        return Long.parseLong(line.substring(prefix.length()));
+    }
+
+    private static UUID customer(int index) {
+        return new UUID(0x0000_0000_0000_4000L, 0x8000_0000_0000_0000L | index);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(CUSTOMERS * ORDERS_PER_CUSTOMER);
+        for (int c = 0; c < CUSTOMERS; c++) {
+            for (int o = 0; o < ORDERS_PER_CUSTOMER; o++) {
+                batch.add(new Object[]{UUID.randomUUID(), customer(c), UUID.randomUUID(),
+                        BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1_000, 10_000), 2),
+                        "PENDING", Timestamp.valueOf(start.plusMinutes(batch.size()))});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders (id, customer_id, restaurant_id, total_amount, status, created_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)",
+                batch);
+    }
+
+    /**
+     * Wraps each data source so that every statement execution first waits {@code latency} on the
+     * connection it was prepared on, the way a query does while MySQL answers it.
+     */
+    private static BeanPostProcessor delayingDataSources(Duration latency) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? delaying(dataSource, latency) : bean;
+            }
+        };
+    }
+
+    private static DataSource delaying(DataSource dataSource, Duration latency) {
+        return proxy(DataSource.class, dataSource, (method, result) ->
+                result instanceof Connection connection ? delaying(connection, latency) : result, null);
+    }
+
+    private static Connection delaying(Connection connection, Duration latency) {
+        return proxy(Connection.class, connection, (method, result) ->
+                method.getReturnType() == PreparedStatement.class
+                        ? proxy(PreparedStatement.class, (PreparedStatement) result, null, latency)
+                        : result, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, BiFunction<Method, Object, Object> wrapResult, Duration delayExecutions) {
+        return (T) Proxy.newProxyInstance(ThreadingModeLoadTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (delayExecutions != null && method.getName().startsWith("execute")) {
+                        LockSupport.parkNanos(delayExecutions.toNanos());
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    return wrapResult != null ? wrapResult.apply(method, result) : result;
+                });
+    }
+
+    private interface RequestThreadCount {
+        long get() throws IOException;
+    }
+
+    private record Result(double throughput, Histogram latency, long errors, long requestThreads) {
+    }
+}
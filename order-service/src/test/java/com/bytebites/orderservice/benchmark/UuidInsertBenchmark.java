@@ -0,0 +1,104 @@
+package com.bytebites.orderservice.benchmark;
+
+import com.bytebites.commons.UuidV7;
+import com.bytebites.orderservice.util.UuidBytes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads {@code rows} rows keyed by random v4 or time-ordered v7 UUIDs into an empty table with a
+ * {@code BINARY(16)} primary key, in JDBC batches committed every {@value #COMMIT_EVERY} rows.
+ * <p>
+ * The default target is an H2 file database with a small page cache, so the table outgrows it as
+ * it would outgrow the InnoDB buffer pool. For MySQL, pass for example
+ * {@code -p jdbcUrl="jdbc:mysql://localhost:3306/bench?user=root&password=root&rewriteBatchedStatements=true"}.
+ * Run with fewer rows, e.g. {@code -p rows=1000000}, for a quick comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 10_000;
+    private static final String PAYLOAD = "x".repeat(64);
+
+    @Param({"v4", "v7"})
+    private String version;
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"jdbc:h2:file:./target/uuid-bench;CACHE_SIZE=16384"})
+    private String jdbcUrl;
+
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void createTable() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS uuid_bench");
+            statement.execute("CREATE TABLE uuid_bench (id BINARY(16) NOT NULL PRIMARY KEY, "
+                    + "created_at TIMESTAMP NOT NULL, payload VARCHAR(64) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropTable() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE uuid_bench");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        boolean timeOrdered = version.equals("v7");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO uuid_bench (id, created_at, payload) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                UUID id = timeOrdered ? UuidV7.generate() : UUID.randomUUID();
+                insert.setBytes(1, UuidBytes.toBytes(id));
+                insert.setTimestamp(2, now);
+                insert.setString(3, PAYLOAD);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                if (i % COMMIT_EVERY == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return rows;
+    }
+}
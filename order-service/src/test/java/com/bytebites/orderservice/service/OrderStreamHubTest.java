@@ -0,0 +1,213 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.enums.OrderStatus;
+import com.bytebites.orderservice.event.OrderStatusChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStreamHubTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderStreamHub hub = new OrderStreamHub(4, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), 16, meterRegistry);
+    private final UUID customerId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void onStatusChanged_shouldReachOnlyTheCustomersStreams() {
+        RecordingEmitter phone = new RecordingEmitter(new CountDownLatch(0));
+        RecordingEmitter laptop = new RecordingEmitter(new CountDownLatch(0));
+        RecordingEmitter otherCustomer = new RecordingEmitter(new CountDownLatch(0));
+        hub.register(customerId, phone);
+        hub.register(customerId, laptop);
+        hub.register(UUID.randomUUID(), otherCustomer);
+        // The "connected" comments are written asynchronously too
+        awaitUntil(() -> otherCustomer.sent.size() == 1);
+
+        hub.onStatusChanged(event(1));
+
+        awaitUntil(() -> phone.sent.size() == 2 && laptop.sent.size() == 2);
+        assertTrue(phone.sent.get(1).contains("event:" + OrderStreamHub.STATUS_CHANGED_EVENT));
+        assertEquals(1, otherCustomer.sent.size());
+        assertTrue(otherCustomer.sent.get(0).contains("connected"));
+        assertEquals(3, hub.connectionCount());
+    }
+
+    @Test
+    void slowConsumer_shouldBeDroppedWithoutHoldingUpOthers() {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        hub.register(customerId, stuck);
+        hub.register(customerId, fast);
+
+        for (int version = 1; version <= 6; version++) {
+            hub.onStatusChanged(event(version));
+            int expected = version + 1;
+            awaitUntil(() -> fast.sent.size() == expected);
+        }
+
+        assertEquals(1, hub.connectionCount());
+        assertEquals(1.0, meterRegistry.get("order.stream.events").tag("outcome", "dropped").counter().count());
+
+        // The stuck write finishes or times out, then the dropped stream is closed
+        unblock.countDown();
+        awaitUntil(() -> stuck.completed);
+        assertFalse(fast.completed);
+    }
+
+    @Test
+    void stalledWrite_shouldCloseTheStreamAndKeepServingOthers() {
+        // One sender: without a write deadline the stalled client would hold it for good
+        OrderStreamHub singleSender = new OrderStreamHub(4, Duration.ofMinutes(1), 1, Duration.ofMillis(200), 16, meterRegistry);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unblock);
+        RecordingEmitter fast = new RecordingEmitter(new CountDownLatch(0));
+        try {
+            singleSender.register(customerId, stalled);
+            singleSender.register(customerId, fast);
+
+            for (int version = 1; version <= 3; version++) {
+                singleSender.onStatusChanged(event(version));
+                int expected = version + 1;
+                awaitUntil(() -> fast.sent.size() == expected);
+            }
+
+            assertEquals(1, singleSender.connectionCount());
+            assertEquals(1.0, meterRegistry.get("order.stream.stalled").counter().count());
+            unblock.countDown();
+            awaitUntil(() -> stalled.completed);
+        } finally {
+            unblock.countDown();
+            singleSender.shutdown();
+        }
+    }
+
+    @Test
+    void stalledWrites_shouldNotTakeMoreThreadsThanTheBound() {
+        // One sender and one stalled write allowed: two writer threads at most
+        // A registry of its own, since the gauges of the shared one belong to the other hub
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderStreamHub bounded = new OrderStreamHub(4, Duration.ofMinutes(1), 1, Duration.ofMillis(200), 1, registry);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter firstStalled = new RecordingEmitter(unblock);
+        RecordingEmitter secondStalled = new RecordingEmitter(unblock);
+        RecordingEmitter refused = new RecordingEmitter(new CountDownLatch(0));
+        try {
+            bounded.register(customerId, firstStalled);
+            bounded.register(customerId, secondStalled);
+            bounded.register(customerId, refused);
+
+            awaitUntil(() -> refused.completed);
+            assertTrue(refused.sent.isEmpty());
+            assertEquals(0, bounded.connectionCount());
+            assertEquals(2.0, registry.get("order.stream.abandoned-writes").gauge().value());
+            assertEquals(1.0, registry.get("order.stream.refused").counter().count());
+
+            // The abandoned writes finish, complete their streams and free their threads
+            unblock.countDown();
+            awaitUntil(() -> firstStalled.completed && secondStalled.completed);
+            assertEquals(0.0, registry.get("order.stream.abandoned-writes").gauge().value());
+
+            RecordingEmitter next = new RecordingEmitter(new CountDownLatch(0));
+            bounded.register(customerId, next);
+            awaitUntil(() -> next.sent.size() == 1);
+        } finally {
+            unblock.countDown();
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void sendHeartbeats_shouldWriteCommentToIdleStreams() {
+        RecordingEmitter idle = new RecordingEmitter(new CountDownLatch(0));
+        hub.register(customerId, idle);
+        awaitUntil(() -> idle.sent.size() == 1);
+
+        hub.sendHeartbeats();
+
+        awaitUntil(() -> idle.sent.size() == 2);
+        assertTrue(idle.sent.get(1).contains("heartbeat"));
+    }
+
+    @Test
+    void sendHeartbeats_shouldCloseStreamsOfClientsThatStoppedReading() {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter gone = new RecordingEmitter(unblock);
+        hub.register(customerId, gone);
+
+        // One write in flight, then the four queue slots, then one too many
+        for (int i = 0; i < 6; i++) {
+            hub.sendHeartbeats();
+        }
+
+        assertEquals(0, hub.connectionCount());
+        assertEquals(1.0, meterRegistry.get("order.stream.events").tag("outcome", "dropped").counter().count());
+        unblock.countDown();
+        awaitUntil(() -> gone.completed);
+    }
+
+    private OrderStatusChangedEvent event(long version) {
+        return new OrderStatusChangedEvent(UUID.randomUUID(), customerId, UUID.randomUUID(),
+                OrderStatus.PENDING, OrderStatus.CONFIRMED, version, Instant.now());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the stream");
+            LockSupport.parkNanos(10_000_000);
+        }
+    }
+
+    /**
+     * Records what would be written to the client; each write waits for {@code writable} first.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch writable;
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch writable) {
+            this.writable = writable;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                writable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            StringBuilder text = new StringBuilder();
+            items.forEach(item -> text.append(item.getData()));
+            sent.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
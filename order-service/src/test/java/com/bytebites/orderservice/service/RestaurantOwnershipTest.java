@@ -0,0 +1,83 @@
+package com.bytebites.orderservice.service;
+
+import com.bytebites.orderservice.exception.RestaurantServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestaurantOwnershipTest {
+
+    private final UUID restaurantId = UUID.randomUUID();
+    private final UUID ownerId = UUID.randomUUID();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer restaurantService;
+    private volatile int status;
+    private RestaurantOwnership restaurantOwnership;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        restaurantService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        restaurantService.createContext("/api/restaurants/", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = ("{\"id\":\"" + restaurantId + "\",\"ownerId\":\"" + ownerId + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (status == 200) {
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } else {
+                exchange.sendResponseHeaders(status, -1);
+            }
+            exchange.close();
+        });
+        restaurantService.start();
+        restaurantOwnership = new RestaurantOwnership(RestClient.builder(),
+                "http://localhost:" + restaurantService.getAddress().getPort(),
+                Duration.ofSeconds(2), 100, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantService.stop(0);
+    }
+
+    @Test
+    void ownerOf_shouldCacheTheOwner() {
+        status = 200;
+
+        assertTrue(restaurantOwnership.isOwner(ownerId, restaurantId));
+        assertFalse(restaurantOwnership.isOwner(UUID.randomUUID(), restaurantId));
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void ownerOf_shouldReturnNullForAnUnknownRestaurant() {
+        status = 404;
+
+        assertNull(restaurantOwnership.ownerOf(restaurantId));
+    }
+
+    @Test
+    void ownerOf_shouldReportOtherFailuresAsUnavailableWithoutCachingThem() {
+        status = 500;
+        assertThrows(RestaurantServiceUnavailableException.class, () -> restaurantOwnership.ownerOf(restaurantId));
+
+        restaurantService.stop(0);
+        assertThrows(RestaurantServiceUnavailableException.class, () -> restaurantOwnership.ownerOf(restaurantId));
+
+        assertEquals(1, requests.get());
+    }
+}
@@ -1,5 +1,6 @@
 package com.bytebites.restaurantservice.Interface;
 import com.bytebites.restaurantservice.dto.CreateRestaurantRequest;
+import com.bytebites.restaurantservice.dto.PageResponse;
 import com.bytebites.restaurantservice.dto.RestaurantDto;
 
 import java.util.List;
@@ -13,6 +14,8 @@ public interface RestaurantService {
 
     List<RestaurantDto> getRestaurantsByOwner(UUID ownerId);
 
+    PageResponse<RestaurantDto> getRestaurantsByOwner(UUID ownerId, int page, int size);
+
     RestaurantDto updateRestaurant(UUID id, CreateRestaurantRequest request, UUID ownerId);
 
     void deleteRestaurant(UUID id, UUID ownerId);
@@ -0,0 +1,83 @@
+package com.bytebites.restaurantservice.cache;
+
+import com.bytebites.restaurantservice.dto.RestaurantDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of restaurant reads, holding single restaurants by id and the full listing
+ * under one entry.
+ * <p>
+ * Concurrent misses on the same key wait for a single loader instead of each querying the
+ * database. Writers must call {@link #evict(UUID)} once their transaction has committed, on
+ * every instance; the TTL only bounds how long a missed invalidation can go unnoticed.
+ * Failed loads, including unknown ids, are not cached.
+ * <p>
+ * Caffeine metrics (gets, loads, load duration, evictions) are published under
+ * {@code restaurant.by-id} and {@code restaurant.all}, with a {@code restaurant.cache.hit.ratio}
+ * gauge for each.
+ */
+@Component
+public class RestaurantCache {
+
+    private static final String ALL = "all";
+
+    private final Cache<UUID, RestaurantDto> byId;
+    private final Cache<String, List<RestaurantDto>> all;
+
+    public RestaurantCache(@Value("${app.restaurant-cache.max-size:10000}") long maximumSize,
+                           @Value("${app.restaurant-cache.ttl:PT10M}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.all = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        monitor(meterRegistry, byId, "restaurant.by-id");
+        monitor(meterRegistry, all, "restaurant.all");
+    }
+
+    public RestaurantDto get(UUID id, Function<UUID, RestaurantDto> loader) {
+        return byId.get(id, loader);
+    }
+
+    public List<RestaurantDto> getAll(Supplier<List<RestaurantDto>> loader) {
+        return all.get(ALL, key -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Drops the restaurant and the full listing it appears in.
+     */
+    public void evict(UUID id) {
+        byId.invalidate(id);
+        all.invalidate(ALL);
+    }
+
+    public void evictAll() {
+        byId.invalidateAll();
+        all.invalidateAll();
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("restaurant.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+}
@@ -1,7 +1,7 @@
 package com.bytebites.restaurantservice.configuration;
 
 
-import com.bytebites.restaurantservice.security.HeaderAuthFilter;
+import com.bytebites.security.HeaderAuthFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
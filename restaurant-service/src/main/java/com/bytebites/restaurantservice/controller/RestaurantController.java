@@ -1,6 +1,7 @@
 package com.bytebites.restaurantservice.controller;
 
 import com.bytebites.restaurantservice.dto.CreateRestaurantRequest;
+import com.bytebites.restaurantservice.dto.PageResponse;
 import com.bytebites.restaurantservice.dto.RestaurantDto;
 import com.bytebites.restaurantservice.service.RestaurantServiceImpl;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +41,22 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurantService.findAll());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    @Operation(
+            summary = "Get a page of restaurants",
+            description = "Paginated listing of all restaurants with their menus, ordered by name. Size is capped at 100.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page retrieved successfully"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content)
+            }
+    )
+    public ResponseEntity<PageResponse<RestaurantDto>> getRestaurantPage(
+            @Parameter(description = "Zero-based page index") @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(restaurantService.findPage(page, size));
+    }
+
     @Operation(
             summary = "Create a restaurant",
             description = "Only restaurant owners can create a restaurant",
@@ -70,6 +87,15 @@ public class RestaurantController {
         return ResponseEntity.ok(restaurants);
     }
 
+    @GetMapping("/owner/page")
+    @PreAuthorize("hasRole('RESTAURANT_OWNER')")
+    public ResponseEntity<PageResponse<RestaurantDto>> getByOwnerPage(
+            @RequestHeader("X-User-ID") UUID ownerId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(restaurantService.getRestaurantsByOwner(ownerId, page, size));
+    }
+
     @Operation(
             summary = "Update restaurant details",
             description = "Allows a restaurant owner to update their own restaurant. Checks ownership internally.",
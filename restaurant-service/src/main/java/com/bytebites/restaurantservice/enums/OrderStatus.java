@@ -1,8 +0,0 @@
-package com.bytebites.restaurantservice.enums;
-
-public enum OrderStatus {
-    PENDING,
-    CONFIRMED,
-    DELIVERED,
-    CANCELLED
-}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.bytebites.restaurantservice.event;
+
+import java.util.UUID;
+
+/**
+ * Published inside the transaction that creates, updates or deletes a restaurant.
+ */
+public record RestaurantChangedEvent(UUID restaurantId) {
+}
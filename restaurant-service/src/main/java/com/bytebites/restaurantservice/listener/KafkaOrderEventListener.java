@@ -1,10 +1,13 @@
 package com.bytebites.restaurantservice.listener;
 
-import com.bytebites.restaurantservice.event.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @Slf4j
 public class KafkaOrderEventListener {
@@ -14,8 +17,15 @@ public class KafkaOrderEventListener {
             groupId = "restaurant-group",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void handleOrderPlacedEvent(OrderPlacedEvent event) {
-        log.info("Restaurant-Service: Received OrderPlacedEvent for Order ID: {}", event.getOrderId());
-        log.info("Informing restaurant {} to start preparing the order.", event.getRestaurantId());
+    public void handleOrderPlacedEvents(List<OrderPlacedEvent> events, Acknowledgment ack) {
+        log.info("Restaurant-Service: Received {} OrderPlacedEvents", events.size());
+        for (OrderPlacedEvent event : events) {
+            // Undeserializable records arrive as null; ErrorHandlingDeserializer has already logged them
+            if (event == null) {
+                continue;
+            }
+            log.info("Informing restaurant {} to start preparing order {}.", event.getRestaurantId(), event.getOrderId());
+        }
+        ack.acknowledge();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.bytebites.restaurantservice.listener;
+
+import com.bytebites.restaurantservice.cache.RestaurantCache;
+import com.bytebites.restaurantservice.event.RestaurantChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Keeps {@link RestaurantCache} consistent across instances. A committed change is evicted
+ * locally straight away and then broadcast, keyed by restaurant id so that changes to one
+ * restaurant stay ordered; every instance, including this one, evicts again on receipt.
+ * <p>
+ * Evicting only after commit means a concurrent reader cannot reload the old row between the
+ * eviction and the commit. A message that never reaches Kafka leaves other instances stale for
+ * at most the cache TTL.
+ */
+@Slf4j
+@Component
+public class RestaurantCacheInvalidationListener {
+
+    private final RestaurantCache restaurantCache;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+
+    public RestaurantCacheInvalidationListener(
+            RestaurantCache restaurantCache,
+            @Qualifier("cacheInvalidationKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+            @Value("${app.restaurant-cache.invalidation-topic:restaurants.cache-invalidation}") String topic) {
+        this.restaurantCache = restaurantCache;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        UUID id = event.restaurantId();
+        restaurantCache.evict(id);
+
+        String value = id.toString();
+        try {
+            kafkaTemplate.send(topic, value, value).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Failed to broadcast cache invalidation for restaurant {}: {}", value, ex.toString());
+                }
+            });
+        } catch (RuntimeException ex) {
+            // The change is committed either way; do not turn a Kafka outage into a failed request
+            log.warn("Failed to broadcast cache invalidation for restaurant {}: {}", value, ex.toString());
+        }
+    }
+
+    @KafkaListener(
+            topics = "${app.restaurant-cache.invalidation-topic:restaurants.cache-invalidation}",
+            groupId = "restaurant-cache-${random.uuid}",
+            containerFactory = "cacheInvalidationListenerContainerFactory"
+    )
+    public void onInvalidation(String restaurantId) {
+        try {
+            restaurantCache.evict(UUID.fromString(restaurantId));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Malformed restaurant id {} in cache invalidation, clearing the whole cache", restaurantId);
+            restaurantCache.evictAll();
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.bytebites.restaurantservice.model;
 
+import com.bytebites.commons.UuidV7;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
@@ -17,12 +20,13 @@ import java.util.UUID;
 public class MenuItem {
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     private String name;
     private double price;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Restaurant restaurant;
 }
 
@@ -1,9 +1,12 @@
 package com.bytebites.restaurantservice.model;
 
+import com.bytebites.commons.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +19,7 @@ import java.util.UUID;
 public class Restaurant {
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7.class)
     private UUID id;
 
     private String name;
@@ -23,7 +27,9 @@ public class Restaurant {
 
     private UUID ownerId;
 
+    // Paged listings cannot fetch-join the menu, so they load the menus of a whole page in one query
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
+    @BatchSize(size = 100)
     private List<MenuItem> menuItems = new ArrayList<>();
 }
 
@@ -1,12 +1,23 @@
 package com.bytebites.restaurantservice.repository;
 
 import com.bytebites.restaurantservice.model.Restaurant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, UUID> {
+
+    @Override
+    @EntityGraph(attributePaths = "menuItems")
+    List<Restaurant> findAll();
+
+    @EntityGraph(attributePaths = "menuItems")
     List<Restaurant> findByOwnerId(UUID ownerId);
-}
 
+    // No entity graph on the paged queries: Hibernate would page a fetch join in memory
+    Page<Restaurant> findByOwnerId(UUID ownerId, Pageable pageable);
+}
@@ -1,17 +1,25 @@
 package com.bytebites.restaurantservice.service;
 
 import com.bytebites.restaurantservice.Interface.RestaurantService;
+import com.bytebites.restaurantservice.cache.RestaurantCache;
 import com.bytebites.restaurantservice.dto.CreateRestaurantRequest;
+import com.bytebites.restaurantservice.dto.PageResponse;
 import com.bytebites.restaurantservice.dto.RestaurantDto;
 import com.bytebites.restaurantservice.exception.ResourceNotFoundException;
 import com.bytebites.restaurantservice.dto.mapper.RestaurantMapper;
+import com.bytebites.restaurantservice.event.RestaurantChangedEvent;
 import com.bytebites.restaurantservice.model.Restaurant;
 import com.bytebites.restaurantservice.repository.RestaurantRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -23,27 +31,46 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RestaurantServiceImpl implements RestaurantService {
 
+    // Matches the @BatchSize on Restaurant.menuItems, so a page needs one menu query
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final Sort BY_NAME = Sort.by("name", "id");
+
     private final RestaurantRepository restaurantRepository;
+    private final RestaurantCache restaurantCache;
+    private final ApplicationEventPublisher eventPublisher;
+    // Cache misses load in their own read-only transaction, so hits never borrow a connection
+    private final TransactionTemplate readOnlyTransaction;
+
+    public RestaurantServiceImpl(RestaurantRepository restaurantRepository,
+                                 RestaurantCache restaurantCache,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantCache = restaurantCache;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     @CircuitBreaker(name = "restaurantService", fallbackMethod = "fallbackRestaurant")
     @Retry(name = "restaurantService")
     public  List<RestaurantDto> findAll(){
-        return restaurantRepository.findAll().stream()
-                .map(RestaurantMapper::toDto)
-                .collect(Collectors.toList());
+        return restaurantCache.getAll(() -> readOnlyTransaction.execute(status ->
+                restaurantRepository.findAll().stream()
+                        .map(RestaurantMapper::toDto)
+                        .collect(Collectors.toList())));
     }
 
     @CircuitBreaker(name = "restaurantService", fallbackMethod = "fallbackRestaurant")
     @Retry(name = "restaurantService")
     @Override
-    @Transactional(readOnly = true)
     public RestaurantDto getRestaurantById(UUID id) {
-        return restaurantRepository.findById(id)
-                .map(RestaurantMapper::toDto)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
+        return restaurantCache.get(id, key -> readOnlyTransaction.execute(status ->
+                restaurantRepository.findById(key)
+                        .map(RestaurantMapper::toDto)
+                        .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + key))));
     }
 
     @CircuitBreaker(name = "restaurantService", fallbackMethod = "fallbackRestaurant")
@@ -56,12 +83,26 @@ public class RestaurantServiceImpl implements RestaurantService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PageResponse<RestaurantDto> findPage(int page, int size) {
+        return PageResponse.of(restaurantRepository.findAll(pageRequest(page, size))
+                .map(RestaurantMapper::toDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<RestaurantDto> getRestaurantsByOwner(UUID ownerId, int page, int size) {
+        return PageResponse.of(restaurantRepository.findByOwnerId(ownerId, pageRequest(page, size))
+                .map(RestaurantMapper::toDto));
+    }
+
     @Override
     @Transactional
     public RestaurantDto createRestaurant(CreateRestaurantRequest request, UUID ownerId) {
         Restaurant newRestaurant = RestaurantMapper.toEntity(request);
         newRestaurant.setOwnerId(ownerId);
         Restaurant savedRestaurant = restaurantRepository.save(newRestaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(savedRestaurant.getId()));
         return RestaurantMapper.toDto(savedRestaurant);
     }
 
@@ -78,6 +119,7 @@ public class RestaurantServiceImpl implements RestaurantService {
         existingRestaurant.setName(request.name());
         existingRestaurant.setAddress(request.address());
         Restaurant savedRestaurant = restaurantRepository.save(existingRestaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
         return RestaurantMapper.toDto(savedRestaurant);
     }
 
@@ -92,6 +134,12 @@ public class RestaurantServiceImpl implements RestaurantService {
         }
 
         restaurantRepository.delete(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id));
+    }
+
+    // Out-of-range values are clamped rather than rejected, like Spring Data's own Pageable resolver
+    private static Pageable pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE), BY_NAME);
     }
 
     public RestaurantDto fallBackRestaurant(UUID id, Throwable ex) {
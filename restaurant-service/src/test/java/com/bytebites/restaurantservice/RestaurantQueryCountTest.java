@@ -0,0 +1,122 @@
+package com.bytebites.restaurantservice;
+
+import com.bytebites.restaurantservice.cache.RestaurantCache;
+import com.bytebites.restaurantservice.dto.PageResponse;
+import com.bytebites.restaurantservice.dto.RestaurantDto;
+import com.bytebites.restaurantservice.model.MenuItem;
+import com.bytebites.restaurantservice.model.Restaurant;
+import com.bytebites.restaurantservice.repository.RestaurantRepository;
+import com.bytebites.restaurantservice.service.RestaurantServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listing restaurants must cost the same number of statements however many restaurants are
+ * returned; a count growing with the result size means menus are being loaded one by one again.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false"
+})
+class RestaurantQueryCountTest {
+
+    private static final int RESTAURANTS = 30;
+    private static final int ITEMS_PER_RESTAURANT = 3;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private RestaurantServiceImpl restaurantService;
+
+    @Autowired
+    private RestaurantCache restaurantCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final UUID ownerId = UUID.randomUUID();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        restaurantRepository.deleteAll();
+        for (int i = 0; i < RESTAURANTS; i++) {
+            restaurantRepository.save(restaurant("Restaurant " + i, i % 3 == 0 ? UUID.randomUUID() : ownerId));
+        }
+        restaurantCache.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_shouldLoadRestaurantsAndMenusInOneQuery() {
+        List<RestaurantDto> restaurants = restaurantService.findAll();
+
+        assertEquals(RESTAURANTS, restaurants.size());
+        assertTrue(restaurants.stream().allMatch(r -> r.menuItems().size() == ITEMS_PER_RESTAURANT));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRestaurantsByOwner_shouldLoadRestaurantsAndMenusInOneQuery() {
+        List<RestaurantDto> restaurants = restaurantService.getRestaurantsByOwner(ownerId);
+
+        assertEquals(20, restaurants.size());
+        assertTrue(restaurants.stream().allMatch(r -> r.menuItems().size() == ITEMS_PER_RESTAURANT));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findPage_shouldUsePageCountAndOneMenuQuery() {
+        PageResponse<RestaurantDto> page = restaurantService.findPage(1, 25);
+
+        assertEquals(5, page.content().size());
+        assertEquals(RESTAURANTS, page.totalElements());
+        assertEquals(2, page.totalPages());
+        assertTrue(page.content().stream().allMatch(r -> r.menuItems().size() == ITEMS_PER_RESTAURANT));
+        // The count query is skipped on a short last page
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        PageResponse<RestaurantDto> first = restaurantService.findPage(0, 25);
+        assertEquals(25, first.content().size());
+        assertTrue(first.content().stream().allMatch(r -> r.menuItems().size() == ITEMS_PER_RESTAURANT));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRestaurantsByOwnerPage_shouldUseConstantQueries() {
+        PageResponse<RestaurantDto> page = restaurantService.getRestaurantsByOwner(ownerId, 0, 10);
+
+        assertEquals(10, page.content().size());
+        assertEquals(20, page.totalElements());
+        assertEquals("Restaurant 1", page.content().get(0).name());
+        assertTrue(page.content().stream().allMatch(r -> r.menuItems().size() == ITEMS_PER_RESTAURANT));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private static Restaurant restaurant(String name, UUID ownerId) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName(name);
+        restaurant.setAddress("1 Main St");
+        restaurant.setOwnerId(ownerId);
+        for (int i = 0; i < ITEMS_PER_RESTAURANT; i++) {
+            restaurant.getMenuItems().add(new MenuItem(null, "Item " + i, 5.0 + i, restaurant));
+        }
+        return restaurant;
+    }
+}
@@ -0,0 +1,158 @@
+package com.bytebites.restaurantservice.benchmark;
+
+import com.bytebites.events.OrderPlacedEvent;
+import com.bytebites.events.OrderPlacedEventSerializer;
+import com.bytebites.events.OrderStatus;
+import com.bytebites.restaurantservice.RestaurantServiceApplication;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.BatchAcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Events per second drained from a {@value #PARTITIONS}-partition {@code orders.placed} topic on
+ * an embedded broker, through the application's own {@code kafkaListenerContainerFactory}
+ * (batch listener, manual ack, fetch sizing) at different consumer concurrencies.
+ * <p>
+ * Each invocation reads the same {@value #EVENTS} pre-produced events with a new consumer group,
+ * so group join and partition assignment are part of the measurement. Every batch parks for
+ * {@value #DOWNSTREAM_NANOS_PER_EVENT} ns per event to stand in for the downstream call a real
+ * listener makes; without it the benchmark would only measure deserialization on the available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderEventConsumerBenchmark {
+
+    private static final String TOPIC = "orders.placed";
+    private static final int PARTITIONS = 12;
+    private static final int EVENTS = 200_000;
+    private static final long DOWNSTREAM_NANOS_PER_EVENT = 20_000;
+
+    @Param({"1", "4", "12"})
+    private int concurrency;
+
+    private EmbeddedKafkaBroker broker;
+    private ConfigurableApplicationContext context;
+    private ConcurrentKafkaListenerContainerFactory<String, OrderPlacedEvent> factory;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+        produceEvents();
+
+        context = new SpringApplicationBuilder(RestaurantServiceApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:consumerbench;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "server.port=0",
+                        "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "app.kafka.consumer.concurrency=" + concurrency,
+                        "logging.level.root=WARN")
+                .run();
+        // The application's own listeners would otherwise compete for the benchmark's events
+        context.getBean(KafkaListenerEndpointRegistry.class).stop();
+        factory = context.getBean("kafkaListenerContainerFactory", ConcurrentKafkaListenerContainerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int drainTopic() throws InterruptedException {
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        ConcurrentMessageListenerContainer<String, OrderPlacedEvent> container = factory.createContainer(TOPIC);
+        container.getContainerProperties().setGroupId("benchmark-" + UUID.randomUUID());
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        container.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+        container.getContainerProperties().setMessageListener(
+                (BatchAcknowledgingMessageListener<String, OrderPlacedEvent>) (records, ack) -> {
+                    LockSupport.parkNanos(records.size() * DOWNSTREAM_NANOS_PER_EVENT);
+                    ack.acknowledge();
+                    if (consumed.addAndGet(records.size()) >= EVENTS) {
+                        done.countDown();
+                    }
+                });
+
+        container.start();
+        try {
+            if (!done.await(2, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Consumed only " + consumed.get() + " of " + EVENTS + " events");
+            }
+        } finally {
+            container.stop();
+        }
+        return consumed.get();
+    }
+
+    private void produceEvents() throws Exception {
+        List<UUID> restaurants = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            restaurants.add(UUID.randomUUID());
+        }
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, OrderPlacedEventSerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 20);
+        try (KafkaProducer<String, OrderPlacedEvent> producer = new KafkaProducer<>(config)) {
+            for (int i = 0; i < EVENTS; i++) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                UUID restaurantId = restaurants.get(random.nextInt(restaurants.size()));
+                OrderPlacedEvent event = new OrderPlacedEvent(UUID.randomUUID(), UUID.randomUUID(), restaurantId,
+                        BigDecimal.valueOf(random.nextInt(1_000, 10_000), 2), OrderStatus.PENDING, "customer" + i + "@example.com");
+                producer.send(new ProducerRecord<>(TOPIC, restaurantId.toString(), event));
+            }
+            producer.flush();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bytebites.restaurantservice.cache;
+
+import com.bytebites.restaurantservice.dto.RestaurantDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestaurantCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestaurantCache cache = new RestaurantCache(100, Duration.ofMinutes(10), meterRegistry);
+
+    @Test
+    void get_shouldRunOneLoaderForConcurrentMissesOnSameKey() throws Exception {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RestaurantDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(id, key -> {
+                    loads.incrementAndGet();
+                    loaderEntered.countDown();
+                    await(release);
+                    return restaurant(key, "Mama's");
+                })));
+            }
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            for (Future<RestaurantDto> result : results) {
+                assertEquals("Mama's", result.get(5, TimeUnit.SECONDS).name());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_shouldDropRestaurantAndListing() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger listLoads = new AtomicInteger();
+        cache.get(id, key -> restaurant(key, "Old"));
+        cache.getAll(() -> {
+            listLoads.incrementAndGet();
+            return List.of(restaurant(id, "Old"));
+        });
+
+        cache.evict(id);
+
+        assertEquals("New", cache.get(id, key -> restaurant(key, "New")).name());
+        cache.getAll(() -> {
+            listLoads.incrementAndGet();
+            return List.of(restaurant(id, "New"));
+        });
+        assertEquals(2, listLoads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheFailedLoadsAndShouldRecordHitRatio() {
+        UUID id = UUID.randomUUID();
+        assertThrows(IllegalStateException.class, () -> cache.get(id, key -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        cache.get(id, key -> restaurant(key, "Loaded"));
+        cache.get(id, key -> fail("should be cached"));
+
+        double hitRatio = meterRegistry.get("restaurant.cache.hit.ratio").tag("cache", "restaurant.by-id").gauge().value();
+        assertEquals(1.0 / 3, hitRatio, 1e-9);
+    }
+
+    private static RestaurantDto restaurant(UUID id, String name) {
+        return new RestaurantDto(id, name, "1 Main St", UUID.randomUUID(), List.of());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}